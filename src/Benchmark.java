@@ -0,0 +1,119 @@
+import java.util.Arrays;
+import java.util.Random;
+
+import model.Filter;
+import model.FixedPoint;
+import model.IFilter;
+import model.ITransformation;
+import model.Image;
+import model.PackedImage;
+import model.Parallel;
+import model.PlanarImage;
+import model.TableTransformation;
+import model.Transformation;
+
+/**
+ * Class for timing the row loops of the filters and the colour transformations on a single
+ * thread. Every loop is run a few times first so the JIT compiler has compiled it, and the
+ * median of the timed runs is printed, in milliseconds.
+ */
+public class Benchmark {
+  private static final int WARM_UP_RUNS = 5;
+  private static final int TIMED_RUNS = 11;
+
+  /**
+   * Runs the benchmark. The first argument, if given, is the fixed point mode (on, off or
+   * verify) and the second one the width and height of the square image, which is 2000 by
+   * default. The vector instructions used by the JIT compiler can be limited with the options
+   * of the JVM, for example -XX:UseAVX=2 for AVX2 on a machine with AVX-512.
+   *
+   * @param args the fixed point mode and the size of the image.
+   */
+  public static void main(String[] args) {
+    if (args.length > 0) {
+      FixedPoint.setMode(args[0]);
+    }
+    int size = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+    Parallel.setThreads(1);
+
+    Random random = new Random(1);
+    int[] plane = new int[size * size];
+    int[] raster = new int[size * size];
+    for (int i = 0; i < plane.length; i++) {
+      plane[i] = random.nextInt(256);
+      raster[i] = random.nextInt(1 << 24);
+    }
+
+    double[][] blur = {{0.0625, 0.125, 0.0625}, {0.125, 0.25, 0.125}, {0.0625, 0.125, 0.0625}};
+    double[][] sharpen = new double[5][5];
+    for (int i = 0; i < 5; i++) {
+      for (int j = 0; j < 5; j++) {
+        boolean edge = i == 0 || j == 0 || i == 4 || j == 4;
+        sharpen[i][j] = i == 2 && j == 2 ? 1 : edge ? -0.125 : 0.25;
+      }
+    }
+    double[][] large = new double[9][9];
+    for (double[] row : large) {
+      for (int j = 0; j < row.length; j++) {
+        row[j] = random.nextDouble() / 40;
+      }
+    }
+
+    int[] result = new int[plane.length];
+    timeFilter("blur 3x3", new Filter(blur), plane, result, size);
+    timeFilter("sharpen 5x5", new Filter(sharpen), plane, result, size);
+    timeFilter("random 9x9", new Filter(large), plane, result, size);
+
+    double[][] sepia = {{0.393, 0.769, 0.189}, {0.349, 0.686, 0.168}, {0.272, 0.534, 0.131}};
+    Image packed = new PackedImage(size, size, raster);
+    Image planar = PlanarImage.fromRaster(size, size, raster);
+    timeTransformation("sepia, packed", new Transformation(sepia), packed);
+    timeTransformation("sepia, planar", new Transformation(sepia), planar);
+    timeTransformation("sepia table, packed", new TableTransformation(sepia), packed);
+  }
+
+  /**
+   * Times the given filter on the given plane and prints the median time.
+   *
+   * @param name the name printed with the time.
+   * @param filter the filter.
+   * @param plane the values of the channel.
+   * @param result the array to write the filtered values into.
+   * @param size the width and height of the plane.
+   */
+  private static void timeFilter(String name, IFilter filter, int[] plane, int[] result,
+                                 int size) {
+    print(name, () -> filter.filterPlane(plane, result, size, size, 255));
+  }
+
+  /**
+   * Times the given transformation on the given image and prints the median time.
+   *
+   * @param name the name printed with the time.
+   * @param transformation the transformation.
+   * @param image the image.
+   */
+  private static void timeTransformation(String name, ITransformation transformation,
+                                         Image image) {
+    print(name, () -> image.applyTransformation(transformation));
+  }
+
+  /**
+   * Runs the given loop and prints the median time of the timed runs.
+   *
+   * @param name the name printed with the time.
+   * @param loop the loop to time.
+   */
+  private static void print(String name, Runnable loop) {
+    long[] times = new long[TIMED_RUNS];
+    for (int run = 0; run < WARM_UP_RUNS + TIMED_RUNS; run++) {
+      long start = System.nanoTime();
+      loop.run();
+      if (run >= WARM_UP_RUNS) {
+        times[run - WARM_UP_RUNS] = System.nanoTime() - start;
+      }
+    }
+    Arrays.sort(times);
+    System.out.printf("%-22s %8.1f ms%n", name, times[TIMED_RUNS / 2] / 1e6);
+  }
+}
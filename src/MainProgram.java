@@ -1,7 +1,17 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import controller.BatchController;
+import controller.CommandPlanner;
 import controller.GuiController;
 import controller.ProController;
 import controller.SimpleGuiController;
+import controller.StreamingScript;
+import model.FixedPoint;
+import model.Parallel;
 import model.utility.FileUtil;
+import model.utility.ImageUtil;
 import controller.IController;
 import view.SimpleView;
 
@@ -14,11 +24,24 @@ public class MainProgram {
    * Runs the program. If one of two arguments are provided then the text mode is used.
    * It requires the filepath of the text file with the commands as the
    * second argument (if needed). If one argument is provided then the Readable used is System.in.
-   * If no arguments are provided then the gui view is used.
+   * If no arguments are provided then the gui view is used. If three arguments are provided then
+   * the batch mode is used, which runs the script template given as the second argument on every
+   * image of the directory or glob pattern given as the third argument.
+   * The options described in {@link #readOptions(List)} may be given before the other arguments.
    * @param args the filepath of the commands text file or no arguments.
    */
   public static void main(String[] args) {
 
+    List<String> arguments = new ArrayList<String>(Arrays.asList(args));
+    try {
+      readOptions(arguments);
+    } catch (IllegalArgumentException e) {
+      System.out.println("Invalid option | " + e.getMessage());
+      System.out.println("Exiting program... Thank you!");
+      return;
+    }
+    args = arguments.toArray(new String[0]);
+
     if (args.length == 0) {
       GuiController guiController = new SimpleGuiController();
       guiController.runApplication();
@@ -53,8 +76,26 @@ public class MainProgram {
       controller = new ProController(in, new SimpleView());
     }
 
-    if (args.length > 2) {
-      System.out.println("Expected 0, 1, or 2 arguments but got " + args.length + " arguments");
+    if (args.length == 3) {
+      if (!args[0].equals("-batch")) {
+        System.out.println("The first expected argument was '-batch' but got " + args[0]);
+        System.out.println("Exiting program... Thank you!");
+        return;
+      }
+      String template = null;
+      try {
+        template = new FileUtil().readScriptText(args[1]);
+      } catch (IllegalArgumentException e) {
+        System.out.println("Unable to read file | " + e.getMessage());
+        System.out.println("Exiting program... Thank you!");
+        return;
+      }
+      controller = new BatchController(template, args[2], new SimpleView());
+    }
+
+    if (args.length > 3) {
+      System.out.println("Expected 0, 1, 2, or 3 arguments but got " + args.length
+              + " arguments");
       System.out.println("Exiting program... Thank you!");
       return;
     }
@@ -63,6 +104,83 @@ public class MainProgram {
       controller.process();
     }
 
+    if (FixedPoint.getMode().equals("verify")) {
+      System.out.println(FixedPoint.getReport());
+    }
     System.out.println("Exiting program... Thank you!");
   }
+
+  /**
+   * Reads and removes the leading options from the given arguments. The supported options are:
+   * "-layout packed|planar|offheap|tiled" to choose how the pixels of loaded images are stored,
+   * "-ppm plain|binary" to choose the format that PPM images are saved in, "-threads N" to
+   * choose the number of threads that the operations on images run on,
+   * "-fixed-point on|off|verify" to choose how filters and transformations compute 8 bit images,
+   * "-evaluation eager|lazy|streaming" to choose whether images are only computed when they
+   * are saved or shown, or scripts that load, change and save a PPM image are run one row at a
+   * time, "-in-place on|off" to choose whether commands may overwrite an image that is
+   * not read again, and "-skip-unused on|off" to choose whether commands whose images are never
+   * used are dropped.
+   * @param arguments the arguments given to the program
+   * @throws IllegalArgumentException if an option is missing its value or the value is invalid
+   */
+  private static void readOptions(List<String> arguments) throws IllegalArgumentException {
+    while (!arguments.isEmpty()) {
+      String option = arguments.get(0);
+      if (option.equals("-layout")) {
+        ImageUtil.setDefaultLayout(readOptionValue(arguments));
+      } else if (option.equals("-ppm")) {
+        String format = readOptionValue(arguments);
+        if (!(format.equals("plain") || format.equals("binary"))) {
+          throw new IllegalArgumentException("Invalid PPM format provided: " + format);
+        }
+        ImageUtil.setBinaryPPM(format.equals("binary"));
+      } else if (option.equals("-threads")) {
+        String count = readOptionValue(arguments);
+        try {
+          Parallel.setThreads(Integer.parseInt(count));
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException("Invalid number of threads provided: " + count);
+        }
+      } else if (option.equals("-fixed-point")) {
+        FixedPoint.setMode(readOptionValue(arguments));
+      } else if (option.equals("-evaluation")) {
+        String evaluation = readOptionValue(arguments);
+        if (!(evaluation.equals("eager") || evaluation.equals("lazy")
+                || evaluation.equals("streaming"))) {
+          throw new IllegalArgumentException("Invalid evaluation provided: " + evaluation);
+        }
+        ImageUtil.setLazy(evaluation.equals("lazy"));
+        StreamingScript.setEnabled(evaluation.equals("streaming"));
+      } else if (option.equals("-in-place")) {
+        String inPlace = readOptionValue(arguments);
+        if (!(inPlace.equals("on") || inPlace.equals("off"))) {
+          throw new IllegalArgumentException("Invalid in-place mode provided: " + inPlace);
+        }
+        CommandPlanner.setInPlace(inPlace.equals("on"));
+      } else if (option.equals("-skip-unused")) {
+        String skipUnused = readOptionValue(arguments);
+        if (!(skipUnused.equals("on") || skipUnused.equals("off"))) {
+          throw new IllegalArgumentException("Invalid skip-unused mode provided: " + skipUnused);
+        }
+        CommandPlanner.setSkipUnused(skipUnused.equals("on"));
+      } else {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Removes the option at the start of the given arguments and returns its value.
+   * @param arguments the arguments given to the program
+   * @return the value of the option
+   * @throws IllegalArgumentException if the option is missing its value
+   */
+  private static String readOptionValue(List<String> arguments) throws IllegalArgumentException {
+    String option = arguments.remove(0);
+    if (arguments.isEmpty()) {
+      throw new IllegalArgumentException(option + " expects a value");
+    }
+    return arguments.remove(0);
+  }
 }
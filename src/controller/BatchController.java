@@ -0,0 +1,304 @@
+package controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import model.Parallel;
+import model.utility.ImageUtil;
+import view.SimpleView;
+import view.View;
+
+/**
+ * Class for the controller of the batch mode, which runs the same script on every image of a
+ * directory or every file that matches a glob pattern. The script is a template in which
+ * "{input}" is replaced by the path of the image and "{name}" by its file name without the
+ * extension, so every image is saved to its own files.
+ *
+ * <p>The images are run on a fixed pool of workers, one script per worker at a time, so at most
+ * as many images as there are workers are held in memory, and while one worker loads its image
+ * another computes or saves its own. The threads of {@link Parallel} are split between the
+ * workers, so every script runs as many commands at the same time as its share, and the rows of
+ * the operations of every script are processed on the single pool of {@link Parallel}. An image
+ * whose script fails is reported and the batch goes on with the other images, as is an image
+ * whose path holds whitespace, which a script cannot load. The results are reported in the
+ * order of the images, followed by the number of images and megapixels processed per second.
+ */
+public class BatchController implements IController {
+  private final String template;
+  private final String inputs;
+  private final View view;
+
+  /**
+   * Constructor for initialising the BatchController.
+   *
+   * @param template the commands of the script, with the placeholders for every image
+   * @param inputs a directory holding the images, or a glob pattern that matches them
+   * @param view to use
+   * @throws IllegalArgumentException if the arguments provided are null
+   */
+  public BatchController(String template, String inputs, View view)
+          throws IllegalArgumentException {
+    if (template == null || inputs == null || view == null) {
+      throw new IllegalArgumentException("inputs provided were null!");
+    }
+
+    this.template = template;
+    this.inputs = inputs;
+    this.view = view;
+  }
+
+  /**
+   * Runs the script on every image and reports the result of every image and the throughput of
+   * the batch.
+   *
+   * @throws IllegalArgumentException if a message cannot be rendered
+   */
+  @Override
+  public void process() throws IllegalArgumentException {
+    List<String> files;
+    try {
+      files = this.findImages();
+    } catch (IllegalArgumentException e) {
+      this.writeMessage("Could not find images | " + e.getMessage());
+      return;
+    }
+
+    if (files.isEmpty()) {
+      this.writeMessage("No images found for " + this.inputs);
+      return;
+    }
+
+    int workers = Math.min(Parallel.getThreads(), files.size());
+    int threads = Math.max(1, Parallel.getThreads() / workers);
+    this.writeMessage("Processing " + files.size() + " images on " + workers + " workers...");
+
+    long start = System.nanoTime();
+    ExecutorService pool = Executors.newFixedThreadPool(workers);
+    List<Future<Result>> results = new ArrayList<Future<Result>>();
+    for (String file : files) {
+      results.add(pool.submit(() -> this.run(file, threads)));
+    }
+    pool.shutdown();
+
+    int failed = 0;
+    long pixels = 0;
+    try {
+      for (int i = 0; i < files.size(); i++) {
+        Result result = this.await(results.get(i));
+        String prefix = "[" + (i + 1) + "/" + files.size() + "] " + files.get(i);
+        if (result.failure != null) {
+          failed++;
+          this.writeMessage(prefix + " failed | " + result.failure);
+        } else {
+          pixels += result.pixels;
+          this.writeMessage(prefix + " done in " + String.format("%.2f", result.seconds)
+                  + " s");
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    double seconds = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+    int succeeded = files.size() - failed;
+    this.writeMessage("Processed " + files.size() + " images in "
+            + String.format("%.2f", seconds) + " s: " + succeeded + " succeeded, " + failed
+            + " failed");
+    this.writeMessage("Throughput: " + String.format("%.2f", succeeded / seconds)
+            + " images/s, " + String.format("%.2f", pixels / 1e6 / seconds) + " MP/s");
+  }
+
+  /**
+   * Runs the script on the given image, keeping its messages to itself. The commands of a script
+   * are read as words separated by whitespace, so an image whose path holds whitespace fails
+   * without running the script.
+   *
+   * @param file the path of the image
+   * @param threads the number of commands of the script that can run at the same time
+   * @return the result of the script
+   */
+  private Result run(String file, int threads) {
+    long start = System.nanoTime();
+    if (file.matches(".*\\s.*")) {
+      return new Result("Path contains whitespace, which scripts cannot load!", 0, 0);
+    }
+
+    String name = new File(file).getName();
+    if (name.lastIndexOf('.') > 0) {
+      name = name.substring(0, name.lastIndexOf('.'));
+    }
+    String script = this.template.replace("{input}", file).replace("{name}", name);
+
+    String failure;
+    long pixels = 0;
+    try {
+      SimpleController controller = new ProController(new StringReader(script),
+              new SimpleView(new StringBuilder()));
+      controller.setThreads(threads);
+      controller.process();
+      failure = controller.getFailure();
+      if (failure == null) {
+        pixels = new ImageUtil().readPixelCount(file);
+      }
+    } catch (RuntimeException | OutOfMemoryError e) {
+      // The images of a failed script are no longer referenced, so the batch can go on.
+      failure = e.getMessage() == null ? e.toString() : e.getMessage();
+    }
+    return new Result(failure, pixels, (System.nanoTime() - start) / 1e9);
+  }
+
+  /**
+   * Waits for the result of the script of an image.
+   *
+   * @param result the result that is computed by a worker
+   * @return the result of the script
+   */
+  private Result await(Future<Result> result) {
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      return new Result(String.valueOf(cause), 0, 0);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return new Result("Interrupted!", 0, 0);
+    }
+  }
+
+  /**
+   * Finds the images to run the script on. A directory gives every image file directly inside
+   * it, and any other path is used as a glob pattern, which is matched against the files below
+   * the part of the path that has no wildcards. Like "**" in a shell, a "**&#47;" segment of the
+   * pattern also matches no directory at all.
+   *
+   * @return the paths of the images in sorted order
+   * @throws IllegalArgumentException if the files cannot be listed
+   */
+  private List<String> findImages() throws IllegalArgumentException {
+    ImageUtil imageUtil = new ImageUtil();
+    Path directory = Paths.get(this.inputs);
+    if (Files.isDirectory(directory)) {
+      try (Stream<Path> paths = Files.list(directory)) {
+        return paths.filter(Files::isRegularFile).map(Path::toString)
+                .filter(imageUtil::isImageFile).sorted().collect(Collectors.toList());
+      } catch (IOException | UncheckedIOException e) {
+        throw new IllegalArgumentException("Not able to list " + this.inputs + "!");
+      }
+    }
+
+    // The walk starts at the longest leading part of the pattern without any wildcards.
+    String[] parts = this.inputs.split("/", -1);
+    int baseParts = 0;
+    while (baseParts < parts.length - 1 && !parts[baseParts].matches(".*[*?\\[{].*")) {
+      baseParts++;
+    }
+    String base = String.join("/", Arrays.asList(parts).subList(0, baseParts));
+    if (base.isEmpty() && this.inputs.startsWith("/")) {
+      base = "/";
+    }
+    Path root = Paths.get(base.isEmpty() ? "." : base);
+    int depth = this.inputs.contains("**") ? Integer.MAX_VALUE : parts.length - baseParts;
+    boolean relative = base.isEmpty();
+
+    if (!Files.isDirectory(root)) {
+      throw new IllegalArgumentException("Directory " + root + " not found!");
+    }
+
+    List<PathMatcher> matchers = new ArrayList<PathMatcher>();
+    for (String pattern : withoutGlobstars(this.inputs, 0)) {
+      matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+    }
+    try (Stream<Path> paths = Files.walk(root, depth)) {
+      return paths.filter(Files::isRegularFile)
+              .map(path -> relative ? root.relativize(path) : path)
+              .filter(path -> matchers.stream().anyMatch(matcher -> matcher.matches(path)))
+              .map(Path::toString).sorted().collect(Collectors.toList());
+    } catch (IOException | UncheckedIOException e) {
+      throw new IllegalArgumentException("Not able to list " + root + "!");
+    }
+  }
+
+  /**
+   * Gets the given glob pattern together with every pattern made by leaving out some of its
+   * "**&#47;" segments from the given index on. The glob patterns of Java need "**&#47;" to match
+   * at least one directory, so these patterns also match the files with no directory in its
+   * place.
+   *
+   * @param pattern the glob pattern
+   * @param from the index to look for the segments from
+   * @return the patterns
+   */
+  private static List<String> withoutGlobstars(String pattern, int from) {
+    int index = pattern.indexOf("**/", from);
+    while (index > 0 && pattern.charAt(index - 1) != '/') {
+      index = pattern.indexOf("**/", index + 1);
+    }
+
+    List<String> patterns = new ArrayList<String>();
+    if (index < 0) {
+      patterns.add(pattern);
+      return patterns;
+    }
+
+    String without = pattern.substring(0, index) + pattern.substring(index + 3);
+    patterns.addAll(withoutGlobstars(pattern, index + 3));
+    patterns.addAll(withoutGlobstars(without, index));
+    return patterns;
+  }
+
+  /**
+   * Renders the given message to the view.
+   *
+   * @param message to be rendered
+   * @throws IllegalArgumentException if the message cannot be rendered
+   */
+  private void writeMessage(String message) throws IllegalArgumentException {
+    try {
+      this.view.renderMessage(message);
+      this.view.renderMessage("\n");
+    } catch (IOException e) {
+      throw new IllegalArgumentException(e.getMessage());
+    }
+  }
+
+  /**
+   * Class for the result of the script of an image.
+   */
+  private static final class Result {
+    private final String failure;
+    private final long pixels;
+    private final double seconds;
+
+    /**
+     * Constructor for initialising a Result.
+     *
+     * @param failure the message of the failure, or null if the script succeeded
+     * @param pixels the number of pixels of the image
+     * @param seconds the number of seconds the script took
+     */
+    private Result(String failure, long pixels, double seconds) {
+      this.failure = failure;
+      this.pixels = pixels;
+      this.seconds = seconds;
+    }
+  }
+}
@@ -0,0 +1,304 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import controller.command.Command;
+import controller.command.FusedCommand;
+import controller.command.InPlaceCommand;
+import controller.command.PointCommand;
+
+/**
+ * Class that plans how the commands of a script are run. Runs of point commands, where every
+ * command reads the image stored by the command before it and that image is not read by any
+ * later command, are replaced by a single {@link FusedCommand}, so the image is transformed in a
+ * single pass and the images in between are never stored.
+ *
+ * <p>When the images of the script are not shared with anything else, such as a view, the
+ * planner works out the last command that uses every image, so the image can be removed from the
+ * store right after it. The images kept at any time are then only the ones that are still needed.
+ * If skipping unused commands is turned on, it also drops every command whose images are never
+ * read by a command that is run. This is off by default, as a dropped command that would have
+ * failed, such as a load of a missing file, then no longer stops the script.
+ * A command that can overwrite the image it reads is run in place when no later command reads
+ * that image, so it does not need memory for a new image either. Running commands in place can
+ * be turned off, which is meant for debugging.
+ */
+public class CommandPlanner {
+  private static boolean inPlace = true;
+  private static boolean skipUnused = false;
+
+  private final boolean ownsImages;
+  private final List<FusedCommand> fused;
+  private final Map<Command, List<String>> released;
+  private final Set<Command> inPlaceCommands;
+  private int skipped;
+
+  /**
+   * Constructor for initialising the CommandPlanner.
+   *
+   * @param ownsImages true if the images stored by the commands are only used by the script, so
+   *                   unused commands can be dropped and images released after their last use
+   */
+  public CommandPlanner(boolean ownsImages) {
+    this.ownsImages = ownsImages;
+    this.fused = new ArrayList<FusedCommand>();
+    this.released = new IdentityHashMap<Command, List<String>>();
+    this.inPlaceCommands = Collections.newSetFromMap(new IdentityHashMap<Command, Boolean>());
+  }
+
+  /**
+   * Sets whether commands whose source image is not read again may overwrite it. This is on by
+   * default, and turning it off makes every command store its result in a new image.
+   *
+   * @param enabled true to run commands in place when it is safe
+   */
+  public static synchronized void setInPlace(boolean enabled) {
+    inPlace = enabled;
+  }
+
+  /**
+   * Checks if commands whose source image is not read again may overwrite it.
+   *
+   * @return true if commands are run in place when it is safe
+   */
+  public static synchronized boolean isInPlace() {
+    return inPlace;
+  }
+
+  /**
+   * Sets whether commands whose images are never used are dropped. This is off by default, so
+   * every command runs and the script stops at the first command that fails.
+   *
+   * @param enabled true to drop the commands whose images are never used
+   */
+  public static synchronized void setSkipUnused(boolean enabled) {
+    skipUnused = enabled;
+  }
+
+  /**
+   * Checks if commands whose images are never used are dropped.
+   *
+   * @return true if the commands whose images are never used are dropped
+   */
+  public static synchronized boolean isSkipUnused() {
+    return skipUnused;
+  }
+
+  /**
+   * Plans the given commands, dropping the commands whose images are never used if the planner
+   * owns the images and skipping them is turned on, and fusing every run of point commands that
+   * can be fused.
+   *
+   * @param commands the commands in the order they are run
+   * @return the commands to run instead, which store the same images that are read later
+   */
+  public List<Command> plan(List<Command> commands) {
+    List<Command> live = commands;
+    if (this.ownsImages && isSkipUnused()) {
+      live = this.removeUnused(commands);
+      this.skipped = commands.size() - live.size();
+    }
+
+    List<Command> planned = new ArrayList<Command>();
+    int i = 0;
+    while (i < live.size()) {
+      int end = i + 1;
+      while (end < live.size() && this.canFuse(live, end - 1, end)) {
+        end++;
+      }
+
+      if (end - i > 1) {
+        List<PointCommand> run = new ArrayList<PointCommand>();
+        for (int k = i; k < end; k++) {
+          run.add((PointCommand) live.get(k));
+        }
+        FusedCommand command = new FusedCommand(run);
+        this.fused.add(command);
+        planned.add(command);
+      } else {
+        planned.add(live.get(i));
+      }
+      i = end;
+    }
+
+    if (this.ownsImages) {
+      this.findLastUses(planned);
+    }
+    return planned;
+  }
+
+  /**
+   * Gets the names of the images that are no longer needed once the given command has run.
+   *
+   * @param command a command returned by {@link #plan(List)}
+   * @return the names of the images to remove from the store after the command
+   */
+  public List<String> releasedAfter(Command command) {
+    return this.released.getOrDefault(command, Collections.<String>emptyList());
+  }
+
+  /**
+   * Checks if the given command may overwrite the image it reads, which is the case when it can
+   * run in place and no later command reads that image before it is replaced.
+   *
+   * @param command a command returned by {@link #plan(List)}
+   * @return true if the command may be run in place
+   */
+  public boolean runsInPlace(Command command) {
+    return this.inPlaceCommands.contains(command);
+  }
+
+  /**
+   * Gets a summary of the commands that were dropped and of the savings of the fused commands
+   * that were executed.
+   *
+   * @param executed the commands that were executed
+   * @return the lines of the summary, which is empty if nothing was dropped or fused
+   */
+  public List<String> report(List<Command> executed) {
+    List<String> lines = new ArrayList<String>();
+    if (this.skipped > 0) {
+      lines.add("Skipped " + this.skipped + " commands whose images were never used");
+    }
+
+    int commands = 0;
+    int passes = 0;
+    long bytes = 0;
+    for (FusedCommand command : this.fused) {
+      if (executed.contains(command) && command.getSkippedBytes() > 0) {
+        commands += command.size();
+        passes++;
+        bytes += command.getSkippedBytes();
+      }
+    }
+
+    if (passes > 0) {
+      // Every image in between would have been written once and read once.
+      lines.add("Fused " + commands + " commands into " + passes
+              + (passes == 1 ? " pass: " : " passes: ") + (commands - passes)
+              + " images in between were not stored, saving " + toMegabytes(bytes)
+              + " MB of allocation and " + toMegabytes(2 * bytes) + " MB of memory traffic");
+    }
+    return lines;
+  }
+
+  /**
+   * Drops every command that stores only images that are never read by a later command that
+   * is kept. Commands that store no image, such as save, are always kept. The commands are
+   * visited from the last one, keeping track of the images that later commands still read.
+   *
+   * @param commands the commands in the order they are run
+   * @return the commands that are kept, in the same order
+   */
+  private List<Command> removeUnused(List<Command> commands) {
+    Set<String> needed = new HashSet<String>();
+    List<Command> kept = new ArrayList<Command>();
+    for (int i = commands.size() - 1; i >= 0; i--) {
+      Command command = commands.get(i);
+      boolean used = command.outputs().isEmpty();
+      for (String output : command.outputs()) {
+        used |= needed.contains(output);
+      }
+
+      if (used) {
+        needed.removeAll(command.outputs());
+        needed.addAll(command.inputs());
+        kept.add(command);
+      }
+    }
+    Collections.reverse(kept);
+    return kept;
+  }
+
+  /**
+   * Finds, for every image, the commands after which it is no longer read before it is
+   * replaced or the script ends. The commands that can run in place and are the last to read
+   * their source image are also recorded, if running in place is turned on.
+   *
+   * @param commands the commands in the order they are run
+   */
+  private void findLastUses(List<Command> commands) {
+    boolean canRunInPlace = isInPlace();
+    Set<String> read = new HashSet<String>();
+    for (int i = commands.size() - 1; i >= 0; i--) {
+      Command command = commands.get(i);
+      if (canRunInPlace && command instanceof InPlaceCommand) {
+        String source = command.inputs().get(0);
+        if (command.outputs().contains(source) || !read.contains(source)) {
+          this.inPlaceCommands.add(command);
+        }
+      }
+
+      List<String> names = new ArrayList<String>();
+      for (String name : command.outputs()) {
+        if (!read.contains(name) && !names.contains(name)) {
+          names.add(name);
+        }
+      }
+      for (String name : command.inputs()) {
+        if (!read.contains(name) && !names.contains(name)
+                && !command.outputs().contains(name)) {
+          names.add(name);
+        }
+      }
+      if (!names.isEmpty()) {
+        this.released.put(command, names);
+      }
+
+      read.removeAll(command.outputs());
+      read.addAll(command.inputs());
+    }
+  }
+
+  /**
+   * Checks if the command at the given index can be fused with the command after it. Both must
+   * be point commands, the second must read the image stored by the first, and no later
+   * command may read that image before it is replaced.
+   *
+   * @param commands the commands in the order they are run
+   * @param first the index of the first command
+   * @param second the index of the command after it
+   * @return true if the commands can be fused
+   */
+  private boolean canFuse(List<Command> commands, int first, int second) {
+    Command producer = commands.get(first);
+    Command consumer = commands.get(second);
+    if (!(producer instanceof PointCommand) || !(consumer instanceof PointCommand)) {
+      return false;
+    }
+
+    String name = producer.outputs().get(0);
+    if (!consumer.inputs().get(0).equals(name)) {
+      return false;
+    }
+    if (consumer.outputs().contains(name)) {
+      return true;
+    }
+
+    for (int k = second + 1; k < commands.size(); k++) {
+      if (commands.get(k).inputs().contains(name)) {
+        return false;
+      }
+      if (commands.get(k).outputs().contains(name)) {
+        return true;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Converts the given number of bytes to megabytes, rounding down.
+   *
+   * @param bytes the number of bytes
+   * @return the number of megabytes
+   */
+  private static long toMegabytes(long bytes) {
+    return bytes / (1024 * 1024);
+  }
+}
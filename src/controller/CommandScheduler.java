@@ -0,0 +1,198 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import controller.command.Command;
+
+/**
+ * Class that runs the commands of a script on a pool of threads. The dependencies between the
+ * commands are found from the names of the images they read and store: a command waits for the
+ * command that stored every image it reads, and a command that replaces an image waits for the
+ * command that stored it and for every command that reads it before. Commands that store no
+ * image, such as save, have effects outside of the script, so they wait for every command before
+ * them, and commands that read no image, such as load, wait for the last of them, so a script can
+ * load a file it has saved. Commands that do not depend on each other are run at the same time.
+ *
+ * <p>The results of the commands are waited for in the order of the script, so they can be
+ * reported in that order. When a command fails, the commands after it that have not started yet
+ * are skipped, and every command before it still runs, as if the commands were run one after the
+ * other.
+ */
+public class CommandScheduler {
+  private final ExecutorService pool;
+  private final List<CompletableFuture<Void>> tasks;
+  private final List<CompletableFuture<Void>> releases;
+  private final AtomicInteger firstFailure;
+
+  /**
+   * Constructor for initialising the CommandScheduler.
+   *
+   * @param threads the number of commands that can run at the same time
+   * @throws IllegalArgumentException if the number of threads is less than one
+   */
+  public CommandScheduler(int threads) throws IllegalArgumentException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Invalid number of threads provided: " + threads);
+    }
+
+    this.pool = Executors.newFixedThreadPool(threads);
+    this.tasks = new ArrayList<CompletableFuture<Void>>();
+    this.releases = new ArrayList<CompletableFuture<Void>>();
+    this.firstFailure = new AtomicInteger(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Starts running the given commands. An image that the planner releases after a command is
+   * only released once every command that reads it has run, and a command that runs in place is
+   * treated as replacing the image it reads.
+   *
+   * @param commands the commands in the order of the script, as returned by the planner
+   * @param planner the planner that planned the commands
+   * @param action runs a command
+   * @param release removes the image with the given name from the store
+   */
+  public void start(List<Command> commands, CommandPlanner planner, Consumer<Command> action,
+                    Consumer<String> release) {
+    Map<String, Integer> writers = new HashMap<String, Integer>();
+    Map<String, List<Integer>> readers = new HashMap<String, List<Integer>>();
+    Map<String, CompletableFuture<Void>> pendingReleases =
+            new HashMap<String, CompletableFuture<Void>>();
+    List<Integer> sinceBarrier = new ArrayList<Integer>();
+    int barrier = -1;
+
+    for (int i = 0; i < commands.size(); i++) {
+      Command command = commands.get(i);
+      Set<String> writes = new LinkedHashSet<String>(command.outputs());
+      if (planner.runsInPlace(command)) {
+        writes.add(command.inputs().get(0));
+      }
+
+      List<CompletableFuture<?>> before = new ArrayList<CompletableFuture<?>>();
+      for (String name : command.inputs()) {
+        if (writers.containsKey(name)) {
+          before.add(this.tasks.get(writers.get(name)));
+        }
+      }
+      for (String name : writes) {
+        if (writers.containsKey(name)) {
+          before.add(this.tasks.get(writers.get(name)));
+        }
+        for (int reader : readers.getOrDefault(name, new ArrayList<Integer>())) {
+          before.add(this.tasks.get(reader));
+        }
+        if (pendingReleases.containsKey(name)) {
+          before.add(pendingReleases.remove(name));
+        }
+      }
+      if (command.outputs().isEmpty()) {
+        for (int earlier : sinceBarrier) {
+          before.add(this.tasks.get(earlier));
+        }
+        sinceBarrier.clear();
+        barrier = i;
+      } else if (command.inputs().isEmpty() && barrier >= 0) {
+        before.add(this.tasks.get(barrier));
+      }
+      sinceBarrier.add(i);
+
+      int index = i;
+      this.tasks.add(CompletableFuture.allOf(before.toArray(new CompletableFuture<?>[0]))
+              .thenRunAsync(() -> this.run(index, command, action), this.pool));
+
+      for (String name : command.inputs()) {
+        readers.computeIfAbsent(name, key -> new ArrayList<Integer>()).add(i);
+      }
+      for (String name : writes) {
+        writers.put(name, i);
+        readers.remove(name);
+      }
+
+      for (String name : planner.releasedAfter(command)) {
+        // The image is released once the command that stored it and all its readers have run.
+        List<CompletableFuture<?>> users = new ArrayList<CompletableFuture<?>>();
+        if (writers.containsKey(name)) {
+          users.add(this.tasks.get(writers.get(name)));
+        }
+        for (int reader : readers.getOrDefault(name, new ArrayList<Integer>())) {
+          users.add(this.tasks.get(reader));
+        }
+        CompletableFuture<Void> released = CompletableFuture
+                .allOf(users.toArray(new CompletableFuture<?>[0]))
+                .thenRun(() -> release.accept(name));
+        pendingReleases.put(name, released);
+        this.releases.add(released);
+      }
+    }
+  }
+
+  /**
+   * Waits for the command with the given index to run.
+   *
+   * @param index the index of the command in the script
+   * @throws IllegalArgumentException if the command could not be executed
+   */
+  public void await(int index) throws IllegalArgumentException {
+    try {
+      this.tasks.get(index).join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Waits for every command that has started and every release to finish, and stops the threads
+   * of the scheduler.
+   */
+  public void shutdown() {
+    List<CompletableFuture<Void>> all = new ArrayList<CompletableFuture<Void>>(this.tasks);
+    all.addAll(this.releases);
+    for (CompletableFuture<Void> task : all) {
+      try {
+        task.join();
+      } catch (CompletionException | CancellationException e) {
+        // The failure has already been reported, or the task was skipped because of it.
+      }
+    }
+    this.pool.shutdown();
+  }
+
+  /**
+   * Runs the command with the given index, unless a command before it has already failed.
+   *
+   * @param index the index of the command in the script
+   * @param command the command
+   * @param action runs a command
+   * @throws CancellationException if a command before it has failed
+   */
+  private void run(int index, Command command, Consumer<Command> action)
+          throws CancellationException {
+    if (index > this.firstFailure.get()) {
+      throw new CancellationException("A command before " + command.name() + " failed!");
+    }
+
+    try {
+      action.accept(command);
+    } catch (RuntimeException | Error e) {
+      this.firstFailure.accumulateAndGet(index, Math::min);
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import model.CloseableImage;
+import model.GeometricView;
+import model.Image;
+
+/**
+ * Class that stores the images of the program by name. When an image that holds memory outside
+ * of the heap is replaced or removed, and no other name or view refers to it, the image is closed
+ * so its memory is released right away. A lazy image is closed in the same way, which tells it
+ * that it is no longer stored, and it releases its memory once no other lazy image needs it.
+ */
+public class ImageStore extends HashMap<String, Image> {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Stores the given image under the given name, closing the image it replaces if needed.
+   *
+   * @param name the name of the image
+   * @param image the image to store
+   * @return the image previously stored under the name, or null
+   */
+  @Override
+  public Image put(String name, Image image) {
+    Image previous = super.put(name, image);
+    if (previous != image) {
+      this.release(previous);
+    }
+    return previous;
+  }
+
+  /**
+   * Removes the image with the given name, closing it if needed.
+   *
+   * @param name the name of the image
+   * @return the image that was removed, or null
+   */
+  @Override
+  public Image remove(Object name) {
+    Image previous = super.remove(name);
+    this.release(previous);
+    return previous;
+  }
+
+  /**
+   * Removes every image, closing the ones that need it.
+   */
+  @Override
+  public void clear() {
+    for (Image image : this.values()) {
+      if (image instanceof GeometricView) {
+        image = ((GeometricView) image).getParent();
+      }
+      if (image instanceof CloseableImage) {
+        ((CloseableImage) image).close();
+      }
+    }
+    super.clear();
+  }
+
+  /**
+   * Checks if the image with the given name is also stored under another name, or is the
+   * parent of a view stored under another name, in which case its pixels must not be changed.
+   *
+   * @param name the name of the image
+   * @return true if another stored image uses the image
+   */
+  public boolean isShared(String name) {
+    Image image = super.get(name);
+    for (Map.Entry<String, Image> entry : this.entrySet()) {
+      Image stored = entry.getValue();
+      if (!entry.getKey().equals(name) && (stored == image || (stored instanceof GeometricView
+              && ((GeometricView) stored).getParent() == image))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Closes the given image if it holds memory outside of the heap and is not stored under
+   * any other name, either directly or as the parent of a stored view. When the image is a
+   * view, its parent is released in the same way.
+   *
+   * @param image the image that is no longer stored under a name
+   */
+  private void release(Image image) {
+    if (image instanceof GeometricView) {
+      this.release(((GeometricView) image).getParent());
+    } else if (image instanceof CloseableImage && !this.isReferenced(image)) {
+      ((CloseableImage) image).close();
+    }
+  }
+
+  /**
+   * Checks if the given image is stored under a name or is the parent of a stored view.
+   *
+   * @param image the image
+   * @return true if the image is still used by a stored image
+   */
+  private boolean isReferenced(Image image) {
+    for (Image stored : this.values()) {
+      if (stored == image || (stored instanceof GeometricView
+              && ((GeometricView) stored).getParent() == image)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -3,7 +3,13 @@ package controller;
 import java.util.Map;
 
 import controller.commandfunctions.BlurCommandFunc;
+import controller.commandfunctions.BoxBlurCommandFunc;
+import controller.commandfunctions.CropCommandFunc;
+import controller.commandfunctions.GaussianBlurCommandFunc;
 import controller.commandfunctions.GreyscaleCommandFunc;
+import controller.commandfunctions.MedianCommandFunc;
+import controller.commandfunctions.MorphologyCommandFunc;
+import controller.commandfunctions.RotateCommandFunc;
 import controller.commandfunctions.SepiaCommandFunc;
 import controller.commandfunctions.SharpenCommandFunc;
 import model.Image;
@@ -52,13 +58,31 @@ public class ProController extends StarterController {
     super.optimize();
     this.commands.put("blur", new BlurCommandFunc());
     this.commands.put("sharpen", new SharpenCommandFunc());
+    this.commands.put("median", new MedianCommandFunc());
+    this.commands.put("erode", new MorphologyCommandFunc("erode"));
+    this.commands.put("dilate", new MorphologyCommandFunc("dilate"));
+    this.commands.put("open", new MorphologyCommandFunc("open"));
+    this.commands.put("close", new MorphologyCommandFunc("close"));
     this.commands.put("sepia", new SepiaCommandFunc());
     this.commands.put("greyscale", new GreyscaleCommandFunc());
+    this.commands.put("rotate", new RotateCommandFunc());
+    this.commands.put("crop", new CropCommandFunc());
+    this.commands.put("box-blur", new BoxBlurCommandFunc());
+    this.commands.put("gaussian-blur", new GaussianBlurCommandFunc());
 
     this.requiredInputs.put("blur", 2);
     this.requiredInputs.put("sharpen", 2);
+    this.requiredInputs.put("median", 3);
+    this.requiredInputs.put("erode", 4);
+    this.requiredInputs.put("dilate", 4);
+    this.requiredInputs.put("open", 4);
+    this.requiredInputs.put("close", 4);
     this.requiredInputs.put("sepia", 2);
     this.requiredInputs.put("greyscale", 2);
+    this.requiredInputs.put("rotate", 3);
+    this.requiredInputs.put("crop", 6);
+    this.requiredInputs.put("box-blur", 3);
+    this.requiredInputs.put("gaussian-blur", 3);
   }
 
   /**
@@ -83,8 +107,17 @@ public class ProController extends StarterController {
     super.printMenu();
     this.writeMessage("blur _image-name_ _dest-image-name_");
     this.writeMessage("sharpen _image-name_ _dest-image-name_");
+    this.writeMessage("median _radius_ _image-name_ _dest-image-name_");
+    this.writeMessage("erode _width_ _height_ _image-name_ _dest-image-name_");
+    this.writeMessage("dilate _width_ _height_ _image-name_ _dest-image-name_");
+    this.writeMessage("open _width_ _height_ _image-name_ _dest-image-name_");
+    this.writeMessage("close _width_ _height_ _image-name_ _dest-image-name_");
     this.writeMessage("greyscale _image-name_ _dest-image-name_");
     this.writeMessage("sepia _image-name_ _dest-image-name_");
+    this.writeMessage("rotate _degrees_ _image-name_ _dest-image-name_");
+    this.writeMessage("crop _x_ _y_ _width_ _height_ _image-name_ _dest-image-name_");
+    this.writeMessage("box-blur _radius_ _image-name_ _dest-image-name_");
+    this.writeMessage("gaussian-blur _sigma_ _image-name_ _dest-image-name_");
   }
 
   /**
@@ -4,14 +4,17 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.function.Function;
 
 import controller.command.Command;
+import controller.command.InPlaceCommand;
+import controller.command.SaveCommand;
 import model.Image;
+import model.Parallel;
 import view.SimpleView;
 import view.View;
 
@@ -20,10 +23,13 @@ import view.View;
  */
 public abstract class SimpleController implements IController {
   private Map<String, Image> data;
+  private final ImageStore store;
   protected Map<String, Function<Scanner, Command>> commands;
   protected Map<String, Integer> requiredInputs;
   protected Readable in;
   private View view;
+  private String failure;
+  private int threads;
 
   /**
    * Constructor for initialising the Controller. The readable is System.in.
@@ -49,7 +55,8 @@ public abstract class SimpleController implements IController {
     }
 
     this.in = in;
-    this.data = new HashMap<String, Image>();
+    this.store = new ImageStore();
+    this.data = this.store;
     this.view = view;
 
     this.optimize();
@@ -62,6 +69,7 @@ public abstract class SimpleController implements IController {
     }
 
     this.data = model;
+    this.store = null;
     this.view = new SimpleView(log);
     this.optimize();
   }
@@ -72,7 +80,15 @@ public abstract class SimpleController implements IController {
   protected abstract void optimize();
 
   /**
-   * Starts the program.
+   * Starts the program. Runs of point commands are fused by a {@link CommandPlanner}, and the
+   * savings are reported before the end message. When the images are not shared with a view,
+   * commands whose images are never used are skipped if that is turned on, every image is
+   * removed from the store after the last command that uses it, and a command that is the last
+   * to read its image overwrites it when nothing else stored uses it. The commands are then also run by a
+   * {@link CommandScheduler} when more than one thread is used, so commands that do not depend
+   * on each other run at the same time. When streaming is turned on, a script that loads a PPM
+   * image, applies point and filter commands to it and saves it is run one row at a time by a
+   * {@link StreamingScript} instead. The messages are the same either way.
    *
    * @throws IllegalArgumentException if the command cannot be applied.
    */
@@ -81,20 +97,156 @@ public abstract class SimpleController implements IController {
 
     this.startMessage();
 
-    List<Command> executables = this.getExecutables();
+    CommandPlanner planner = new CommandPlanner(this.store != null);
+    List<Command> executables = planner.plan(this.getExecutables());
 
+    List<Command> executed;
+    if (this.store != null && StreamingScript.isEnabled()
+            && StreamingScript.canStream(executables)) {
+      executed = this.runStreaming(executables);
+    } else if (this.store != null && this.getThreads() > 1) {
+      executed = this.runConcurrently(executables, planner);
+    } else {
+      executed = this.runInOrder(executables, planner);
+    }
+
+    for (String line : planner.report(executed)) {
+      this.writeMessage(line);
+    }
+    this.endMessage();
+  }
+
+  /**
+   * Runs the given commands one after the other, stopping at the first command that fails.
+   *
+   * @param executables the commands returned by the planner
+   * @param planner the planner
+   * @return the commands that were executed
+   * @throws IllegalArgumentException if a message cannot be rendered
+   */
+  private List<Command> runInOrder(List<Command> executables, CommandPlanner planner)
+          throws IllegalArgumentException {
+    List<Command> executed = new ArrayList<Command>();
     for (Command executable : executables) {
       this.writeMessage("Executing command: " + executable.name());
       try {
-        executable.execute(this.data);
+        this.runCommand(executable, this.data, planner);
       } catch (IllegalArgumentException e) {
-        this.writeMessage("Could not execute command | " + e.getMessage());
+        this.writeFailure("Could not execute command | " + e.getMessage());
         break;
       }
+      executed.add(executable);
 
+      for (String name : planner.releasedAfter(executable)) {
+        this.data.remove(name);
+      }
     }
+    return executed;
+  }
 
-    this.endMessage();
+  /**
+   * Runs the given commands on a scheduler, waiting for them in order so that the messages and
+   * the command that fails first are the same as when they run one after the other.
+   *
+   * @param executables the commands returned by the planner
+   * @param planner the planner
+   * @return the commands that were executed before the first command that failed
+   * @throws IllegalArgumentException if a message cannot be rendered
+   */
+  private List<Command> runConcurrently(List<Command> executables, CommandPlanner planner)
+          throws IllegalArgumentException {
+    Map<String, Image> images = Collections.synchronizedMap(this.data);
+    CommandScheduler scheduler = new CommandScheduler(this.getThreads());
+    List<Command> executed = new ArrayList<Command>();
+    try {
+      scheduler.start(executables, planner,
+              command -> this.runCommand(command, images, planner), images::remove);
+      for (int i = 0; i < executables.size(); i++) {
+        this.writeMessage("Executing command: " + executables.get(i).name());
+        try {
+          scheduler.await(i);
+        } catch (IllegalArgumentException e) {
+          this.writeFailure("Could not execute command | " + e.getMessage());
+          break;
+        }
+        executed.add(executables.get(i));
+      }
+    } finally {
+      scheduler.shutdown();
+    }
+    return executed;
+  }
+
+  /**
+   * Runs the given commands one row at a time. The commands are added to the stream in order
+   * until one fails, and the ones before it are then streamed. If the stream itself fails, no
+   * command counts as executed, as the files it saved are incomplete and have been deleted. The
+   * rows kept by the stream are reported if it saved an image.
+   *
+   * @param executables the commands returned by the planner, which can be streamed
+   * @return the commands that were executed
+   * @throws IllegalArgumentException if a message cannot be rendered
+   */
+  private List<Command> runStreaming(List<Command> executables) throws IllegalArgumentException {
+    StreamingScript script = new StreamingScript();
+    List<Command> executed = new ArrayList<Command>();
+    String failure = null;
+    boolean saved = false;
+    try {
+      for (Command executable : executables) {
+        this.writeMessage("Executing command: " + executable.name());
+        try {
+          script.add(executable);
+        } catch (IllegalArgumentException e) {
+          failure = e.getMessage();
+          break;
+        }
+        executed.add(executable);
+        saved |= executable instanceof SaveCommand;
+      }
+
+      try {
+        script.run();
+      } catch (IllegalArgumentException e) {
+        failure = e.getMessage();
+        executed.clear();
+        saved = false;
+      }
+    } finally {
+      script.close();
+    }
+
+    if (failure != null) {
+      this.writeFailure("Could not execute command | " + failure);
+    }
+    if (saved) {
+      this.writeMessage("Streamed " + executed.size() + " commands one row at a time, keeping "
+              + (script.getBufferedBytes() + 1023) / 1024 + " KB of rows");
+    }
+    return executed;
+  }
+
+  /**
+   * Runs the given command, in place if the planner allows it and no other stored image uses
+   * the image it reads.
+   *
+   * @param command the command
+   * @param images the images of the program
+   * @param planner the planner
+   * @throws IllegalArgumentException if the command failed to execute
+   */
+  private void runCommand(Command command, Map<String, Image> images, CommandPlanner planner)
+          throws IllegalArgumentException {
+    boolean inPlace;
+    synchronized (images) {
+      inPlace = planner.runsInPlace(command) && !this.store.isShared(command.inputs().get(0));
+    }
+
+    if (inPlace) {
+      ((InPlaceCommand) command).executeInPlace(images);
+    } else {
+      command.execute(images);
+    }
   }
 
   /**
@@ -128,7 +280,7 @@ public abstract class SimpleController implements IController {
 
       if (cmd == null) {
 
-        this.writeMessage("Invalid command provided: " + command);
+        this.writeFailure("Invalid command provided: " + command);
         invalidCommand = true;
         break;
 
@@ -136,7 +288,7 @@ public abstract class SimpleController implements IController {
         try {
           executables.add(cmd.apply(sc));
         } catch (IllegalArgumentException e) {
-          this.writeMessage("Could not read command | " + e.getMessage());
+          this.writeFailure("Could not read command | " + e.getMessage());
           invalidCommand = true;
           break;
         }
@@ -189,6 +341,48 @@ public abstract class SimpleController implements IController {
     }
   }
 
+  /**
+   * Renders the given message to the view and records it as the failure of the script, unless
+   * an earlier message was recorded.
+   * @param message to be rendered
+   * @throws IllegalArgumentException if the message cannot be rendered
+   */
+  private void writeFailure(String message) throws IllegalArgumentException {
+    if (this.failure == null) {
+      this.failure = message;
+    }
+    this.writeMessage(message);
+  }
+
+  /**
+   * Gets the message of the first command that could not be read or executed.
+   * @return the message, or null if every command was read and executed
+   */
+  public String getFailure() {
+    return this.failure;
+  }
+
+  /**
+   * Sets the number of commands of the script that can run at the same time, instead of the
+   * number of threads of {@link Parallel}. One runs the commands one after the other.
+   * @param count the number of commands that can run at the same time
+   * @throws IllegalArgumentException if the number is less than one
+   */
+  public void setThreads(int count) throws IllegalArgumentException {
+    if (count < 1) {
+      throw new IllegalArgumentException("Invalid number of threads provided: " + count);
+    }
+    this.threads = count;
+  }
+
+  /**
+   * Gets the number of commands of the script that can run at the same time.
+   * @return the number set for this controller, or the number of threads of {@link Parallel}
+   */
+  private int getThreads() {
+    return this.threads > 0 ? this.threads : Parallel.getThreads();
+  }
+
   // gets the user inputs and validates them.
   protected StringReader getUserInputs() {
     StringBuilder userInputs = new StringBuilder();
@@ -45,16 +45,18 @@ public class SimpleGuiController implements GuiController, ActionListener {
     this.commandNameMapping.put("vertical flip", "vertical-flip");
     this.commandNameMapping.put("horizontal flip", "horizontal-flip");
     this.commandNameMapping.put("blur", "blur");
+    this.commandNameMapping.put("box blur", "box-blur");
+    this.commandNameMapping.put("gaussian blur", "gaussian-blur");
     this.commandNameMapping.put("sharpen", "sharpen");
     this.commandNameMapping.put("sepia", "sepia");
     this.commandNameMapping.put("greyscale", "greyscale");
     this.commandNameMapping.put("none", "none");
 
-    this.model = new HashMap<String, Image>();
+    this.model = new ImageStore();
     this.commandNames = new ArrayList<String>(Arrays.asList("brighten",
             "red component", "green component", "blue component", "value component",
             "intensity component", "luma component", "vertical flip", "horizontal flip", "blur",
-            "sharpen", "sepia", "greyscale"));
+            "box blur", "gaussian blur", "sharpen", "sepia", "greyscale"));
     this.view = new GuiFrameViewImpl(this.model, this.commandNames, this);
 
     this.log = new StringBuilder("");
@@ -83,6 +85,8 @@ public class SimpleGuiController implements GuiController, ActionListener {
     this.commandNameMapping.put("vertical flip", "vertical-flip");
     this.commandNameMapping.put("horizontal flip", "horizontal-flip");
     this.commandNameMapping.put("blur", "blur");
+    this.commandNameMapping.put("box blur", "box-blur");
+    this.commandNameMapping.put("gaussian blur", "gaussian-blur");
     this.commandNameMapping.put("sharpen", "sharpen");
     this.commandNameMapping.put("sepia", "sepia");
     this.commandNameMapping.put("greyscale", "greyscale");
@@ -92,7 +96,7 @@ public class SimpleGuiController implements GuiController, ActionListener {
     this.commandNames = new ArrayList<String>(Arrays.asList("brighten",
             "red component", "green component", "blue component", "value component",
             "intensity component", "luma component", "vertical flip", "horizontal flip", "blur",
-            "sharpen", "sepia", "greyscale"));
+            "box blur", "gaussian blur", "sharpen", "sepia", "greyscale"));
     this.view = new GuiFrameViewImpl(this.model, this.commandNames, this);
 
     this.log = new StringBuilder("");
@@ -164,6 +168,21 @@ public class SimpleGuiController implements GuiController, ActionListener {
           break;
         }
 
+        String blurAmount = "";
+        if (this.currCommand.equals("box-blur")) {
+          int radius = this.view.inputBlurRadius();
+          if (radius == 0) {
+            break;
+          }
+          blurAmount = radius + " ";
+        } else if (this.currCommand.equals("gaussian-blur")) {
+          double sigma = this.view.inputBlurSigma();
+          if (sigma == 0) {
+            break;
+          }
+          blurAmount = sigma + " ";
+        }
+
         String destImageName = this.view.inputImageName();
 
         if (destImageName == null) {
@@ -174,6 +193,7 @@ public class SimpleGuiController implements GuiController, ActionListener {
         if (this.currCommand.equals("brighten")) {
           finalCommand = finalCommand + this.brightenIncrement + " ";
         }
+        finalCommand = finalCommand + blurAmount;
         finalCommand = finalCommand + this.currImageSelected + " " + destImageName;
 
         this.controller.resetReadable(new StringReader(finalCommand));
@@ -0,0 +1,194 @@
+package controller;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import controller.command.Command;
+import controller.command.FilterCommand;
+import controller.command.LoadCommand;
+import controller.command.PointCommand;
+import controller.command.SaveCommand;
+import model.utility.ImageUtil;
+import model.utility.RowReader;
+import model.utility.RowWriter;
+import model.utility.ScanlinePipeline;
+
+/**
+ * Class that runs a linear script one row at a time. A script is linear when it loads a single
+ * PPM image, and every command after that is a point command or a filter command that reads the
+ * image stored by the command before it, or saves that image to a PPM file. Such a script never
+ * needs a whole image: the rows are read from the file, passed through every command and written
+ * to every file as they go by a {@link ScanlinePipeline}, so images far larger than the heap can
+ * be processed. Streaming is turned off by default, and scripts that are not linear are always
+ * run image by image.
+ */
+public class StreamingScript {
+  private static boolean enabled = false;
+
+  private final ImageUtil imageUtil;
+  private final List<RowWriter> writers;
+  private RowReader reader;
+  private ScanlinePipeline pipeline;
+
+  /**
+   * Constructor for initialising the StreamingScript, which has no commands yet.
+   */
+  public StreamingScript() {
+    this.imageUtil = new ImageUtil();
+    this.writers = new ArrayList<RowWriter>();
+  }
+
+  /**
+   * Sets whether linear scripts are run one row at a time.
+   *
+   * @param streaming true to stream linear scripts
+   */
+  public static synchronized void setEnabled(boolean streaming) {
+    enabled = streaming;
+  }
+
+  /**
+   * Checks if linear scripts are run one row at a time.
+   *
+   * @return true if linear scripts are streamed
+   */
+  public static synchronized boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Checks if the given commands make up a linear script that saves at least one image. Every
+   * file may only be saved once, and not to the file that is loaded, as the files are written
+   * while the loaded file is still being read.
+   *
+   * @param commands the commands in the order they are run
+   * @return true if the commands can be run one row at a time
+   */
+  public static boolean canStream(List<Command> commands) {
+    ImageUtil imageUtil = new ImageUtil();
+    if (commands.isEmpty() || !(commands.get(0) instanceof LoadCommand)) {
+      return false;
+    }
+
+    LoadCommand load = (LoadCommand) commands.get(0);
+    if (!imageUtil.canReadRows(load.getFilepath())) {
+      return false;
+    }
+
+    Set<File> files = new HashSet<File>();
+    files.add(toFile(load.getFilepath()));
+    String current = load.outputs().get(0);
+    boolean saves = false;
+    for (Command command : commands.subList(1, commands.size())) {
+      if (!command.inputs().equals(Collections.singletonList(current))) {
+        return false;
+      }
+
+      if (command instanceof SaveCommand) {
+        String filepath = ((SaveCommand) command).getFilepath();
+        if (!imageUtil.canWriteRows(filepath) || !files.add(toFile(filepath))) {
+          return false;
+        }
+        saves = true;
+      } else if (command instanceof PointCommand || command instanceof FilterCommand) {
+        current = command.outputs().get(0);
+      } else {
+        return false;
+      }
+    }
+    return saves;
+  }
+
+  /**
+   * Adds the next command of a linear script. Loading opens the file to read, saving creates the
+   * file to write, and the other commands add their stage to the pipeline.
+   *
+   * @param command the next command of a script that {@link #canStream(List)} accepts
+   * @throws IllegalArgumentException if the file cannot be opened or created, or the arguments
+   *                                  of the command are invalid
+   */
+  public void add(Command command) throws IllegalArgumentException {
+    if (command instanceof LoadCommand) {
+      this.reader = this.imageUtil.openRowReader(((LoadCommand) command).getFilepath());
+      this.pipeline = new ScanlinePipeline(this.reader);
+    } else if (command instanceof SaveCommand) {
+      String filepath = ((SaveCommand) command).getFilepath();
+      RowWriter writer = this.imageUtil.openRowWriter(filepath, this.pipeline.getWidth(),
+              this.pipeline.getHeight(), this.pipeline.getMaxValue());
+      this.writers.add(writer);
+      this.pipeline.addOutput(writer);
+    } else if (command instanceof PointCommand) {
+      this.pipeline.addTransformation(((PointCommand) command).transformation());
+    } else {
+      this.pipeline.addFilter(((FilterCommand) command).filter());
+    }
+  }
+
+  /**
+   * Streams the rows of the loaded image through the commands that were added and closes every
+   * file, which moves every saved image to its path. If the rows cannot be read or written, the
+   * images that were not saved yet are discarded, as they are incomplete, and the files that
+   * were at their paths are left unchanged.
+   *
+   * @throws IllegalArgumentException if the image cannot be read or saved
+   */
+  public void run() throws IllegalArgumentException {
+    if (this.pipeline == null) {
+      return;
+    }
+
+    try {
+      this.pipeline.run();
+      while (!this.writers.isEmpty()) {
+        this.writers.get(0).close();
+        this.writers.remove(0);
+      }
+    } finally {
+      this.close();
+    }
+  }
+
+  /**
+   * Discards every image that has not been saved yet and closes the loaded file, ignoring any
+   * failure.
+   */
+  public void close() {
+    for (RowWriter writer : this.writers) {
+      writer.discard();
+    }
+    this.writers.clear();
+
+    if (this.reader != null) {
+      try {
+        this.reader.close();
+      } catch (IllegalArgumentException e) {
+        // The file is not used again.
+      }
+      this.reader = null;
+    }
+  }
+
+  /**
+   * Gets the number of bytes of the rows that the pipeline keeps at any time, or 0 if no image
+   * was loaded.
+   *
+   * @return the number of bytes of the rows kept
+   */
+  public long getBufferedBytes() {
+    return this.pipeline == null ? 0 : this.pipeline.getBufferedBytes();
+  }
+
+  /**
+   * Gets the file with the given path, so that different paths to the same file can be compared.
+   *
+   * @param filepath the path of the file
+   * @return the file
+   */
+  private static File toFile(String filepath) {
+    return new File(filepath).getAbsoluteFile().toPath().normalize().toFile();
+  }
+}
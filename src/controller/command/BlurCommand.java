@@ -1,5 +1,7 @@
 package controller.command;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import model.Filter;
@@ -9,7 +11,7 @@ import model.Image;
 /**
  * Class for the blur command.
  */
-public class BlurCommand implements Command {
+public class BlurCommand implements FilterCommand {
 
   private String imageName;
   private String destImageName;
@@ -38,17 +40,23 @@ public class BlurCommand implements Command {
       throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
     }
 
-    Image img = data.get(this.imageName);
+    Image blurred = data.get(this.imageName).applyFilter(this.filter());
+    data.put(this.destImageName, blurred);
+  }
 
+  /**
+   * Gets the filter that the command applies to every pixel.
+   *
+   * @return the filter
+   */
+  @Override
+  public IFilter filter() {
     double[][] kernel = new double[3][3];
     kernel[0] = new double[]{0.0625, 0.125, 0.0625};
     kernel[1] = new double[]{0.125, 0.25, 0.125};
     kernel[2] = new double[]{0.0625, 0.125, 0.0625};
 
-    IFilter blurFilter = new Filter(kernel);
-    Image blurred = img.applyFilter(blurFilter);
-    data.put(this.destImageName, blurred);
-    
+    return new Filter(kernel);
   }
 
   /**
@@ -60,4 +68,24 @@ public class BlurCommand implements Command {
   public String name() {
     return "blur";
   }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.destImageName);
+  }
 }
@@ -0,0 +1,89 @@
+package controller.command;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import model.BoxFilter;
+import model.Image;
+
+/**
+ * Class for the box-blur command.
+ */
+public class BoxBlurCommand implements FilterCommand {
+  private int radius;
+  private String imageName;
+  private String destImageName;
+
+  /**
+   * Constructor for initialising the BoxBlurCommand.
+   *
+   * @param radius of the square of pixels to average around every pixel
+   * @param imageName to blur
+   * @param destImageName to save the blurred image to
+   */
+  public BoxBlurCommand(int radius, String imageName, String destImageName) {
+    this.radius = radius;
+    this.imageName = imageName;
+    this.destImageName = destImageName;
+  }
+
+  /**
+   * Executes the box-blur command given the model.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the model does not contain the image name or the
+   *                                  radius is invalid
+   */
+  @Override
+  public void execute(Map<String, Image> data) throws IllegalArgumentException {
+
+    if (!data.containsKey(this.imageName)) {
+      throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
+    }
+
+    Image blurred = data.get(this.imageName).applyFilter(this.filter());
+    data.put(this.destImageName, blurred);
+  }
+
+  /**
+   * Gets the filter that the command applies to every pixel.
+   *
+   * @return the filter
+   * @throws IllegalArgumentException if the radius is invalid
+   */
+  @Override
+  public BoxFilter filter() throws IllegalArgumentException {
+    return new BoxFilter(this.radius);
+  }
+
+  /**
+   * Gets the name of the command.
+   *
+   * @return the name of the command
+   */
+  @Override
+  public String name() {
+    return "box-blur";
+  }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.destImageName);
+  }
+}
@@ -1,13 +1,18 @@
 package controller.command;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
+import model.ITransformation;
 import model.Image;
+import model.LookupTransformation;
+import model.MutableImage;
 
 /**
  * Class for the brighten command.
  */
-public class BrightenCommand implements Command {
+public class BrightenCommand implements PointCommand {
   private int increment;
   private String imageName;
   private String destImageName;
@@ -26,7 +31,8 @@ public class BrightenCommand implements Command {
   }
 
   /**
-   * Executes the brighten command given the model.
+   * Executes the brighten command given the model. The image is brightened through a lookup
+   * table with an entry for every value of a channel.
    *
    * @param data the model
    * @throws IllegalArgumentException if the model does not contain the image name
@@ -38,10 +44,44 @@ public class BrightenCommand implements Command {
       throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
     }
 
-    Image newImage = data.get(this.imageName).brightenImage(this.increment);
+    Image newImage = data.get(this.imageName).applyTransformation(this.transformation());
     data.put(this.destImageName, newImage);
   }
 
+  /**
+   * Executes the brighten command given the model, overwriting the pixels of the image it reads if
+   * the image allows it.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the model does not contain the image name
+   */
+  @Override
+  public void executeInPlace(Map<String, Image> data) throws IllegalArgumentException {
+
+    if (!data.containsKey(this.imageName)) {
+      throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
+    }
+
+    Image image = data.get(this.imageName);
+    Image newImage;
+    if (image instanceof MutableImage) {
+      newImage = ((MutableImage) image).applyTransformationInPlace(this.transformation());
+    } else {
+      newImage = image.applyTransformation(this.transformation());
+    }
+    data.put(this.destImageName, newImage);
+  }
+
+  /**
+   * Gets the transformation that the command applies to every pixel.
+   *
+   * @return the transformation
+   */
+  @Override
+  public ITransformation transformation() {
+    return LookupTransformation.brighten(this.increment);
+  }
+
   /**
    * Gets the name of the command.
    *
@@ -51,4 +91,24 @@ public class BrightenCommand implements Command {
   public String name() {
     return "brighten";
   }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.destImageName);
+  }
 }
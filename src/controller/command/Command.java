@@ -1,5 +1,6 @@
 package controller.command;
 
+import java.util.List;
 import java.util.Map;
 
 import model.Image;
@@ -22,4 +23,16 @@ public interface Command {
    * @return the name of the command
    */
   String name();
+
+  /**
+   * Gets the names of the images that the command reads.
+   * @return the names of the images read
+   */
+  List<String> inputs();
+
+  /**
+   * Gets the names of the images that the command stores.
+   * @return the names of the images stored
+   */
+  List<String> outputs();
 }
\ No newline at end of file
@@ -1,13 +1,18 @@
 package controller.command;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
+import model.ITransformation;
 import model.Image;
+import model.LookupTransformation;
+import model.MutableImage;
 
 /**
  * Class for the convert to greyscale command.
  */
-public class ComponentCommand implements Command {
+public class ComponentCommand implements PointCommand {
   private String method;
   private String imageName;
   private String destImageName;
@@ -26,10 +31,12 @@ public class ComponentCommand implements Command {
   }
 
   /**
-   * Executes the convert to greyscale command given the model.
+   * Executes the convert to greyscale command given the model. The component is extracted
+   * through lookup tables.
    *
    * @param data the model
-   * @throws IllegalArgumentException if the model does not contain the image name
+   * @throws IllegalArgumentException if the model does not contain the image name or the method
+   *                                  is invalid
    */
   @Override
   public void execute(Map<String, Image> data) throws IllegalArgumentException {
@@ -38,10 +45,46 @@ public class ComponentCommand implements Command {
       throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
     }
 
-    Image newImage = data.get(this.imageName).convertGreyscale(this.method);
+    Image newImage = data.get(this.imageName).applyTransformation(this.transformation());
     data.put(this.destImageName, newImage);
   }
 
+  /**
+   * Executes the convert to greyscale command given the model, overwriting the pixels of the image
+   * it reads if the image allows it.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the model does not contain the image name or the method
+   *                                  is invalid
+   */
+  @Override
+  public void executeInPlace(Map<String, Image> data) throws IllegalArgumentException {
+
+    if (!data.containsKey(this.imageName)) {
+      throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
+    }
+
+    Image image = data.get(this.imageName);
+    Image newImage;
+    if (image instanceof MutableImage) {
+      newImage = ((MutableImage) image).applyTransformationInPlace(this.transformation());
+    } else {
+      newImage = image.applyTransformation(this.transformation());
+    }
+    data.put(this.destImageName, newImage);
+  }
+
+  /**
+   * Gets the transformation that the command applies to every pixel.
+   *
+   * @return the transformation
+   * @throws IllegalArgumentException if the method is invalid
+   */
+  @Override
+  public ITransformation transformation() throws IllegalArgumentException {
+    return new LookupTransformation(this.method);
+  }
+
   /**
    * Gets the name of the command.
    *
@@ -51,4 +94,24 @@ public class ComponentCommand implements Command {
   public String name() {
     return this.method + "-component";
   }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.destImageName);
+  }
 }
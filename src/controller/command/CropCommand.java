@@ -0,0 +1,87 @@
+package controller.command;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import model.Image;
+
+/**
+ * Class for the crop command.
+ */
+public class CropCommand implements Command {
+  private int col;
+  private int row;
+  private int width;
+  private int height;
+  private String imageName;
+  private String destImageName;
+
+  /**
+   * Constructor for initialising the CropCommand.
+   *
+   * @param col of the top left pixel of the region to keep
+   * @param row of the top left pixel of the region to keep
+   * @param width of the region to keep
+   * @param height of the region to keep
+   * @param imageName to crop
+   * @param destImageName to save the cropped image to
+   */
+  public CropCommand(int col, int row, int width, int height, String imageName,
+                     String destImageName) {
+    this.col = col;
+    this.row = row;
+    this.width = width;
+    this.height = height;
+    this.imageName = imageName;
+    this.destImageName = destImageName;
+  }
+
+  /**
+   * Executes the crop command given the model.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the model does not contain the image name or the
+   *                                  region is not inside the image
+   */
+  @Override
+  public void execute(Map<String, Image> data) throws IllegalArgumentException {
+
+    if (!data.containsKey(this.imageName)) {
+      throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
+    }
+
+    Image newImage = data.get(this.imageName).crop(this.col, this.row, this.width, this.height);
+    data.put(this.destImageName, newImage);
+  }
+
+  /**
+   * Gets the name of the command.
+   *
+   * @return the name of the command
+   */
+  @Override
+  public String name() {
+    return "crop";
+  }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.destImageName);
+  }
+}
@@ -0,0 +1,19 @@
+package controller.command;
+
+import model.IFilter;
+
+/**
+ * Interface for a command that applies a filter to every pixel, using only the pixels around it.
+ * Only a few rows of the image around a row are needed to filter it, so the command can be
+ * applied to an image that is read one row at a time.
+ */
+public interface FilterCommand extends Command {
+
+  /**
+   * Gets the filter that the command applies to every pixel.
+   *
+   * @return the filter
+   * @throws IllegalArgumentException if the arguments of the command are invalid
+   */
+  IFilter filter() throws IllegalArgumentException;
+}
@@ -0,0 +1,156 @@
+package controller.command;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import model.FusedTransformation;
+import model.ITransformation;
+import model.Image;
+import model.MutableImage;
+
+/**
+ * Class for a run of point commands that is applied to an image in a single pass. Every command
+ * of the run reads the image stored by the command before it, and the images in between are
+ * not stored.
+ */
+public class FusedCommand implements PointCommand {
+  private final List<PointCommand> commands;
+  private long skippedBytes;
+
+  /**
+   * Constructor for initialising the FusedCommand.
+   *
+   * @param commands the point commands in the order they are run
+   * @throws IllegalArgumentException if fewer than two commands are given
+   */
+  public FusedCommand(List<PointCommand> commands) throws IllegalArgumentException {
+    if (commands == null || commands.size() < 2) {
+      throw new IllegalArgumentException("A fused command needs at least two commands!");
+    }
+
+    this.commands = new ArrayList<PointCommand>(commands);
+  }
+
+  /**
+   * Executes the commands of the run given the model, storing only the last image.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the model does not contain the image name
+   */
+  @Override
+  public void execute(Map<String, Image> data) throws IllegalArgumentException {
+    this.run(data, false);
+  }
+
+  /**
+   * Executes the commands of the run given the model, overwriting the pixels of the image the
+   * run reads if the image allows it.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the model does not contain the image name
+   */
+  @Override
+  public void executeInPlace(Map<String, Image> data) throws IllegalArgumentException {
+    this.run(data, true);
+  }
+
+  /**
+   * Applies the transformation of the run to the image it reads and stores the result.
+   *
+   * @param data the model
+   * @param inPlace whether the pixels of the image read may be overwritten
+   * @throws IllegalArgumentException if the model does not contain the image name
+   */
+  private void run(Map<String, Image> data, boolean inPlace) throws IllegalArgumentException {
+    String imageName = this.inputs().get(0);
+    if (!data.containsKey(imageName)) {
+      throw new IllegalArgumentException("Image with name " + imageName + " doesn't exist!");
+    }
+
+    Image img = data.get(imageName);
+    int bytesPerValue = img.getMaxValue() > 255 ? 2 : 1;
+    long bytes = (this.commands.size() - 1) * 3L * bytesPerValue * img.getWidth()
+            * img.getHeight();
+
+    Image newImage;
+    if (inPlace && img instanceof MutableImage) {
+      newImage = ((MutableImage) img).applyTransformationInPlace(this.transformation());
+    } else {
+      newImage = img.applyTransformation(this.transformation());
+    }
+    data.put(this.outputs().get(0), newImage);
+    this.skippedBytes = bytes;
+  }
+
+  /**
+   * Gets the transformation that applies the transformations of every command of the run.
+   *
+   * @return the transformation
+   * @throws IllegalArgumentException if the arguments of a command are invalid
+   */
+  @Override
+  public FusedTransformation transformation() throws IllegalArgumentException {
+    List<ITransformation> transformations = new ArrayList<ITransformation>();
+    for (PointCommand command : this.commands) {
+      transformations.add(command.transformation());
+    }
+    return new FusedTransformation(transformations);
+  }
+
+  /**
+   * Gets the name of the command, which joins the names of the commands of the run.
+   *
+   * @return the name of the command
+   */
+  @Override
+  public String name() {
+    StringBuilder name = new StringBuilder();
+    for (PointCommand command : this.commands) {
+      if (name.length() > 0) {
+        name.append("+");
+      }
+      name.append(command.name());
+    }
+    return name.toString();
+  }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return this.commands.get(0).inputs();
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return this.commands.get(this.commands.size() - 1).outputs();
+  }
+
+  /**
+   * Gets the number of commands in the run.
+   *
+   * @return the number of commands
+   */
+  public int size() {
+    return this.commands.size();
+  }
+
+  /**
+   * Gets the number of bytes of the images in between that were not stored, or 0 if the command
+   * has not been executed.
+   *
+   * @return the number of bytes that were not stored
+   */
+  public long getSkippedBytes() {
+    return this.skippedBytes;
+  }
+}
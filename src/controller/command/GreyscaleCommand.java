@@ -1,15 +1,18 @@
 package controller.command;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import model.ITransformation;
 import model.Image;
-import model.Transformation;
+import model.MutableImage;
+import model.TableTransformation;
 
 /**
  * Class for the brighten command.
  */
-public class GreyscaleCommand implements Command {
+public class GreyscaleCommand implements PointCommand {
   private String imageName;
   private String destImageName;
 
@@ -37,17 +40,47 @@ public class GreyscaleCommand implements Command {
       throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
     }
 
-    Image img = data.get(this.imageName);
+    Image greyImage = data.get(this.imageName).applyTransformation(this.transformation());
+    data.put(this.destImageName, greyImage);
+  }
 
+  /**
+   * Executes the greyscale command given the model, overwriting the pixels of the image it reads if
+   * the image allows it.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the model does not contain the image name
+   */
+  @Override
+  public void executeInPlace(Map<String, Image> data) throws IllegalArgumentException {
+
+    if (!data.containsKey(this.imageName)) {
+      throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
+    }
+
+    Image image = data.get(this.imageName);
+    Image greyImage;
+    if (image instanceof MutableImage) {
+      greyImage = ((MutableImage) image).applyTransformationInPlace(this.transformation());
+    } else {
+      greyImage = image.applyTransformation(this.transformation());
+    }
+    data.put(this.destImageName, greyImage);
+  }
+
+  /**
+   * Gets the transformation that the command applies to every pixel.
+   *
+   * @return the transformation
+   */
+  @Override
+  public ITransformation transformation() {
     double[][] matrix = new double[3][3];
     matrix[0] = new double[]{0.2126, 0.7152, 0.0772};
     matrix[1] = new double[]{0.2126, 0.7152, 0.0772};
     matrix[2] = new double[]{0.2126, 0.7152, 0.0772};
 
-    ITransformation greyScaleTransformation = new Transformation(matrix);
-    Image greyImage = img.applyTransformation(greyScaleTransformation);
-    data.put(this.destImageName, greyImage);
-
+    return new TableTransformation(matrix);
   }
 
   /**
@@ -59,4 +92,24 @@ public class GreyscaleCommand implements Command {
   public String name() {
     return "greyscale";
   }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.destImageName);
+  }
 }
@@ -0,0 +1,21 @@
+package controller.command;
+
+import java.util.Map;
+
+import model.Image;
+
+/**
+ * Interface for a command that can overwrite the pixels of the image it reads instead of storing
+ * the result in a new image. This is only safe when no later command reads that image.
+ */
+public interface InPlaceCommand extends Command {
+
+  /**
+   * Executes the command given the model, overwriting the pixels of the image it reads if the
+   * image allows it, and stores the result under the name of the destination image.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the command failed to execute
+   */
+  void executeInPlace(Map<String, Image> data) throws IllegalArgumentException;
+}
@@ -1,5 +1,7 @@
 package controller.command;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import model.Image;
@@ -49,4 +51,33 @@ public class LoadCommand implements Command {
   public String name() {
     return "load";
   }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the path of the file to load the image from.
+   *
+   * @return the path of the file
+   */
+  public String getFilepath() {
+    return this.filepath;
+  }
 }
@@ -0,0 +1,89 @@
+package controller.command;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import model.Image;
+import model.MedianFilter;
+
+/**
+ * Class for the median command.
+ */
+public class MedianCommand implements FilterCommand {
+  private int radius;
+  private String imageName;
+  private String destImageName;
+
+  /**
+   * Constructor for initialising the MedianCommand.
+   *
+   * @param radius of the square of pixels to take the median of around every pixel
+   * @param imageName to filter
+   * @param destImageName to save the filtered image to
+   */
+  public MedianCommand(int radius, String imageName, String destImageName) {
+    this.radius = radius;
+    this.imageName = imageName;
+    this.destImageName = destImageName;
+  }
+
+  /**
+   * Executes the median command given the model.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the model does not contain the image name or the
+   *                                  radius is invalid
+   */
+  @Override
+  public void execute(Map<String, Image> data) throws IllegalArgumentException {
+
+    if (!data.containsKey(this.imageName)) {
+      throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
+    }
+
+    Image filtered = data.get(this.imageName).applyFilter(this.filter());
+    data.put(this.destImageName, filtered);
+  }
+
+  /**
+   * Gets the filter that the command applies to every pixel.
+   *
+   * @return the filter
+   * @throws IllegalArgumentException if the radius is invalid
+   */
+  @Override
+  public MedianFilter filter() throws IllegalArgumentException {
+    return new MedianFilter(this.radius);
+  }
+
+  /**
+   * Gets the name of the command.
+   *
+   * @return the name of the command
+   */
+  @Override
+  public String name() {
+    return "median";
+  }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.destImageName);
+  }
+}
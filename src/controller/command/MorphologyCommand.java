@@ -0,0 +1,97 @@
+package controller.command;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import model.Image;
+import model.MorphologyFilter;
+
+/**
+ * Class for the erode, dilate, open and close commands.
+ */
+public class MorphologyCommand implements FilterCommand {
+  private String operation;
+  private int width;
+  private int height;
+  private String imageName;
+  private String destImageName;
+
+  /**
+   * Constructor for initialising the MorphologyCommand.
+   *
+   * @param operation to apply (erode, dilate, open or close)
+   * @param width of the rectangular structuring element
+   * @param height of the rectangular structuring element
+   * @param imageName to apply the operation to
+   * @param destImageName to save the filtered image to
+   */
+  public MorphologyCommand(String operation, int width, int height, String imageName,
+                           String destImageName) {
+    this.operation = operation;
+    this.width = width;
+    this.height = height;
+    this.imageName = imageName;
+    this.destImageName = destImageName;
+  }
+
+  /**
+   * Executes the morphology command given the model.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the model does not contain the image name or the
+   *                                  structuring element is invalid
+   */
+  @Override
+  public void execute(Map<String, Image> data) throws IllegalArgumentException {
+
+    if (!data.containsKey(this.imageName)) {
+      throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
+    }
+
+    Image filtered = data.get(this.imageName).applyFilter(this.filter());
+    data.put(this.destImageName, filtered);
+  }
+
+  /**
+   * Gets the filter that the command applies to every pixel.
+   *
+   * @return the filter
+   * @throws IllegalArgumentException if the operation or the size of the structuring element
+   *                                  is invalid
+   */
+  @Override
+  public MorphologyFilter filter() throws IllegalArgumentException {
+    return new MorphologyFilter(this.operation, this.width, this.height);
+  }
+
+  /**
+   * Gets the name of the command.
+   *
+   * @return the name of the command
+   */
+  @Override
+  public String name() {
+    return this.operation;
+  }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.destImageName);
+  }
+}
@@ -0,0 +1,19 @@
+package controller.command;
+
+import model.ITransformation;
+
+/**
+ * Interface for a command that changes every pixel on its own, using only the channels of that
+ * pixel. Consecutive point commands can be applied to an image in a single pass, and a point
+ * command can overwrite the image it reads.
+ */
+public interface PointCommand extends InPlaceCommand {
+
+  /**
+   * Gets the transformation that the command applies to every pixel.
+   *
+   * @return the transformation
+   * @throws IllegalArgumentException if the arguments of the command are invalid
+   */
+  ITransformation transformation() throws IllegalArgumentException;
+}
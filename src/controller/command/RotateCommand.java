@@ -0,0 +1,77 @@
+package controller.command;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import model.Image;
+
+/**
+ * Class for the rotate command.
+ */
+public class RotateCommand implements Command {
+  private int degrees;
+  private String imageName;
+  private String destImageName;
+
+  /**
+   * Constructor for initialising the RotateCommand.
+   *
+   * @param degrees to rotate clockwise by (90, 180 or 270)
+   * @param imageName to rotate
+   * @param destImageName to save the rotated image to
+   */
+  public RotateCommand(int degrees, String imageName, String destImageName) {
+    this.degrees = degrees;
+    this.imageName = imageName;
+    this.destImageName = destImageName;
+  }
+
+  /**
+   * Executes the rotate command given the model.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the model does not contain the image name or the
+   *                                  number of degrees is invalid
+   */
+  @Override
+  public void execute(Map<String, Image> data) throws IllegalArgumentException {
+
+    if (!data.containsKey(this.imageName)) {
+      throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
+    }
+
+    Image newImage = data.get(this.imageName).rotate(this.degrees);
+    data.put(this.destImageName, newImage);
+  }
+
+  /**
+   * Gets the name of the command.
+   *
+   * @return the name of the command
+   */
+  @Override
+  public String name() {
+    return "rotate";
+  }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.destImageName);
+  }
+}
@@ -1,5 +1,7 @@
 package controller.command;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import model.Image;
@@ -39,7 +41,7 @@ public class SaveCommand implements Command {
     ImageUtil imageUtil = new ImageUtil();
     Image image = data.get(this.imageName);
     try {
-      imageUtil.saveImage(this.filepath, image.getWidth(), image.getHeight(), image.writePixels());
+      imageUtil.saveImage(this.filepath, image);
     } catch (IllegalArgumentException e) {
       throw new IllegalArgumentException(e.getMessage());
     }
@@ -55,4 +57,33 @@ public class SaveCommand implements Command {
   public String name() {
     return "save";
   }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Gets the path of the file to save the image to.
+   *
+   * @return the path of the file
+   */
+  public String getFilepath() {
+    return this.filepath;
+  }
 }
@@ -1,15 +1,18 @@
 package controller.command;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import model.ITransformation;
 import model.Image;
-import model.Transformation;
+import model.MutableImage;
+import model.TableTransformation;
 
 /**
  * Class for the sepia command.
  */
-public class SepiaCommand implements Command {
+public class SepiaCommand implements PointCommand {
 
   private String imageName;
   private String destImageName;
@@ -38,17 +41,47 @@ public class SepiaCommand implements Command {
       throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
     }
 
-    Image img = data.get(this.imageName);
+    Image sepiaImage = data.get(this.imageName).applyTransformation(this.transformation());
+    data.put(this.destImageName, sepiaImage);
+  }
 
+  /**
+   * Executes the sepia command given the model, overwriting the pixels of the image it reads if the
+   * image allows it.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the model does not contain the image name
+   */
+  @Override
+  public void executeInPlace(Map<String, Image> data) throws IllegalArgumentException {
+
+    if (!data.containsKey(this.imageName)) {
+      throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
+    }
+
+    Image image = data.get(this.imageName);
+    Image sepiaImage;
+    if (image instanceof MutableImage) {
+      sepiaImage = ((MutableImage) image).applyTransformationInPlace(this.transformation());
+    } else {
+      sepiaImage = image.applyTransformation(this.transformation());
+    }
+    data.put(this.destImageName, sepiaImage);
+  }
+
+  /**
+   * Gets the transformation that the command applies to every pixel.
+   *
+   * @return the transformation
+   */
+  @Override
+  public ITransformation transformation() {
     double[][] matrix = new double[3][3];
     matrix[0] = new double[]{0.393, 0.769, 0.189};
     matrix[1] = new double[]{0.349, 0.686, 0.168};
     matrix[2] = new double[]{0.272, 0.534, 0.131};
 
-    ITransformation sepiaTransformation = new Transformation(matrix);
-    Image sepiaImage = img.applyTransformation(sepiaTransformation);
-    data.put(this.destImageName, sepiaImage);
-
+    return new TableTransformation(matrix);
   }
 
   /**
@@ -60,4 +93,24 @@ public class SepiaCommand implements Command {
   public String name() {
     return "sepia";
   }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.destImageName);
+  }
 }
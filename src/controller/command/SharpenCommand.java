@@ -1,5 +1,7 @@
 package controller.command;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import model.Filter;
@@ -9,7 +11,7 @@ import model.Image;
 /**
  * Class for the sharpen command.
  */
-public class SharpenCommand implements Command {
+public class SharpenCommand implements FilterCommand {
 
   private String imageName;
   private String destImageName;
@@ -38,8 +40,17 @@ public class SharpenCommand implements Command {
       throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
     }
 
-    Image img = data.get(this.imageName);
+    Image sharpened = data.get(this.imageName).applyFilter(this.filter());
+    data.put(this.destImageName, sharpened);
+  }
 
+  /**
+   * Gets the filter that the command applies to every pixel.
+   *
+   * @return the filter
+   */
+  @Override
+  public IFilter filter() {
     double[][] kernel = new double[5][5];
     kernel[0] = new double[]{-0.125, -0.125, -0.125, -0.125, -0.125};
     kernel[1] = new double[]{-0.125, 0.25, 0.25, 0.25, -0.125};
@@ -47,10 +58,7 @@ public class SharpenCommand implements Command {
     kernel[3] = new double[]{-0.125, 0.25, 0.25, 0.25, -0.125};
     kernel[4] = new double[]{-0.125, -0.125, -0.125, -0.125, -0.125};
 
-    IFilter sharpenFilter = new Filter(kernel);
-    Image sharpened = img.applyFilter(sharpenFilter);
-    data.put(this.destImageName, sharpened);
-
+    return new Filter(kernel);
   }
 
   /**
@@ -62,4 +70,24 @@ public class SharpenCommand implements Command {
   public String name() {
     return "sharpen";
   }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.destImageName);
+  }
 }
@@ -1,13 +1,16 @@
 package controller.command;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import model.Image;
+import model.MutableImage;
 
 /**
  * Class for the vertical-flip command.
  */
-public class VerticalFlipCommand implements Command {
+public class VerticalFlipCommand implements InPlaceCommand {
   private String imageName;
   private String destImageName;
 
@@ -39,6 +42,30 @@ public class VerticalFlipCommand implements Command {
     data.put(this.destImageName, newImage);
   }
 
+  /**
+   * Executes the vertical-flip command given the model, overwriting the pixels of the image it
+   * reads if the image allows it.
+   *
+   * @param data the model
+   * @throws IllegalArgumentException if the model does not contain the image name
+   */
+  @Override
+  public void executeInPlace(Map<String, Image> data) throws IllegalArgumentException {
+
+    if (!data.containsKey(this.imageName)) {
+      throw new IllegalArgumentException("Image with name " + this.imageName + " doesn't exist!");
+    }
+
+    Image image = data.get(this.imageName);
+    Image newImage;
+    if (image instanceof MutableImage) {
+      newImage = ((MutableImage) image).flipVerticalInPlace();
+    } else {
+      newImage = image.flipVertical();
+    }
+    data.put(this.destImageName, newImage);
+  }
+
   /**
    * Gets the name of the command.
    *
@@ -48,4 +75,24 @@ public class VerticalFlipCommand implements Command {
   public String name() {
     return "vertical-flip";
   }
+
+  /**
+   * Gets the names of the images that the command reads.
+   *
+   * @return the names of the images read
+   */
+  @Override
+  public List<String> inputs() {
+    return Collections.singletonList(this.imageName);
+  }
+
+  /**
+   * Gets the names of the images that the command stores.
+   *
+   * @return the names of the images stored
+   */
+  @Override
+  public List<String> outputs() {
+    return Collections.singletonList(this.destImageName);
+  }
 }
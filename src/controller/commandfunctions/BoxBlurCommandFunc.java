@@ -0,0 +1,34 @@
+package controller.commandfunctions;
+
+import java.util.Scanner;
+import java.util.function.Function;
+
+import controller.command.BoxBlurCommand;
+import controller.command.Command;
+
+/**
+ * Function class for the box-blur command.
+ */
+public class BoxBlurCommandFunc implements Function<Scanner, Command> {
+
+  /**
+   * Applies this function to the given argument.
+   *
+   * @param scanner the function argument
+   * @return the function result
+   */
+  @Override
+  public Command apply(Scanner scanner) {
+
+    try {
+      int radius = scanner.nextInt();
+      String imageName = scanner.next();
+      String destImageName = scanner.next();
+      return new BoxBlurCommand(radius, imageName, destImageName);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("box-blur command expected radius, image-name," +
+              " and dest-image-name as the arguments but didn't receive them!");
+    }
+  }
+
+}
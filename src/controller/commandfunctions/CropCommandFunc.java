@@ -0,0 +1,37 @@
+package controller.commandfunctions;
+
+import java.util.Scanner;
+import java.util.function.Function;
+
+import controller.command.Command;
+import controller.command.CropCommand;
+
+/**
+ * Function class for the crop command.
+ */
+public class CropCommandFunc implements Function<Scanner, Command> {
+
+  /**
+   * Applies this function to the given argument.
+   *
+   * @param scanner the function argument
+   * @return the function result
+   */
+  @Override
+  public Command apply(Scanner scanner) {
+
+    try {
+      int col = scanner.nextInt();
+      int row = scanner.nextInt();
+      int width = scanner.nextInt();
+      int height = scanner.nextInt();
+      String imageName = scanner.next();
+      String destImageName = scanner.next();
+      return new CropCommand(col, row, width, height, imageName, destImageName);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("crop command expected x, y, width, height, " +
+              "image-name, and dest-image-name as the arguments but didn't receive them!");
+    }
+  }
+
+}
@@ -0,0 +1,34 @@
+package controller.commandfunctions;
+
+import java.util.Scanner;
+import java.util.function.Function;
+
+import controller.command.GaussianBlurCommand;
+import controller.command.Command;
+
+/**
+ * Function class for the gaussian-blur command.
+ */
+public class GaussianBlurCommandFunc implements Function<Scanner, Command> {
+
+  /**
+   * Applies this function to the given argument.
+   *
+   * @param scanner the function argument
+   * @return the function result
+   */
+  @Override
+  public Command apply(Scanner scanner) {
+
+    try {
+      double sigma = Double.parseDouble(scanner.next());
+      String imageName = scanner.next();
+      String destImageName = scanner.next();
+      return new GaussianBlurCommand(sigma, imageName, destImageName);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("gaussian-blur command expected sigma, image-name," +
+              " and dest-image-name as the arguments but didn't receive them!");
+    }
+  }
+
+}
@@ -0,0 +1,34 @@
+package controller.commandfunctions;
+
+import java.util.Scanner;
+import java.util.function.Function;
+
+import controller.command.MedianCommand;
+import controller.command.Command;
+
+/**
+ * Function class for the median command.
+ */
+public class MedianCommandFunc implements Function<Scanner, Command> {
+
+  /**
+   * Applies this function to the given argument.
+   *
+   * @param scanner the function argument
+   * @return the function result
+   */
+  @Override
+  public Command apply(Scanner scanner) {
+
+    try {
+      int radius = scanner.nextInt();
+      String imageName = scanner.next();
+      String destImageName = scanner.next();
+      return new MedianCommand(radius, imageName, destImageName);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("median command expected radius, image-name," +
+              " and dest-image-name as the arguments but didn't receive them!");
+    }
+  }
+
+}
@@ -0,0 +1,46 @@
+package controller.commandfunctions;
+
+import java.util.Scanner;
+import java.util.function.Function;
+
+import controller.command.Command;
+import controller.command.MorphologyCommand;
+
+/**
+ * Function class for the erode, dilate, open and close commands.
+ */
+public class MorphologyCommandFunc implements Function<Scanner, Command> {
+
+  private String operation;
+
+  /**
+   * Constructor to initialize the morphological operation of the command.
+   *
+   * @param operation the operation (erode, dilate, open or close).
+   */
+  public MorphologyCommandFunc(String operation) {
+    this.operation = operation;
+  }
+
+  /**
+   * Applies this function to the given argument.
+   *
+   * @param scanner the function argument
+   * @return the function result
+   */
+  @Override
+  public Command apply(Scanner scanner) {
+
+    try {
+      int width = scanner.nextInt();
+      int height = scanner.nextInt();
+      String imageName = scanner.next();
+      String destImageName = scanner.next();
+      return new MorphologyCommand(this.operation, width, height, imageName, destImageName);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(this.operation + " command expected width, height, " +
+              "image-name, and dest-image-name as the arguments but didn't receive them!");
+    }
+  }
+
+}
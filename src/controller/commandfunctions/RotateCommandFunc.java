@@ -0,0 +1,34 @@
+package controller.commandfunctions;
+
+import java.util.Scanner;
+import java.util.function.Function;
+
+import controller.command.Command;
+import controller.command.RotateCommand;
+
+/**
+ * Function class for the rotate command.
+ */
+public class RotateCommandFunc implements Function<Scanner, Command> {
+
+  /**
+   * Applies this function to the given argument.
+   *
+   * @param scanner the function argument
+   * @return the function result
+   */
+  @Override
+  public Command apply(Scanner scanner) {
+
+    try {
+      int degrees = scanner.nextInt();
+      String imageName = scanner.next();
+      String destImageName = scanner.next();
+      return new RotateCommand(degrees, imageName, destImageName);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("rotate command expected degrees, image-name," +
+              " and dest-image-name as the arguments but didn't receive them!");
+    }
+  }
+
+}
@@ -0,0 +1,236 @@
+package model;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Abstract class that holds the parts shared by the images that store their pixels in primitive
+ * arrays instead of pixel objects. Every channel of these images has 8 bits unless the subclass
+ * overrides {@link #getMaxValue()}. Flips, rotations and crops return a {@link GeometricView}
+ * over the image instead of copying its pixels, unless the subclass overrides them.
+ */
+public abstract class AbstractImage implements Image {
+  protected static final int MAX_VALUE = 255;
+  static final double RED_LUMA_FACTOR = 0.2126;
+  static final double GREEN_LUMA_FACTOR = 0.7152;
+  static final double BLUE_LUMA_FACTOR = 0.0722;
+
+  protected final int width;
+  protected final int height;
+
+  /**
+   * Constructor for initialising the size of an image.
+   *
+   * @param width of the image
+   * @param height of the image
+   * @throws IllegalArgumentException if the width or height are invalid
+   */
+  protected AbstractImage(int width, int height) throws IllegalArgumentException {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("Invalid size of image!");
+    }
+
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * Gets the width of the image.
+   *
+   * @return the width of the image
+   */
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  /**
+   * Gets the height of the image.
+   *
+   * @return the height of the image
+   */
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * Gets the max value that any channel of the image can be.
+   *
+   * @return the max value of a channel
+   */
+  @Override
+  public int getMaxValue() {
+    return MAX_VALUE;
+  }
+
+  /**
+   * Flips the image vertically without copying its pixels.
+   */
+  @Override
+  public Image flipVertical() {
+    return new GeometricView(this).flipVertical();
+  }
+
+  /**
+   * Flips the image horizontally without copying its pixels.
+   */
+  @Override
+  public Image flipHorizontal() {
+    return new GeometricView(this).flipHorizontal();
+  }
+
+  /**
+   * Rotates the image clockwise by the given number of degrees without copying its pixels.
+   *
+   * @param degrees the number of degrees to rotate by (90, 180 or 270)
+   * @return the rotated image
+   * @throws IllegalArgumentException if the number of degrees is invalid
+   */
+  @Override
+  public Image rotate(int degrees) throws IllegalArgumentException {
+    return new GeometricView(this).rotate(degrees);
+  }
+
+  /**
+   * Crops the image to the given region without copying its pixels.
+   *
+   * @param col the column of the top left pixel of the region
+   * @param row the row of the top left pixel of the region
+   * @param width the width of the region
+   * @param height the height of the region
+   * @return the cropped image
+   * @throws IllegalArgumentException if the region is not inside the image
+   */
+  @Override
+  public Image crop(int col, int row, int width, int height) throws IllegalArgumentException {
+    return new GeometricView(this).crop(col, row, width, height);
+  }
+
+  /**
+   * Checks that the given position and channel are inside the image.
+   *
+   * @param col the column of the pixel
+   * @param row the row of the pixel
+   * @param channel the index of the channel
+   * @throws IllegalArgumentException if the position or the channel are invalid
+   */
+  protected void checkPosition(int col, int row, int channel) throws IllegalArgumentException {
+    if (col < 0 || col >= this.width || row < 0 || row >= this.height) {
+      throw new IllegalArgumentException("Invalid position of pixel!");
+    }
+
+    if (channel < 0 || channel > 2) {
+      throw new IllegalArgumentException("Invalid channel!");
+    }
+  }
+
+  /**
+   * Checks that the given greyscale method is valid.
+   *
+   * @param method the greyscale method
+   * @throws IllegalArgumentException if the method is invalid
+   */
+  protected static void checkGreyMethod(String method) throws IllegalArgumentException {
+    switch (method) {
+      case "red":
+      case "green":
+      case "blue":
+      case "value":
+      case "intensity":
+      case "luma":
+        return;
+      default:
+        throw new IllegalArgumentException("Invalid method provided!");
+    }
+  }
+
+  /**
+   * Checks that the given histogram component is valid.
+   *
+   * @param component the histogram component
+   * @throws IllegalArgumentException if the component is invalid
+   */
+  protected static void checkHistogramComponent(String component)
+          throws IllegalArgumentException {
+    if (!(component.equals("red") || component.equals("green") || component.equals("blue") ||
+            component.equals("intensity"))) {
+      throw new IllegalArgumentException("Invalid component provided");
+    }
+  }
+
+  /**
+   * Gets the grey value of the given channel values using the method given.
+   *
+   * @param method to use for the grey value
+   * @param red the red value
+   * @param green the green value
+   * @param blue the blue value
+   * @return the grey value
+   * @throws IllegalArgumentException if the method is invalid
+   */
+  protected static int getGreyValue(String method, int red, int green, int blue)
+          throws IllegalArgumentException {
+    switch (method) {
+      case "red":
+        return red;
+      case "green":
+        return green;
+      case "blue":
+        return blue;
+      case "value":
+        return Math.max(red, Math.max(green, blue));
+      case "intensity":
+        return (red + green + blue) / 3;
+      case "luma":
+        return (int) (red * RED_LUMA_FACTOR + green * GREEN_LUMA_FACTOR
+                + blue * BLUE_LUMA_FACTOR);
+      default:
+        throw new IllegalArgumentException("Invalid method provided!");
+    }
+  }
+
+  /**
+   * Clamps the given value between 0 and the max value of a channel.
+   *
+   * @param value the value to clamp
+   * @return the clamped value
+   */
+  protected static int clamp(int value) {
+    if (value < 0) {
+      return 0;
+    } else if (value > MAX_VALUE) {
+      return MAX_VALUE;
+    } else {
+      return value;
+    }
+  }
+
+  /**
+   * Gets the array that holds the pixels of the given buffered image, so that its rows can be
+   * filled in directly. The image must be of the type TYPE_INT_RGB, whose pixels are stored as
+   * 0xRRGGBB row by row.
+   *
+   * @param img the buffered image
+   * @return the pixels of the buffered image
+   */
+  protected static int[] dataOf(BufferedImage img) {
+    return ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+  }
+
+  /**
+   * Converts the given counts into a histogram.
+   *
+   * @param counts the number of pixels for every value
+   * @return the histogram
+   */
+  protected static Map<Integer, Integer> toHistogram(int[] counts) {
+    Map<Integer, Integer> histogram = new HashMap<Integer, Integer>();
+    for (int i = 0; i < counts.length; i++) {
+      histogram.put(i, counts[i]);
+    }
+    return histogram;
+  }
+}
@@ -0,0 +1,182 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Class that holds the blur used by box and Gaussian filters. The channel is blurred with one
+ * or more box passes along the rows and then along the columns, and every pass keeps a running
+ * sum of the values under the box, so the cost per pixel does not depend on the size of the
+ * boxes. The sums of whole numbers are kept exact and are only divided by the area of the
+ * kernel at the end, so blurring an image where every value is the same gives that value back.
+ */
+final class BoxBlur {
+  private static final int STRIP_WIDTH = 64;
+
+  private BoxBlur() {
+  }
+
+  /**
+   * Blurs the given plane with the given boxes. Values outside the image are treated as 0, so
+   * the result is the same as a single kernel that is the convolution of all the boxes.
+   *
+   * @param radii the radius of every box pass.
+   * @param plane the values of the channel in row-major order.
+   * @param result the array to write the blurred values into in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param maxValue the maxValue that any pixel can be.
+   */
+  static void blur(int[] radii, int[] plane, int[] result, int width, int height, int maxValue) {
+    int margin = margin(radii);
+    double area = 1;
+    for (int radius : radii) {
+      area *= (2.0 * radius + 1) * (2.0 * radius + 1);
+    }
+    double kernelArea = area;
+    double[] horizontal = new double[width * height];
+
+    Parallel.forEachBand(height, (fromRow, toRow) -> {
+      double[] line = new double[width + 2 * margin];
+      double[] other = new double[width + 2 * margin];
+      for (int y = fromRow; y < toRow; y++) {
+        Arrays.fill(line, 0);
+        for (int x = 0; x < width; x++) {
+          line[margin + x] = plane[y * width + x];
+        }
+        double[] blurred = passes(line, other, width, 1, radii);
+        System.arraycopy(blurred, margin, horizontal, y * width, width);
+      }
+    });
+
+    // The columns are blurred in strips, so every pass runs along contiguous rows of the strip.
+    int strips = (width + STRIP_WIDTH - 1) / STRIP_WIDTH;
+    Parallel.forEachBand(strips, (fromStrip, toStrip) -> {
+      double[] column = new double[(height + 2 * margin) * STRIP_WIDTH];
+      double[] other = new double[(height + 2 * margin) * STRIP_WIDTH];
+      for (int strip = fromStrip; strip < toStrip; strip++) {
+        int fromX = strip * STRIP_WIDTH;
+        int stripWidth = Math.min(STRIP_WIDTH, width - fromX);
+        Arrays.fill(column, 0);
+        for (int y = 0; y < height; y++) {
+          System.arraycopy(horizontal, y * width + fromX, column, (margin + y) * stripWidth,
+                  stripWidth);
+        }
+        double[] blurred = passes(column, other, height, stripWidth, radii);
+        for (int y = 0; y < height; y++) {
+          int start = (margin + y) * stripWidth;
+          for (int x = 0; x < stripWidth; x++) {
+            result[y * width + fromX + x] =
+                    Convolution.clampValue(blurred[start + x] / kernelArea, maxValue);
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Gets the value of a single pixel after blurring it with the given boxes.
+   *
+   * @param radii the radius of every box pass.
+   * @param pixels the pixels around the pixel, indexed by column offset and then row offset.
+   * @param maxValue the maxValue that any pixel can be.
+   * @return the blurred value of the pixel.
+   */
+  static int blurredValue(int[] radii, int[][] pixels, int maxValue) {
+    double[] weights = {1};
+    double area = 1;
+    for (int radius : radii) {
+      double[] next = new double[weights.length + 2 * radius];
+      for (int i = 0; i < weights.length; i++) {
+        for (int k = 0; k <= 2 * radius; k++) {
+          next[i + k] += weights[i];
+        }
+      }
+      weights = next;
+      area *= (2.0 * radius + 1) * (2.0 * radius + 1);
+    }
+
+    double value = 0;
+    for (int i = 0; i < weights.length; i++) {
+      for (int j = 0; j < weights.length; j++) {
+        value += weights[i] * weights[j] * pixels[i][j];
+      }
+    }
+    return Convolution.clampValue(value / area, maxValue);
+  }
+
+  /**
+   * Gets the distance that the given boxes spread a value by, which is half the size of the
+   * kernel.
+   *
+   * @param radii the radius of every box pass.
+   * @return the sum of the radii.
+   */
+  static int margin(int[] radii) {
+    int margin = 0;
+    for (int radius : radii) {
+      margin += radius;
+    }
+    return margin;
+  }
+
+  /**
+   * Runs every box pass along a line of groups of values. The line holds length groups with a
+   * border of margin zero groups on both sides, and every group holds stride values that are
+   * summed independently. Each pass sums over the part of the line that the later passes still
+   * read, so no value outside the image is lost.
+   *
+   * @param line the values of the line, which are overwritten.
+   * @param other a buffer of the same size as the line.
+   * @param length the number of groups in the line, not counting the border.
+   * @param stride the number of values in a group.
+   * @param radii the radius of every box pass.
+   * @return the array holding the result of the last pass.
+   */
+  private static double[] passes(double[] line, double[] other, int length, int stride,
+                                 int[] radii) {
+    int margin = margin(radii);
+    int remaining = margin;
+    double[] from = line;
+    double[] to = other;
+    for (int radius : radii) {
+      remaining -= radius;
+      slide(from, to, margin - remaining, margin + length + remaining, stride, radius);
+      double[] swap = from;
+      from = to;
+      to = swap;
+    }
+    return from;
+  }
+
+  /**
+   * Writes the sum of every box of groups whose centre lies in the given range, moving the box
+   * one group at a time by adding the group that enters it and subtracting the one that leaves.
+   *
+   * @param in the groups to sum.
+   * @param out the array to write the sums into.
+   * @param start the index of the first group to write.
+   * @param end the index after the last group to write.
+   * @param stride the number of values in a group.
+   * @param radius the radius of the box.
+   */
+  private static void slide(double[] in, double[] out, int start, int end, int stride,
+                            int radius) {
+    double[] sums = new double[stride];
+    for (int k = start - radius; k <= start + radius; k++) {
+      for (int c = 0; c < stride; c++) {
+        sums[c] += in[k * stride + c];
+      }
+    }
+
+    for (int p = start; p < end; p++) {
+      System.arraycopy(sums, 0, out, p * stride, stride);
+      if (p + 1 < end) {
+        int entering = (p + radius + 1) * stride;
+        int leaving = (p - radius) * stride;
+        for (int c = 0; c < stride; c++) {
+          sums[c] += in[entering + c] - in[leaving + c];
+        }
+      }
+    }
+  }
+}
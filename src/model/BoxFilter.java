@@ -0,0 +1,66 @@
+package model;
+
+/**
+ * Class for a filter that replaces every value with the mean of the square of values around it.
+ * The filter is applied with running sums, so its cost per pixel does not depend on its radius.
+ */
+public class BoxFilter implements IFilter {
+  private final int[] radii;
+
+  /**
+   * Constructor that initializes the filter with the given radius.
+   *
+   * @param radius the number of pixels on each side of the centre of the square.
+   * @throws IllegalArgumentException if the radius is negative.
+   */
+  public BoxFilter(int radius) throws IllegalArgumentException {
+    if (radius < 0) {
+      throw new IllegalArgumentException("Radius must not be negative!");
+    }
+
+    this.radii = new int[]{radius};
+  }
+
+  /**
+   * Gets the size of the filter.
+   *
+   * @return the size.
+   */
+  @Override
+  public int getSize() {
+    return 2 * this.radii[0] + 1;
+  }
+
+  /**
+   * Gets the value of the pixel after the filter has been applied to it.
+   *
+   * @param pixels the pixels to which the filter has to applied.
+   * @param maxValue the maxValue that any pixel can be.
+   * @return the value of the pixel after the filter has been applied to it.
+   * @throws IllegalArgumentException if the pixels are not the same size as the filter.
+   */
+  @Override
+  public int filteredValue(int[][] pixels, int maxValue) throws IllegalArgumentException {
+    if (pixels.length != this.getSize() || pixels[0].length != this.getSize()) {
+      throw new IllegalArgumentException("Values array provided is not the same size as the " +
+              "kernel!");
+    }
+
+    return BoxBlur.blurredValue(this.radii, pixels, maxValue);
+  }
+
+  /**
+   * Applies the filter to every value of a single channel of an image. Values outside the
+   * image are treated as 0.
+   *
+   * @param plane the values of the channel in row-major order.
+   * @param result the array to write the filtered values into in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param maxValue the maxValue that any pixel can be.
+   */
+  @Override
+  public void filterPlane(int[] plane, int[] result, int width, int height, int maxValue) {
+    BoxBlur.blur(this.radii, plane, result, width, height, maxValue);
+  }
+}
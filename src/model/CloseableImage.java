@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * Interface that represents an image that holds memory outside of the Java heap, which must be
+ * released by closing the image once it is no longer needed.
+ */
+public interface CloseableImage extends Image, AutoCloseable {
+
+  /**
+   * Releases the memory held by the image. The image cannot be used after it is closed.
+   */
+  @Override
+  void close();
+
+  /**
+   * Checks if the image has been closed.
+   *
+   * @return true if the image has been closed
+   */
+  boolean isClosed();
+}
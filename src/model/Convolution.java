@@ -0,0 +1,226 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Class that holds the convolution used by filters to filter a whole channel of an image at
+ * once. The channel is copied into a buffer with a border of zeros around it, so the kernel can
+ * be slid over the buffer without checking the edges of the image and without creating an array
+ * for every pixel. The sums of a whole row are built up one kernel weight at a time, so the
+ * inner loops run over contiguous doubles and can be vectorized by the JIT compiler.
+ */
+final class Convolution {
+
+  private Convolution() {
+  }
+
+  /**
+   * Convolves the given plane with the given kernel. The kernel is given row by row of the
+   * original kernel, where the first index of the original kernel is the column offset and the
+   * second index is the row offset. The products are added up in the same order as
+   * {@link Filter#filteredValue(int[][], int)}, so the results are the same.
+   *
+   * @param kernel the flattened kernel.
+   * @param size the size of the kernel.
+   * @param plane the values of the channel in row-major order.
+   * @param result the array to write the filtered values into in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param maxValue the maxValue that any pixel can be.
+   */
+  static void convolve(double[] kernel, int size, int[] plane, int[] result, int width,
+                       int height, int maxValue) {
+    int half = size / 2;
+    int paddedWidth = width + 2 * half;
+    double[] padded = pad(plane, width, height, half);
+
+    Parallel.forEachBand(height, (fromRow, toRow) -> {
+      double[] sums = new double[width];
+      for (int y = fromRow; y < toRow; y++) {
+        Arrays.fill(sums, 0);
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+          for (int j = 0; j < size; j++) {
+            accumulate(sums, kernel[k++], padded, (y + j) * paddedWidth + i, width);
+          }
+        }
+        clampRow(sums, result, y * width, width, maxValue);
+      }
+    });
+  }
+
+  /**
+   * Convolves the given plane with a kernel of 16.16 fixed point weights, using only int
+   * arithmetic. The kernel is laid out like the kernel of
+   * {@link #convolve(double[], int, int[], int[], int, int, int)}, and the sums are rounded as
+   * described in {@link FixedPoint}.
+   *
+   * @param kernel the flattened fixed point kernel.
+   * @param size the size of the kernel.
+   * @param plane the values of the channel in row-major order.
+   * @param result the array to write the filtered values into in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param maxValue the maxValue that any pixel can be.
+   */
+  static void convolveFixed(int[] kernel, int size, int[] plane, int[] result, int width,
+                            int height, int maxValue) {
+    int half = size / 2;
+    int paddedWidth = width + 2 * half;
+    int[] padded = new int[paddedWidth * (height + 2 * half)];
+    for (int y = 0; y < height; y++) {
+      System.arraycopy(plane, y * width, padded, (y + half) * paddedWidth + half, width);
+    }
+
+    Parallel.forEachBand(height, (fromRow, toRow) -> {
+      int[] sums = new int[width];
+      for (int y = fromRow; y < toRow; y++) {
+        Arrays.fill(sums, 0);
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+          for (int j = 0; j < size; j++) {
+            int weight = kernel[k++];
+            int start = (y + j) * paddedWidth + i;
+            for (int x = 0; x < width; x++) {
+              sums[x] += weight * padded[start + x];
+            }
+          }
+        }
+        for (int x = 0; x < width; x++) {
+          result[y * width + x] = FixedPoint.toValue(sums[x], maxValue);
+        }
+      }
+    });
+  }
+
+  /**
+   * Convolves the given plane with a separable kernel, that is a kernel whose value at column
+   * offset i and row offset j is columnKernel[i] * rowKernel[j]. The plane is first convolved
+   * along every row with the column kernel, and the result is then convolved along every column
+   * with the row kernel, so every pixel takes 2 * size products instead of size * size. The
+   * intermediate values are kept as doubles and are only clamped at the end.
+   *
+   * @param columnKernel the weights of the kernel along a row of the image.
+   * @param rowKernel the weights of the kernel along a column of the image.
+   * @param plane the values of the channel in row-major order.
+   * @param result the array to write the filtered values into in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param maxValue the maxValue that any pixel can be.
+   */
+  static void convolveSeparable(double[] columnKernel, double[] rowKernel, int[] plane,
+                                int[] result, int width, int height, int maxValue) {
+    int size = columnKernel.length;
+    int half = size / 2;
+    double[] horizontal = new double[width * (height + 2 * half)];
+
+    Parallel.forEachBand(height, (fromRow, toRow) -> {
+      double[] row = new double[width + 2 * half];
+      for (int y = fromRow; y < toRow; y++) {
+        for (int x = 0; x < width; x++) {
+          row[half + x] = plane[y * width + x];
+        }
+        int start = (y + half) * width;
+        for (int i = 0; i < size; i++) {
+          accumulate(horizontal, columnKernel[i], row, i, start, width);
+        }
+      }
+    });
+
+    Parallel.forEachBand(height, (fromRow, toRow) -> {
+      double[] sums = new double[width];
+      for (int y = fromRow; y < toRow; y++) {
+        Arrays.fill(sums, 0);
+        for (int j = 0; j < size; j++) {
+          accumulate(sums, rowKernel[j], horizontal, (y + j) * width, width);
+        }
+        clampRow(sums, result, y * width, width, maxValue);
+      }
+    });
+  }
+
+  /**
+   * Adds the given weight times a run of the given values to the given sums. The loop has no
+   * branches and no conversions, so the JIT compiler can turn it into vector instructions. Each
+   * sum gets one product added, so the order in which the products of a pixel are added does not
+   * change.
+   *
+   * @param sums the sums to add to, starting at index 0.
+   * @param weight the weight of the values.
+   * @param values the values to multiply by the weight.
+   * @param from the index of the first value.
+   * @param length the number of sums.
+   */
+  private static void accumulate(double[] sums, double weight, double[] values, int from,
+                                 int length) {
+    accumulate(sums, weight, values, from, 0, length);
+  }
+
+  /**
+   * Adds the given weight times a run of the given values to a run of the given sums.
+   *
+   * @param sums the sums to add to.
+   * @param weight the weight of the values.
+   * @param values the values to multiply by the weight.
+   * @param from the index of the first value.
+   * @param start the index of the first sum.
+   * @param length the number of sums.
+   */
+  private static void accumulate(double[] sums, double weight, double[] values, int from,
+                                 int start, int length) {
+    for (int x = 0; x < length; x++) {
+      sums[start + x] += weight * values[from + x];
+    }
+  }
+
+  /**
+   * Clamps a row of filtered values into the given result.
+   *
+   * @param sums the filtered values of the row.
+   * @param result the array to write the clamped values into.
+   * @param start the index in the result of the first value of the row.
+   * @param length the number of values in the row.
+   * @param maxValue the maxValue that any pixel can be.
+   */
+  private static void clampRow(double[] sums, int[] result, int start, int length,
+                               int maxValue) {
+    for (int x = 0; x < length; x++) {
+      result[start + x] = clampValue(sums[x], maxValue);
+    }
+  }
+
+  /**
+   * Copies the given plane into a new plane with a border of zeros of the given size.
+   *
+   * @param plane the values of the channel in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param border the size of the border.
+   * @return the padded plane in row-major order, as doubles so the products need no conversion.
+   */
+  static double[] pad(int[] plane, int width, int height, int border) {
+    int paddedWidth = width + 2 * border;
+    double[] padded = new double[paddedWidth * (height + 2 * border)];
+    for (int y = 0; y < height; y++) {
+      int start = (y + border) * paddedWidth + border;
+      for (int x = 0; x < width; x++) {
+        padded[start + x] = plane[y * width + x];
+      }
+    }
+    return padded;
+  }
+
+  /**
+   * Clamps the given filtered value between 0 and the given max value. Values inside the
+   * range are rounded towards zero. The value is converted to an int first, which gives the
+   * same result, and is then clamped with int min and max rather than with branches or double
+   * min and max, so rows of values can be clamped with vector instructions.
+   *
+   * @param value the filtered value.
+   * @param maxValue the maxValue that any pixel can be.
+   * @return the clamped value.
+   */
+  static int clampValue(double value, int maxValue) {
+    return Math.min(Math.max((int) value, 0), maxValue);
+  }
+}
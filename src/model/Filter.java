@@ -4,9 +4,16 @@ package model;
  * Interface that represents the operations offered by the filter that is applied to a pixel.
  */
 public class Filter implements IFilter {
+  private static final int FOURIER_MIN_SIZE = 17;
 
   private final int size;
   private final double[][] kernel;
+  private final double[] flatKernel;
+  private final int[] fixedKernel;
+  private final double[] columnKernel;
+  private final double[] rowKernel;
+  private final double separableLimit;
+  private volatile FourierConvolution fourier;
 
   /**
    * Constructor that initializes the filter with the given kernel.
@@ -25,6 +32,37 @@ public class Filter implements IFilter {
 
     this.size = kernel.length;
     this.kernel = kernel;
+    this.flatKernel = new double[this.size * this.size];
+    for (int i = 0; i < this.size; i++) {
+      if (kernel[i].length != this.size) {
+        throw new IllegalArgumentException("Kernels must be square!");
+      }
+      for (int j = 0; j < this.size; j++) {
+        this.flatKernel[i * this.size + j] = kernel[i][j];
+      }
+    }
+
+    this.fixedKernel = FixedPoint.toFixed(this.flatKernel);
+
+    double[][] factors = separate(kernel);
+    this.columnKernel = factors == null ? null : factors[0];
+    this.rowKernel = factors == null ? null : factors[1];
+    this.separableLimit = factors == null ? 0 : exactLimit(this.columnKernel, this.rowKernel);
+  }
+
+  /**
+   * Checks if this filter is applied to images with the given max value with two one dimensional
+   * passes. This is the case when its kernel is exactly the outer product of a column kernel and
+   * a row kernel whose weights are multiples of powers of two, such as 1/16, and the values of
+   * the image are small enough that no sum of either pass is rounded. The two passes then give
+   * exactly the values of {@link #filteredValue}, even though they add the products in another
+   * order.
+   *
+   * @param maxValue the maxValue that any pixel can be.
+   * @return true if the filter is applied with two passes.
+   */
+  public boolean isSeparable(int maxValue) {
+    return maxValue < this.separableLimit;
   }
 
   /**
@@ -58,12 +96,176 @@ public class Filter implements IFilter {
         value += this.kernel[i][j] * (double) pixels[i][j];
       }
     }
-    if (value <= 0) {
-      return 0;
-    } else if (value > maxValue) {
-      return maxValue;
+    return Convolution.clampValue(value, maxValue);
+  }
+
+  /**
+   * Applies the filter to every value of a single channel of an image. Values outside the
+   * image are treated as 0. Filters that split exactly, as checked by {@link #isSeparable}, are
+   * applied with two one dimensional passes, which give the exact values whether or not fixed
+   * point arithmetic is turned on. Other filters of at least FOURIER_MIN_SIZE are applied with
+   * Fourier transforms, which is faster than sliding a large kernel over the image. The
+   * remaining filters use the fixed point arithmetic of {@link FixedPoint} for images with 8
+   * bits per channel.
+   *
+   * @param plane the values of the channel in row-major order.
+   * @param result the array to write the filtered values into in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param maxValue the maxValue that any pixel can be.
+   */
+  @Override
+  public void filterPlane(int[] plane, int[] result, int width, int height, int maxValue) {
+    if (this.isSeparable(maxValue)) {
+      Convolution.convolveSeparable(this.columnKernel, this.rowKernel, plane, result, width,
+              height, maxValue);
+    } else if (this.size >= FOURIER_MIN_SIZE) {
+      this.getFourier().convolve(plane, result, width, height, maxValue);
+    } else if (this.fixedKernel != null && FixedPoint.applies(maxValue)) {
+      Convolution.convolveFixed(this.fixedKernel, this.size, plane, result, width, height,
+              maxValue);
+      if (FixedPoint.isVerifying()) {
+        int[] exact = new int[width * height];
+        Convolution.convolve(this.flatKernel, this.size, plane, exact, width, height, maxValue);
+        FixedPoint.record(result, exact, exact.length);
+      }
     } else {
-      return (int) value;
+      Convolution.convolve(this.flatKernel, this.size, plane, result, width, height, maxValue);
+    }
+  }
+
+  /**
+   * Gets the Fourier convolution of this filter, transforming the kernel the first time it is
+   * needed.
+   *
+   * @return the Fourier convolution.
+   */
+  private FourierConvolution getFourier() {
+    if (this.fourier == null) {
+      this.fourier = new FourierConvolution(this.kernel);
+    }
+    return this.fourier;
+  }
+
+  /**
+   * Splits the given kernel into a column kernel and a row kernel whose outer product is the
+   * kernel, if there are such kernels. The largest value of the kernel is used as the pivot:
+   * the column kernel is the column of the pivot and the row kernel is the row of the pivot
+   * divided by the pivot. The kernel is also split with the row of the pivot divided by its
+   * smallest value that is not 0 instead, which turns the row of a kernel such as a binomial
+   * blur into whole numbers. Of the two splits, the one that is exact for the largest values is
+   * used. A split is only used if every value of the kernel is exactly the product of the two
+   * kernels.
+   *
+   * @param kernel the kernel, indexed by column offset and then row offset.
+   * @return the column kernel and the row kernel, or null if the kernel is not separable.
+   */
+  private static double[][] separate(double[][] kernel) {
+    int size = kernel.length;
+    int pivotI = 0;
+    int pivotJ = 0;
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (Math.abs(kernel[i][j]) > Math.abs(kernel[pivotI][pivotJ])) {
+          pivotI = i;
+          pivotJ = j;
+        }
+      }
+    }
+
+    double pivot = kernel[pivotI][pivotJ];
+    if (pivot == 0 || Double.isNaN(pivot) || Double.isInfinite(pivot)) {
+      return null;
+    }
+
+    double[] columnKernel = new double[size];
+    double[] rowKernel = new double[size];
+    double smallest = Math.abs(pivot);
+    for (int k = 0; k < size; k++) {
+      columnKernel[k] = kernel[k][pivotJ];
+      rowKernel[k] = kernel[pivotI][k] / pivot;
+      if (kernel[pivotI][k] != 0) {
+        smallest = Math.min(smallest, Math.abs(kernel[pivotI][k]));
+      }
+    }
+
+    double[] scaledColumn = new double[size];
+    double[] scaledRow = new double[size];
+    for (int k = 0; k < size; k++) {
+      scaledColumn[k] = kernel[k][pivotJ] / (pivot / smallest);
+      scaledRow[k] = kernel[pivotI][k] / smallest;
+    }
+
+    boolean pivotExact = isProduct(kernel, columnKernel, rowKernel);
+    if (isProduct(kernel, scaledColumn, scaledRow) && (!pivotExact
+            || exactLimit(scaledColumn, scaledRow) > exactLimit(columnKernel, rowKernel))) {
+      return new double[][]{scaledColumn, scaledRow};
+    }
+    return pivotExact ? new double[][]{columnKernel, rowKernel} : null;
+  }
+
+  /**
+   * Checks if every value of the given kernel is exactly the product of the matching weights of
+   * the given column kernel and row kernel.
+   *
+   * @param kernel the kernel, indexed by column offset and then row offset.
+   * @param columnKernel the column kernel.
+   * @param rowKernel the row kernel.
+   * @return true if the kernel is the outer product of the two kernels.
+   */
+  private static boolean isProduct(double[][] kernel, double[] columnKernel,
+                                   double[] rowKernel) {
+    for (int i = 0; i < kernel.length; i++) {
+      for (int j = 0; j < kernel.length; j++) {
+        if (kernel[i][j] != columnKernel[i] * rowKernel[j]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the max value below which the two passes of a split kernel compute every sum without
+   * rounding. Every product of a weight of the column kernel, a weight of the row kernel and a
+   * value is a multiple of the same power of two, so every sum of the kernel or of the two
+   * passes is exact as long as it stays below 2^53 times that power of two.
+   *
+   * @param columnKernel the column kernel.
+   * @param rowKernel the row kernel.
+   * @return the max value, which is 0 if the weights are not multiples of a power of two that a
+   *         double can hold.
+   */
+  private static double exactLimit(double[] columnKernel, double[] rowKernel) {
+    int bits = 0;
+    double columnSum = 0;
+    double rowSum = 0;
+    for (double weight : columnKernel) {
+      bits = Math.max(bits, fractionBits(weight));
+      columnSum += Math.abs(weight);
+    }
+    int columnBits = bits;
+    bits = 0;
+    for (double weight : rowKernel) {
+      bits = Math.max(bits, fractionBits(weight));
+      rowSum += Math.abs(weight);
+    }
+
+    return Math.scalb(1.0, 53 - columnBits - bits) / (columnSum * rowSum);
+  }
+
+  /**
+   * Gets the number of binary digits after the point of the given value, which is the smallest
+   * n such that the value times 2^n is an integer.
+   *
+   * @param value the value.
+   * @return the number of binary digits after the point.
+   */
+  private static int fractionBits(double value) {
+    if (value == 0) {
+      return 0;
     }
+    long mantissa = (Double.doubleToRawLongBits(value) & ((1L << 52) - 1)) | (1L << 52);
+    return Math.max(0, 52 - Math.getExponent(value) - Long.numberOfTrailingZeros(mantissa));
   }
 }
@@ -0,0 +1,165 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class that holds the integer arithmetic used by filters and transformations on images with 8
+ * bits per channel. Weights are stored as 16.16 fixed point numbers, that is as whole numbers of
+ * 1/65536ths, so a filtered value is a sum of int products and needs no conversion to double.
+ *
+ * <p>The rounding policy is: every weight is rounded to the nearest 1/65536 once, when the
+ * filter or transformation is created. The products are added up exactly. The sum is then
+ * rounded down to a whole number and clamped between 0 and the max value, which for sums that
+ * are not negative is the same as the rounding towards zero of the double arithmetic. The only
+ * difference from the double arithmetic is the rounding of the weights, which moves a value by
+ * at most 255 / 131072 for every weight, so a result can only differ by 1 and only when the
+ * exact value is that close to a whole number. Weights such as 1/16 or 1/4 are exact, so for
+ * those the results are identical.
+ *
+ * <p>The mode is "on" by default. "off" always uses the double arithmetic, and "verify" uses
+ * the integer arithmetic but also computes every value with the double arithmetic and counts
+ * how many values differ, which is reported by {@link #getReport()}.
+ */
+public final class FixedPoint {
+  static final int SHIFT = 16;
+  static final int ONE = 1 << SHIFT;
+  private static final int MAX_CHANNEL_VALUE = 255;
+
+  private static volatile String mode = "on";
+  private static final LongAdder compared = new LongAdder();
+  private static final LongAdder differed = new LongAdder();
+  private static final AtomicInteger largestDifference = new AtomicInteger();
+
+  private FixedPoint() {
+  }
+
+  /**
+   * Sets the mode of the integer arithmetic, which is "on", "off" or "verify". Setting the mode
+   * also clears the counts of the verification.
+   *
+   * @param newMode the mode
+   * @throws IllegalArgumentException if the mode is invalid
+   */
+  public static void setMode(String newMode) throws IllegalArgumentException {
+    if (!(newMode.equals("on") || newMode.equals("off") || newMode.equals("verify"))) {
+      throw new IllegalArgumentException("Invalid fixed point mode provided: " + newMode);
+    }
+
+    mode = newMode;
+    compared.reset();
+    differed.reset();
+    largestDifference.set(0);
+  }
+
+  /**
+   * Gets the mode of the integer arithmetic.
+   *
+   * @return "on", "off" or "verify"
+   */
+  public static String getMode() {
+    return mode;
+  }
+
+  /**
+   * Gets a summary of the values compared in the "verify" mode.
+   *
+   * @return the number of values compared, how many of them differed and by how much at most
+   */
+  public static String getReport() {
+    return "Fixed point check: " + compared.sum() + " values compared, " + differed.sum()
+            + " differed, largest difference " + largestDifference.get();
+  }
+
+  /**
+   * Checks if the integer arithmetic is used for images with the given max value.
+   *
+   * @param maxValue the maxValue that any channel can be
+   * @return true if the integer arithmetic is used
+   */
+  static boolean applies(int maxValue) {
+    return maxValue <= MAX_CHANNEL_VALUE && !mode.equals("off");
+  }
+
+  /**
+   * Checks if the values computed with the integer arithmetic should be compared with the
+   * double arithmetic.
+   *
+   * @return true in the "verify" mode
+   */
+  static boolean isVerifying() {
+    return mode.equals("verify");
+  }
+
+  /**
+   * Rounds the given weights to fixed point numbers. The weights are only converted if the sum
+   * of every weight times the largest channel value fits in an int, so that no sum can
+   * overflow.
+   *
+   * @param weights the weights
+   * @return the fixed point weights, or null if they cannot be used without overflowing
+   */
+  static int[] toFixed(double[] weights) {
+    int[] fixed = new int[weights.length];
+    double bound = 0;
+    for (int i = 0; i < weights.length; i++) {
+      double scaled = Math.rint(weights[i] * ONE);
+      bound += Math.abs(scaled) * MAX_CHANNEL_VALUE;
+      if (Double.isNaN(scaled) || bound >= Integer.MAX_VALUE) {
+        return null;
+      }
+      fixed[i] = (int) scaled;
+    }
+    return fixed;
+  }
+
+  /**
+   * Turns a fixed point sum into a channel value, rounding down and clamping it between 0 and
+   * the given max value.
+   *
+   * @param sum the fixed point sum
+   * @param maxValue the maxValue that any channel can be
+   * @return the channel value
+   */
+  static int toValue(int sum, int maxValue) {
+    return Math.min(Math.max(sum, 0) >> SHIFT, maxValue);
+  }
+
+  /**
+   * Counts a value computed with the integer arithmetic and checks it against the value
+   * computed with the double arithmetic.
+   *
+   * @param fixed the value computed with the integer arithmetic
+   * @param exact the value computed with the double arithmetic
+   */
+  static void record(int fixed, int exact) {
+    compared.increment();
+    if (fixed != exact) {
+      differed.increment();
+      largestDifference.accumulateAndGet(Math.abs(fixed - exact), Math::max);
+    }
+  }
+
+  /**
+   * Counts a run of values computed with the integer arithmetic and checks them against the
+   * values computed with the double arithmetic.
+   *
+   * @param fixed the values computed with the integer arithmetic
+   * @param exact the values computed with the double arithmetic
+   * @param length the number of values
+   */
+  static void record(int[] fixed, int[] exact, int length) {
+    long count = 0;
+    int largest = 0;
+    for (int i = 0; i < length; i++) {
+      if (fixed[i] != exact[i]) {
+        count++;
+        largest = Math.max(largest, Math.abs(fixed[i] - exact[i]));
+      }
+    }
+
+    compared.add(length);
+    differed.add(count);
+    largestDifference.accumulateAndGet(largest, Math::max);
+  }
+}
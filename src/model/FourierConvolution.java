@@ -0,0 +1,250 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Class that holds the convolution used by filters with large kernels. The image is split into
+ * square blocks, every block is convolved with the kernel by multiplying their Fourier
+ * transforms, and the results of neighbouring blocks, which overlap by the size of the kernel,
+ * are added together (overlap-add). The cost per pixel grows with the logarithm of the size of
+ * the kernel instead of with its area.
+ *
+ * <p>Blocks are processed in four phases, one for every combination of even and odd block rows
+ * and block columns. Blocks of the same phase never overlap, so they are processed in parallel,
+ * and every pixel adds up the results of its blocks in the same order whatever the number of
+ * threads.
+ */
+final class FourierConvolution {
+  private static final int MIN_TRANSFORM_SIZE = 64;
+  private static final double SNAP_TOLERANCE = 1e-9;
+
+  private final int size;
+  private final int transformSize;
+  private final int blockSize;
+  private final double kernelWeight;
+  private final double[] cos;
+  private final double[] sin;
+  private final int[] reversed;
+  private final double[] kernelReal;
+  private final double[] kernelImaginary;
+
+  /**
+   * Constructor that transforms the given kernel. The transform size is the smallest power of
+   * two that is at least four times the size of the kernel, so every block holds several times
+   * more pixels than the overlap with its neighbours.
+   *
+   * @param kernel the kernel, indexed by column offset and then row offset.
+   */
+  FourierConvolution(double[][] kernel) {
+    this.size = kernel.length;
+    int n = MIN_TRANSFORM_SIZE;
+    while (n < 4 * this.size) {
+      n <<= 1;
+    }
+    this.transformSize = n;
+    this.blockSize = n - this.size + 1;
+
+    this.cos = new double[n / 2];
+    this.sin = new double[n / 2];
+    for (int k = 0; k < n / 2; k++) {
+      this.cos[k] = Math.cos(2 * Math.PI * k / n);
+      this.sin[k] = Math.sin(2 * Math.PI * k / n);
+    }
+    this.reversed = new int[n];
+    int bits = Integer.numberOfTrailingZeros(n);
+    for (int k = 0; k < n; k++) {
+      this.reversed[k] = Integer.reverse(k) >>> (32 - bits);
+    }
+
+    // The filter weights the pixel at column offset i and row offset j with kernel[i][j], which
+    // is a convolution with the kernel turned by 180 degrees.
+    double weight = 0;
+    this.kernelReal = new double[n * n];
+    this.kernelImaginary = new double[n * n];
+    for (int i = 0; i < this.size; i++) {
+      for (int j = 0; j < this.size; j++) {
+        double value = kernel[this.size - 1 - i][this.size - 1 - j];
+        this.kernelReal[j * n + i] = value;
+        weight += Math.abs(value);
+      }
+    }
+    this.kernelWeight = weight;
+    this.transform(this.kernelReal, this.kernelImaginary, n, false);
+  }
+
+  /**
+   * Convolves the given plane with the kernel. Values outside the image are treated as 0. The
+   * filtered values are clamped like {@link Filter#filteredValue(int[][], int)}, but a value
+   * that is within rounding error of a whole number is first moved onto that number, as the
+   * Fourier transform does not add up the products exactly.
+   *
+   * @param plane the values of the channel in row-major order.
+   * @param result the array to write the filtered values into in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param maxValue the maxValue that any pixel can be.
+   */
+  void convolve(int[] plane, int[] result, int width, int height, int maxValue) {
+    double[] sums = new double[width * height];
+    int blocksAcross = (width + this.blockSize - 1) / this.blockSize;
+    int blocksDown = (height + this.blockSize - 1) / this.blockSize;
+
+    for (int phase = 0; phase < 4; phase++) {
+      int firstColumn = phase % 2;
+      int firstRow = phase / 2;
+      int columns = (blocksAcross - firstColumn + 1) / 2;
+      int rows = (blocksDown - firstRow + 1) / 2;
+      if (columns <= 0 || rows <= 0) {
+        continue;
+      }
+
+      Parallel.forEachBand(columns * rows, (fromBlock, toBlock) -> {
+        double[] real = new double[this.transformSize * this.transformSize];
+        double[] imaginary = new double[this.transformSize * this.transformSize];
+        for (int block = fromBlock; block < toBlock; block++) {
+          int blockX = (firstColumn + 2 * (block % columns)) * this.blockSize;
+          int blockY = (firstRow + 2 * (block / columns)) * this.blockSize;
+          this.convolveBlock(plane, sums, width, height, blockX, blockY, real, imaginary);
+        }
+      });
+    }
+
+    double tolerance = SNAP_TOLERANCE * (this.kernelWeight * maxValue + 1);
+    Parallel.forEachBand(height, (fromRow, toRow) -> {
+      for (int i = fromRow * width; i < toRow * width; i++) {
+        double value = sums[i];
+        double nearest = Math.rint(value);
+        if (Math.abs(value - nearest) <= tolerance) {
+          value = nearest;
+        }
+        result[i] = Convolution.clampValue(value, maxValue);
+      }
+    });
+  }
+
+  /**
+   * Convolves a single block of the plane with the kernel and adds the part of the result that
+   * lies inside the image to the sums.
+   *
+   * @param plane the values of the channel in row-major order.
+   * @param sums the sums of the filtered values in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param blockX the column of the top left pixel of the block.
+   * @param blockY the row of the top left pixel of the block.
+   * @param real the buffer for the real parts of the transform.
+   * @param imaginary the buffer for the imaginary parts of the transform.
+   */
+  private void convolveBlock(int[] plane, double[] sums, int width, int height, int blockX,
+                             int blockY, double[] real, double[] imaginary) {
+    int n = this.transformSize;
+    int half = this.size / 2;
+    int blockWidth = Math.min(this.blockSize, width - blockX);
+    int blockHeight = Math.min(this.blockSize, height - blockY);
+
+    Arrays.fill(real, 0);
+    Arrays.fill(imaginary, 0);
+    for (int y = 0; y < blockHeight; y++) {
+      int start = (blockY + y) * width + blockX;
+      for (int x = 0; x < blockWidth; x++) {
+        real[y * n + x] = plane[start + x];
+      }
+    }
+
+    for (int y = 0; y < blockHeight; y++) {
+      this.fft(real, imaginary, y * n, 1, false);
+    }
+    for (int x = 0; x < n; x++) {
+      this.fft(real, imaginary, x, n, false);
+    }
+
+    for (int k = 0; k < n * n; k++) {
+      double re = real[k] * this.kernelReal[k] - imaginary[k] * this.kernelImaginary[k];
+      double im = real[k] * this.kernelImaginary[k] + imaginary[k] * this.kernelReal[k];
+      real[k] = re;
+      imaginary[k] = im;
+    }
+
+    for (int x = 0; x < n; x++) {
+      this.fft(real, imaginary, x, n, true);
+    }
+
+    // Row y of the transform holds the filtered values of row blockY + y - half of the image.
+    double scale = 1.0 / ((double) n * n);
+    int fromY = Math.max(0, half - blockY);
+    int toY = Math.min(n, height + half - blockY);
+    int fromX = Math.max(0, half - blockX);
+    int toX = Math.min(n, width + half - blockX);
+    for (int y = fromY; y < toY; y++) {
+      this.fft(real, imaginary, y * n, 1, true);
+      int start = (blockY + y - half) * width + blockX - half;
+      for (int x = fromX; x < toX; x++) {
+        sums[start + x] += real[y * n + x] * scale;
+      }
+    }
+  }
+
+  /**
+   * Transforms every row and then every column of the given square of values.
+   *
+   * @param real the real parts of the values in row-major order.
+   * @param imaginary the imaginary parts of the values in row-major order.
+   * @param n the width and height of the square.
+   * @param inverse true for the inverse transform (without dividing by the number of values).
+   */
+  private void transform(double[] real, double[] imaginary, int n, boolean inverse) {
+    for (int y = 0; y < n; y++) {
+      this.fft(real, imaginary, y * n, 1, inverse);
+    }
+    for (int x = 0; x < n; x++) {
+      this.fft(real, imaginary, x, n, inverse);
+    }
+  }
+
+  /**
+   * Computes the fast Fourier transform of a line of values in place, using the iterative
+   * radix-2 algorithm. The line holds transformSize values, starting at the given offset and
+   * spaced by the given stride.
+   *
+   * @param real the real parts of the values.
+   * @param imaginary the imaginary parts of the values.
+   * @param offset the index of the first value of the line.
+   * @param stride the distance between two values of the line.
+   * @param inverse true for the inverse transform (without dividing by the number of values).
+   */
+  private void fft(double[] real, double[] imaginary, int offset, int stride, boolean inverse) {
+    int n = this.transformSize;
+    for (int k = 0; k < n; k++) {
+      int other = this.reversed[k];
+      if (k < other) {
+        int a = offset + k * stride;
+        int b = offset + other * stride;
+        double re = real[a];
+        double im = imaginary[a];
+        real[a] = real[b];
+        imaginary[a] = imaginary[b];
+        real[b] = re;
+        imaginary[b] = im;
+      }
+    }
+
+    for (int length = 2; length <= n; length <<= 1) {
+      int half = length / 2;
+      int step = n / length;
+      for (int start = 0; start < n; start += length) {
+        for (int k = 0; k < half; k++) {
+          double wr = this.cos[k * step];
+          double wi = inverse ? this.sin[k * step] : -this.sin[k * step];
+          int a = offset + (start + k) * stride;
+          int b = a + half * stride;
+          double re = real[b] * wr - imaginary[b] * wi;
+          double im = real[b] * wi + imaginary[b] * wr;
+          real[b] = real[a] - re;
+          imaginary[b] = imaginary[a] - im;
+          real[a] += re;
+          imaginary[a] += im;
+        }
+      }
+    }
+  }
+}
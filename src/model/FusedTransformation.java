@@ -0,0 +1,146 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A class for a chain of transformations that are applied one after the other in a single pass
+ * over the image. Every run of pixels goes through all the transformations while it is in the
+ * cache, so none of the images in between is stored. Consecutive point operations are composed
+ * into a single lookup table when the chain is created. Other transformations are kept apart,
+ * as every transformation clamps its results and a product of their matrices would not.
+ */
+public class FusedTransformation implements ITransformation {
+
+  private final List<ITransformation> stages;
+
+  /**
+   * Constructor that initializes the chain with the given transformations.
+   *
+   * @param transformations the transformations in the order they are applied.
+   * @throws IllegalArgumentException if no transformation is given.
+   */
+  public FusedTransformation(List<ITransformation> transformations)
+          throws IllegalArgumentException {
+    if (transformations == null || transformations.isEmpty()) {
+      throw new IllegalArgumentException("A fused transformation needs at least one "
+              + "transformation!");
+    }
+
+    List<ITransformation> composed = new ArrayList<ITransformation>();
+    for (ITransformation transformation : transformations) {
+      int last = composed.size() - 1;
+      if (last >= 0 && composed.get(last) instanceof LookupTransformation
+              && transformation instanceof LookupTransformation) {
+        LookupTransformation both = ((LookupTransformation) composed.get(last))
+                .andThen((LookupTransformation) transformation);
+        if (both != null) {
+          composed.set(last, both);
+          continue;
+        }
+      }
+      composed.add(transformation);
+    }
+    this.stages = Collections.unmodifiableList(composed);
+  }
+
+  /**
+   * Gets the number of transformations that are applied after consecutive point operations
+   * have been composed.
+   *
+   * @return the number of stages.
+   */
+  public int getStages() {
+    return this.stages.size();
+  }
+
+  /**
+   * Applies the transformation to the given pixel.
+   *
+   * @param pixel the given pixel.
+   * @return the pixel after the transformation has been applied.
+   */
+  @Override
+  public IPixel transformPixel(IPixel pixel) {
+    for (ITransformation stage : this.stages) {
+      pixel = stage.transformPixel(pixel);
+    }
+    return pixel;
+  }
+
+  /**
+   * Applies the transformation to the given channel values and returns the value of one of the
+   * resulting channels.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param red the red value of the pixel.
+   * @param green the green value of the pixel.
+   * @param blue the blue value of the pixel.
+   * @param maxValue the maxValue that any channel can be.
+   * @return the value of the given channel after the transformation has been applied.
+   */
+  @Override
+  public int transformChannel(int channel, int red, int green, int blue, int maxValue) {
+    int[] values = {red, green, blue};
+    for (ITransformation stage : this.stages) {
+      values = new int[]{stage.transformChannel(0, values[0], values[1], values[2], maxValue),
+          stage.transformChannel(1, values[0], values[1], values[2], maxValue),
+          stage.transformChannel(2, values[0], values[1], values[2], maxValue)};
+    }
+    return values[channel];
+  }
+
+  /**
+   * Applies the transformation to a run of pixels whose channels are given as separate planes,
+   * and writes one of the resulting channels. Every channel of the run goes through the whole
+   * chain, so {@link #transformRow(int[], int[], int[], int[][], int, int)} should be used when
+   * all three channels are needed.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param red the red values of the pixels.
+   * @param green the green values of the pixels.
+   * @param blue the blue values of the pixels.
+   * @param result the array to write the values of the resulting channel into.
+   * @param length the number of pixels.
+   * @param maxValue the maxValue that any channel can be.
+   */
+  @Override
+  public void transformPlanes(int channel, int[] red, int[] green, int[] blue, int[] result,
+                              int length, int maxValue) {
+    int[][] results = new int[3][length];
+    this.transformRow(red.clone(), green.clone(), blue.clone(), results, length, maxValue);
+    System.arraycopy(results[channel], 0, result, 0, length);
+  }
+
+  /**
+   * Applies every transformation of the chain to a run of pixels and writes all three resulting
+   * channels. The run is passed back and forth between the given channels and the results, so
+   * the given channels are overwritten.
+   *
+   * @param red the red values of the pixels.
+   * @param green the green values of the pixels.
+   * @param blue the blue values of the pixels.
+   * @param results the three arrays to write the red, green and blue resulting values into.
+   * @param length the number of pixels.
+   * @param maxValue the maxValue that any channel can be.
+   */
+  @Override
+  public void transformRow(int[] red, int[] green, int[] blue, int[][] results, int length,
+                           int maxValue) {
+    int[][] from = {red, green, blue};
+    int[][] to = results;
+    for (ITransformation stage : this.stages) {
+      stage.transformRow(from[0], from[1], from[2], to, length, maxValue);
+      int[][] swap = from;
+      from = to;
+      to = swap;
+    }
+
+    if (from != results) {
+      for (int c = 0; c < 3; c++) {
+        System.arraycopy(from[c], 0, results[c], 0, length);
+      }
+    }
+  }
+}
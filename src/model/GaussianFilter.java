@@ -0,0 +1,86 @@
+package model;
+
+/**
+ * Class for a filter that approximates a Gaussian blur with three box blurs in a row. The sizes
+ * of the boxes are chosen so that together they have the standard deviation of the Gaussian,
+ * and every box is applied with running sums, so the cost per pixel does not depend on the
+ * standard deviation.
+ */
+public class GaussianFilter implements IFilter {
+  private static final int PASSES = 3;
+
+  private final int[] radii;
+
+  /**
+   * Constructor that initializes the filter with the given standard deviation.
+   *
+   * @param sigma the standard deviation of the Gaussian, in pixels.
+   * @throws IllegalArgumentException if the standard deviation is not a positive number.
+   */
+  public GaussianFilter(double sigma) throws IllegalArgumentException {
+    if (!(sigma > 0) || Double.isInfinite(sigma)) {
+      throw new IllegalArgumentException("Sigma must be a positive number!");
+    }
+
+    // A box of width w has a variance of (w * w - 1) / 12, and the variances of the boxes add
+    // up. The boxes have one of two odd widths, and the number of the wider boxes is chosen so
+    // the total variance is as close as possible to sigma * sigma.
+    double variance = sigma * sigma;
+    int lower = (int) Math.floor(Math.sqrt(12 * variance / PASSES + 1));
+    if (lower % 2 == 0) {
+      lower--;
+    }
+    int upper = lower + 2;
+    long narrow = Math.round((12 * variance - PASSES * lower * (double) lower
+            - 4 * PASSES * lower - 3 * PASSES) / (-4 * lower - 4));
+    narrow = Math.max(0, Math.min(PASSES, narrow));
+
+    this.radii = new int[PASSES];
+    for (int i = 0; i < PASSES; i++) {
+      this.radii[i] = ((i < narrow ? lower : upper) - 1) / 2;
+    }
+  }
+
+  /**
+   * Gets the size of the filter.
+   *
+   * @return the size.
+   */
+  @Override
+  public int getSize() {
+    return 2 * BoxBlur.margin(this.radii) + 1;
+  }
+
+  /**
+   * Gets the value of the pixel after the filter has been applied to it.
+   *
+   * @param pixels the pixels to which the filter has to applied.
+   * @param maxValue the maxValue that any pixel can be.
+   * @return the value of the pixel after the filter has been applied to it.
+   * @throws IllegalArgumentException if the pixels are not the same size as the filter.
+   */
+  @Override
+  public int filteredValue(int[][] pixels, int maxValue) throws IllegalArgumentException {
+    if (pixels.length != this.getSize() || pixels[0].length != this.getSize()) {
+      throw new IllegalArgumentException("Values array provided is not the same size as the " +
+              "kernel!");
+    }
+
+    return BoxBlur.blurredValue(this.radii, pixels, maxValue);
+  }
+
+  /**
+   * Applies the filter to every value of a single channel of an image. Values outside the
+   * image are treated as 0.
+   *
+   * @param plane the values of the channel in row-major order.
+   * @param result the array to write the filtered values into in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param maxValue the maxValue that any pixel can be.
+   */
+  @Override
+  public void filterPlane(int[] plane, int[] result, int width, int height, int maxValue) {
+    BoxBlur.blur(this.radii, plane, result, width, height, maxValue);
+  }
+}
@@ -0,0 +1,525 @@
+package model;
+
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Class that represents a flipped, rotated or cropped image without copying its pixels. The
+ * view keeps the image it was made from and maps every position of the view to a position of
+ * that image, so flipping, rotating or cropping a view only creates a new mapping. The pixels
+ * are only copied when an operation needs all of them, such as filtering the view, into an image
+ * with the layout of the parent, and the copy is not kept once the operation is done. Saving or
+ * showing the view writes its rows straight into the buffered image.
+ */
+public class GeometricView extends AbstractImage {
+  private final Image parent;
+  private final int originCol;
+  private final int originRow;
+  private final int colStepX;
+  private final int colStepY;
+  private final int rowStepX;
+  private final int rowStepY;
+
+  /**
+   * Constructor for initialising a view that shows the whole of the given image unchanged.
+   *
+   * @param parent the image to view
+   * @throws IllegalArgumentException if the image provided is null
+   */
+  public GeometricView(Image parent) throws IllegalArgumentException {
+    this(checkParent(parent), parent.getWidth(), parent.getHeight(), 0, 0, 1, 0, 0, 1);
+  }
+
+  /**
+   * Constructor for initialising a view with the given mapping. The pixel at column c and row r
+   * of the view is the pixel at column originCol + c * colStepX + r * rowStepX and row
+   * originRow + c * colStepY + r * rowStepY of the parent.
+   *
+   * @param parent the image to view
+   * @param width of the view
+   * @param height of the view
+   * @param originCol the column of the parent shown at the top left of the view
+   * @param originRow the row of the parent shown at the top left of the view
+   * @param colStepX the change in the column of the parent for every column of the view
+   * @param colStepY the change in the row of the parent for every column of the view
+   * @param rowStepX the change in the column of the parent for every row of the view
+   * @param rowStepY the change in the row of the parent for every row of the view
+   */
+  private GeometricView(Image parent, int width, int height, int originCol, int originRow,
+                        int colStepX, int colStepY, int rowStepX, int rowStepY) {
+    super(width, height);
+    this.parent = parent;
+    this.originCol = originCol;
+    this.originRow = originRow;
+    this.colStepX = colStepX;
+    this.colStepY = colStepY;
+    this.rowStepX = rowStepX;
+    this.rowStepY = rowStepY;
+  }
+
+  /**
+   * Gets the image that this view maps its positions to.
+   *
+   * @return the parent image
+   */
+  public Image getParent() {
+    return this.parent;
+  }
+
+  /**
+   * Flips the image vertically by creating a new view over the same parent.
+   */
+  @Override
+  public Image flipVertical() {
+    return this.view(this.width, this.height, 0, this.height - 1, this.colStepX, this.colStepY,
+            -this.rowStepX, -this.rowStepY);
+  }
+
+  /**
+   * Flips the image horizontally by creating a new view over the same parent.
+   */
+  @Override
+  public Image flipHorizontal() {
+    return this.view(this.width, this.height, this.width - 1, 0, -this.colStepX, -this.colStepY,
+            this.rowStepX, this.rowStepY);
+  }
+
+  /**
+   * Rotates the image clockwise by the given number of degrees by creating a new view over the
+   * same parent.
+   *
+   * @param degrees the number of degrees to rotate by (90, 180 or 270)
+   * @return the rotated image
+   * @throws IllegalArgumentException if the number of degrees is invalid
+   */
+  @Override
+  public Image rotate(int degrees) throws IllegalArgumentException {
+    switch (degrees) {
+      case 90:
+        return this.view(this.height, this.width, 0, this.height - 1, -this.rowStepX,
+                -this.rowStepY, this.colStepX, this.colStepY);
+      case 180:
+        return this.view(this.width, this.height, this.width - 1, this.height - 1,
+                -this.colStepX, -this.colStepY, -this.rowStepX, -this.rowStepY);
+      case 270:
+        return this.view(this.height, this.width, this.width - 1, 0, this.rowStepX,
+                this.rowStepY, -this.colStepX, -this.colStepY);
+      default:
+        throw new IllegalArgumentException("Invalid number of degrees provided: " + degrees);
+    }
+  }
+
+  /**
+   * Crops the image to the given region by creating a new view over the same parent.
+   *
+   * @param col the column of the top left pixel of the region
+   * @param row the row of the top left pixel of the region
+   * @param width the width of the region
+   * @param height the height of the region
+   * @return the cropped image
+   * @throws IllegalArgumentException if the region is not inside the image
+   */
+  @Override
+  public Image crop(int col, int row, int width, int height) throws IllegalArgumentException {
+    checkRegion(this, col, row, width, height);
+    return this.view(width, height, col, row, this.colStepX, this.colStepY, this.rowStepX,
+            this.rowStepY);
+  }
+
+  /**
+   * Brighten the image by the given increment.
+   *
+   * @param increment the integer value to brighten the image by
+   * @throws IllegalArgumentException if the increment value is invalid
+   */
+  @Override
+  public Image brightenImage(int increment) {
+    return this.withCopy(image -> image.brightenImage(increment));
+  }
+
+  /**
+   * Converts the image to grey scale using the component method given.
+   *
+   * @param method the component to use when converting to greyscale image
+   * @throws IllegalArgumentException if the method is invalid
+   */
+  @Override
+  public Image convertGreyscale(String method) throws IllegalArgumentException {
+    return this.withCopy(image -> image.convertGreyscale(method));
+  }
+
+  /**
+   * Writes the pixels of the image into an array of pixels indexed by column and then row.
+   *
+   * @return the pixels of the image.
+   */
+  @Override
+  public IPixel[][] writePixels() {
+    return this.withCopy(Image::writePixels);
+  }
+
+  /**
+   * Gets the max value that any channel of the image can be.
+   *
+   * @return the max value of a channel
+   */
+  @Override
+  public int getMaxValue() {
+    return this.parent.getMaxValue();
+  }
+
+  /**
+   * Gets the value of the given channel of the pixel at the given position of the view.
+   *
+   * @param col the column of the pixel
+   * @param row the row of the pixel
+   * @param channel the index of the channel (0 for red, 1 for green, 2 for blue)
+   * @return the value of the channel
+   * @throws IllegalArgumentException if the position or the channel are invalid
+   */
+  @Override
+  public int getChannelValue(int col, int row, int channel) throws IllegalArgumentException {
+    this.checkPosition(col, row, channel);
+    return this.parent.getChannelValue(this.parentCol(col, row), this.parentRow(col, row),
+            channel);
+  }
+
+  /**
+   * Applies the given filter to every pixel in the image.
+   *
+   * @param filter the given filter.
+   * @return the image after the filter has been applied.
+   */
+  @Override
+  public Image applyFilter(IFilter filter) {
+    return this.withCopy(image -> image.applyFilter(filter));
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image.
+   *
+   * @param transformation the given matrix.
+   * @return the image after each pixel in the image has been transformed.
+   */
+  @Override
+  public Image applyTransformation(ITransformation transformation) {
+    return this.withCopy(image -> image.applyTransformation(transformation));
+  }
+
+  /**
+   * Creates a buffered image of this image. Images with 8 bits per channel have the rows of the
+   * view written straight into the buffered image, without copying them into an image first.
+   *
+   * @return the buffered image
+   */
+  @Override
+  public BufferedImage createBufferedImage() {
+    if (this.parent.getMaxValue() > MAX_VALUE) {
+      return this.withCopy(Image::createBufferedImage);
+    }
+
+    BufferedImage img = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_RGB);
+    int[] data = dataOf(img);
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int row = fromRow; row < toRow; row++) {
+        this.readRow(row, data, row * this.width);
+      }
+    });
+    return img;
+  }
+
+  /**
+   * Gets the histogram of a given color of this image. Flips and rotations show every pixel of
+   * the parent exactly once, so their histogram is the one of the parent.
+   *
+   * @param component the given color
+   * @return the histogram of the color
+   * @throws IllegalArgumentException if the given color is invalid
+   */
+  @Override
+  public Map<Integer, Integer> getHistogram(String component) throws IllegalArgumentException {
+    if ((long) this.width * this.height
+            == (long) this.parent.getWidth() * this.parent.getHeight()) {
+      return this.parent.getHistogram(component);
+    }
+    return this.withCopy(image -> image.getHistogram(component));
+  }
+
+  /**
+   * Checks that the given region is inside the given image.
+   *
+   * @param image the image
+   * @param col the column of the top left pixel of the region
+   * @param row the row of the top left pixel of the region
+   * @param width the width of the region
+   * @param height the height of the region
+   * @throws IllegalArgumentException if the region is not inside the image
+   */
+  static void checkRegion(Image image, int col, int row, int width, int height)
+          throws IllegalArgumentException {
+    if (col < 0 || row < 0 || width <= 0 || height <= 0
+            || (long) col + width > image.getWidth() || (long) row + height > image.getHeight()) {
+      throw new IllegalArgumentException("Invalid region of image!");
+    }
+  }
+
+  /**
+   * Checks that the given parent is not null.
+   *
+   * @param parent the image to view
+   * @return the image to view
+   * @throws IllegalArgumentException if the image provided is null
+   */
+  private static Image checkParent(Image parent) throws IllegalArgumentException {
+    if (parent == null) {
+      throw new IllegalArgumentException("Image provided was null!");
+    }
+    return parent;
+  }
+
+  /**
+   * Creates a view over the parent of this view. The origin is given as a position of this
+   * view, and the steps are given in the columns and rows of the parent.
+   *
+   * @param width of the new view
+   * @param height of the new view
+   * @param col the column of this view shown at the top left of the new view
+   * @param row the row of this view shown at the top left of the new view
+   * @param colStepX the change in the column of the parent for every column of the new view
+   * @param colStepY the change in the row of the parent for every column of the new view
+   * @param rowStepX the change in the column of the parent for every row of the new view
+   * @param rowStepY the change in the row of the parent for every row of the new view
+   * @return the new view
+   */
+  private GeometricView view(int width, int height, int col, int row, int colStepX,
+                             int colStepY, int rowStepX, int rowStepY) {
+    return new GeometricView(this.parent, width, height, this.parentCol(col, row),
+            this.parentRow(col, row), colStepX, colStepY, rowStepX, rowStepY);
+  }
+
+  /**
+   * Gets the column of the parent shown at the given position of this view.
+   *
+   * @param col the column of this view
+   * @param row the row of this view
+   * @return the column of the parent
+   */
+  private int parentCol(int col, int row) {
+    return this.originCol + col * this.colStepX + row * this.rowStepX;
+  }
+
+  /**
+   * Gets the row of the parent shown at the given position of this view.
+   *
+   * @param col the column of this view
+   * @param row the row of this view
+   * @return the row of the parent
+   */
+  private int parentRow(int col, int row) {
+    return this.originRow + col * this.colStepY + row * this.rowStepY;
+  }
+
+  /**
+   * Copies the pixels of this view into a new image and applies the given operation to it. The
+   * copy is closed afterwards if it holds memory outside of the heap and the operation returned
+   * something else, as nothing else refers to it.
+   *
+   * @param operation the operation to apply to the copy
+   * @param <T> the type of the result of the operation
+   * @return the result of the operation
+   */
+  private <T> T withCopy(Function<Image, T> operation) {
+    Image copy = this.materialize();
+    T result = operation.apply(copy);
+    if (result != copy && copy instanceof CloseableImage) {
+      ((CloseableImage) copy).close();
+    }
+    return result;
+  }
+
+  /**
+   * Copies the pixels of this view into a new image with the layout of the parent. Images with
+   * more than 8 bits per channel are copied into a high bit depth image, and views of planar and
+   * off-heap images into a planar and an off-heap image. Every other view is copied into a
+   * packed image.
+   *
+   * @return the image holding the pixels of this view
+   */
+  private Image materialize() {
+    if (this.parent.getMaxValue() > MAX_VALUE) {
+      return this.copyHighBit();
+    } else if (this.parent instanceof OffHeapImage) {
+      return this.copyOffHeap();
+    } else if (this.parent instanceof PlanarImage) {
+      return this.copyPlanar();
+    }
+    return this.copyPacked();
+  }
+
+  /**
+   * Reads the given row of this view as packed 0xRRGGBB pixels. A packed parent is read straight
+   * from its raster, and a row of an off-heap parent that lies along one of its rows is read
+   * with that row.
+   *
+   * @param row the row of this view
+   * @param out the array to read the pixels into
+   * @param offset the index of the array to write the first pixel at
+   */
+  private void readRow(int row, int[] out, int offset) {
+    int x = this.parentCol(0, row);
+    int y = this.parentRow(0, row);
+    int parentWidth = this.parent.getWidth();
+
+    if (this.parent instanceof PackedImage) {
+      int[] source = ((PackedImage) this.parent).getRaster();
+      for (int col = 0; col < this.width; col++) {
+        out[offset + col] = source[y * parentWidth + x];
+        x += this.colStepX;
+        y += this.colStepY;
+      }
+    } else if (this.parent instanceof OffHeapImage && this.colStepY == 0) {
+      int[] source = new int[parentWidth];
+      ((OffHeapImage) this.parent).readRow(y, source);
+      for (int col = 0; col < this.width; col++) {
+        out[offset + col] = source[x];
+        x += this.colStepX;
+      }
+    } else {
+      for (int col = 0; col < this.width; col++) {
+        out[offset + col] = (this.parent.getChannelValue(x, y, 0) << 16)
+                | (this.parent.getChannelValue(x, y, 1) << 8)
+                | this.parent.getChannelValue(x, y, 2);
+        x += this.colStepX;
+        y += this.colStepY;
+      }
+    }
+  }
+
+  /**
+   * Copies the pixels of this view into a packed image.
+   *
+   * @return the packed image
+   */
+  private Image copyPacked() {
+    int[] raster = new int[this.width * this.height];
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int row = fromRow; row < toRow; row++) {
+        this.readRow(row, raster, row * this.width);
+      }
+    });
+
+    return new PackedImage(this.width, this.height, raster);
+  }
+
+  /**
+   * Copies the pixels of this view into a planar image.
+   *
+   * @return the planar image
+   */
+  private Image copyPlanar() {
+    byte[] red = new byte[this.width * this.height];
+    byte[] green = new byte[red.length];
+    byte[] blue = new byte[red.length];
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      int[] rgb = new int[this.width];
+      for (int row = fromRow; row < toRow; row++) {
+        this.readRow(row, rgb, 0);
+        for (int col = 0; col < this.width; col++) {
+          int i = row * this.width + col;
+          red[i] = (byte) (rgb[col] >> 16);
+          green[i] = (byte) (rgb[col] >> 8);
+          blue[i] = (byte) rgb[col];
+        }
+      }
+    });
+
+    return new PlanarImage(this.width, this.height, red, green, blue);
+  }
+
+  /**
+   * Copies the pixels of this view into an off-heap image, one row at a time.
+   *
+   * @return the off-heap image
+   */
+  private Image copyOffHeap() {
+    OffHeapImage image = new OffHeapImage(this.width, this.height);
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      int[] rgb = new int[this.width];
+      for (int row = fromRow; row < toRow; row++) {
+        this.readRow(row, rgb, 0);
+        image.writeRow(row, rgb);
+      }
+    });
+
+    return image;
+  }
+
+  /**
+   * Copies the pixels of this view into a high bit depth image.
+   *
+   * @return the high bit depth image
+   */
+  private Image copyHighBit() {
+    short[] red = new short[this.width * this.height];
+    short[] green = new short[red.length];
+    short[] blue = new short[red.length];
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int row = fromRow; row < toRow; row++) {
+        for (int col = 0; col < this.width; col++) {
+          int x = this.parentCol(col, row);
+          int y = this.parentRow(col, row);
+          int i = row * this.width + col;
+          red[i] = (short) this.parent.getChannelValue(x, y, 0);
+          green[i] = (short) this.parent.getChannelValue(x, y, 1);
+          blue[i] = (short) this.parent.getChannelValue(x, y, 2);
+        }
+      }
+    });
+
+    return new HighBitImage(this.width, this.height, this.parent.getMaxValue(), red, green,
+            blue);
+  }
+
+  /**
+   * Compares any given object and checks if it's a view of the same image with the same
+   * mapping.
+   *
+   * @param o the provided object.
+   * @return true if the given object is a GeometricView showing the same pixels of the same
+   *         parent.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof GeometricView)) {
+      return false;
+    }
+
+    GeometricView view = (GeometricView) o;
+    return view.parent.equals(this.parent)
+            && view.width == this.width
+            && view.height == this.height
+            && view.originCol == this.originCol
+            && view.originRow == this.originRow
+            && view.colStepX == this.colStepX
+            && view.colStepY == this.colStepY
+            && view.rowStepX == this.rowStepX
+            && view.rowStepY == this.rowStepY;
+  }
+
+  /**
+   * Overrides hashCode for the class GeometricView.
+   *
+   * @return the hashCode of the object.
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.parent, this.width, this.height, this.originCol, this.originRow,
+            this.colStepX, this.colStepY, this.rowStepX, this.rowStepY);
+  }
+}
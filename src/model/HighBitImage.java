@@ -0,0 +1,471 @@
+package model;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Class that implements the operations offered by an image with up to 16 bits per channel.
+ * The red, green and blue values are stored in three separate short arrays, row by row, which
+ * keeps the image at 6 bytes per pixel. The max value of a channel can be anything up to 65535.
+ * Transformations and flips can overwrite the planes when nothing else reads the image and the
+ * planes are not shared with another image or between channels.
+ */
+public class HighBitImage extends AbstractImage implements MutableImage {
+  private static final int HISTOGRAM_BINS = 256;
+
+  private final short[] red;
+  private final short[] green;
+  private final short[] blue;
+  private final int maxValue;
+  private volatile boolean lent;
+
+  /**
+   * Constructor for initialising a HighBitImage.
+   *
+   * @param width of the image
+   * @param height of the image
+   * @param maxValue the max value that any channel can be
+   * @param red the red plane of the image in row-major order
+   * @param green the green plane of the image in row-major order
+   * @param blue the blue plane of the image in row-major order
+   * @throws IllegalArgumentException if the width, height or max value are invalid or if the
+   *                                  planes provided are null or do not match the size of the
+   *                                  image.
+   */
+  public HighBitImage(int width, int height, int maxValue, short[] red, short[] green,
+                      short[] blue) throws IllegalArgumentException {
+    super(width, height);
+
+    if (maxValue <= 0 || maxValue > 65535) {
+      throw new IllegalArgumentException("Invalid max value provided!");
+    }
+
+    if (red == null || green == null || blue == null) {
+      throw new IllegalArgumentException("Planes provided were null!");
+    }
+
+    int size = width * height;
+    if (red.length != size || green.length != size || blue.length != size) {
+      throw new IllegalArgumentException("Planes provided do not match the size of the image!");
+    }
+
+    this.maxValue = maxValue;
+    this.red = red;
+    this.green = green;
+    this.blue = blue;
+  }
+
+  /**
+   * Brighten the image by the given increment.
+   *
+   * @param increment the integer value to brighten the image by
+   * @throws IllegalArgumentException if the increment value is invalid
+   */
+  @Override
+  public Image brightenImage(int increment) {
+    return new HighBitImage(this.width, this.height, this.maxValue,
+            this.brightenPlane(this.red, increment), this.brightenPlane(this.green, increment),
+            this.brightenPlane(this.blue, increment));
+  }
+
+  /**
+   * Converts the image to grey scale using the component method given. The resulting image
+   * shares a single plane between its three channels.
+   *
+   * @param method the component to use when converting to greyscale image
+   * @throws IllegalArgumentException if the method is invalid
+   */
+  @Override
+  public Image convertGreyscale(String method) throws IllegalArgumentException {
+    checkGreyMethod(method);
+
+    short[] grey;
+    switch (method) {
+      case "red":
+        grey = this.red;
+        this.lent = true;
+        break;
+      case "green":
+        grey = this.green;
+        this.lent = true;
+        break;
+      case "blue":
+        grey = this.blue;
+        this.lent = true;
+        break;
+      default:
+        short[] values = new short[this.red.length];
+        Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+          for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+            values[i] = (short) getGreyValue(method, this.red[i] & 0xFFFF,
+                    this.green[i] & 0xFFFF, this.blue[i] & 0xFFFF);
+          }
+        });
+        grey = values;
+    }
+
+    return new HighBitImage(this.width, this.height, this.maxValue, grey, grey, grey);
+  }
+
+  /**
+   * Writes the pixels of the image into an array of pixels indexed by column and then row.
+   * This adapts the planes for callers that still expect pixel objects.
+   *
+   * @return the pixels of the image.
+   */
+  @Override
+  public IPixel[][] writePixels() {
+    IPixel[][] pixels = new IPixel[this.width][this.height];
+    int bits = 32 - Integer.numberOfLeadingZeros(this.maxValue);
+
+    for (int y = 0; y < this.height; y++) {
+      for (int x = 0; x < this.width; x++) {
+        int i = y * this.width + x;
+        pixels[x][y] = new Pixel(bits, this.red[i] & 0xFFFF, this.green[i] & 0xFFFF,
+                this.blue[i] & 0xFFFF);
+      }
+    }
+
+    return pixels;
+  }
+
+  /**
+   * Gets the max value that any channel of the image can be.
+   *
+   * @return the max value of a channel
+   */
+  @Override
+  public int getMaxValue() {
+    return this.maxValue;
+  }
+
+  /**
+   * Gets the value of the given channel of the pixel at the given position.
+   *
+   * @param col the column of the pixel
+   * @param row the row of the pixel
+   * @param channel the index of the channel (0 for red, 1 for green, 2 for blue)
+   * @return the value of the channel
+   * @throws IllegalArgumentException if the position or the channel are invalid
+   */
+  @Override
+  public int getChannelValue(int col, int row, int channel) throws IllegalArgumentException {
+    this.checkPosition(col, row, channel);
+    short[] plane = channel == 0 ? this.red : (channel == 1 ? this.green : this.blue);
+    return plane[row * this.width + col] & 0xFFFF;
+  }
+
+  /**
+   * Applies the given filter to every pixel in the image, one plane at a time. Pixels outside
+   * the image are treated as 0. A plane shared by all three channels is only filtered once.
+   *
+   * @param filter the given filter.
+   * @return the image after the filter has been applied.
+   */
+  @Override
+  public Image applyFilter(IFilter filter) {
+    if (this.red == this.green && this.red == this.blue) {
+      short[] grey = this.filterPlane(this.red, filter);
+      return new HighBitImage(this.width, this.height, this.maxValue, grey, grey, grey);
+    }
+    return new HighBitImage(this.width, this.height, this.maxValue,
+            this.filterPlane(this.red, filter), this.filterPlane(this.green, filter),
+            this.filterPlane(this.blue, filter));
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image.
+   *
+   * @param transformation the given matrix.
+   * @return the image after each pixel in the image has been transformed.
+   */
+  @Override
+  public Image applyTransformation(ITransformation transformation) {
+    short[] newRed = new short[this.red.length];
+    short[] newGreen = new short[this.green.length];
+    short[] newBlue = new short[this.blue.length];
+    this.transformInto(transformation, newRed, newGreen, newBlue);
+    return new HighBitImage(this.width, this.height, this.maxValue, newRed, newGreen, newBlue);
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image, overwriting its planes if they belong
+   * to this image only.
+   *
+   * @param transformation the given matrix.
+   * @return this image after its pixels have been transformed, or a new transformed image.
+   */
+  @Override
+  public Image applyTransformationInPlace(ITransformation transformation) {
+    if (!this.ownsPlanes()) {
+      return this.applyTransformation(transformation);
+    }
+
+    this.transformInto(transformation, this.red, this.green, this.blue);
+    return this;
+  }
+
+  /**
+   * Flips the image vertically by swapping the rows of its planes, if they belong to this image
+   * only.
+   *
+   * @return this image after it has been flipped, or a new flipped image.
+   */
+  @Override
+  public Image flipVerticalInPlace() {
+    if (!this.ownsPlanes()) {
+      return this.flipVertical();
+    }
+
+    Parallel.forEachBand(this.height / 2, (fromRow, toRow) -> {
+      short[] row = new short[this.width];
+      for (short[] plane : new short[][]{this.red, this.green, this.blue}) {
+        for (int y = fromRow; y < toRow; y++) {
+          int top = y * this.width;
+          int bottom = (this.height - 1 - y) * this.width;
+          System.arraycopy(plane, top, row, 0, this.width);
+          System.arraycopy(plane, bottom, plane, top, this.width);
+          System.arraycopy(row, 0, plane, bottom, this.width);
+        }
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Flips the image horizontally by reversing every row of its planes, if they belong to this
+   * image only.
+   *
+   * @return this image after it has been flipped, or a new flipped image.
+   */
+  @Override
+  public Image flipHorizontalInPlace() {
+    if (!this.ownsPlanes()) {
+      return this.flipHorizontal();
+    }
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (short[] plane : new short[][]{this.red, this.green, this.blue}) {
+        for (int y = fromRow; y < toRow; y++) {
+          int left = y * this.width;
+          int right = left + this.width - 1;
+          for (; left < right; left++, right--) {
+            short value = plane[left];
+            plane[left] = plane[right];
+            plane[right] = value;
+          }
+        }
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image and writes the results into the given
+   * planes, which may be the planes of this image as every row is read before it is written.
+   *
+   * @param transformation the given matrix.
+   * @param newRed the plane to write the red values into.
+   * @param newGreen the plane to write the green values into.
+   * @param newBlue the plane to write the blue values into.
+   */
+  private void transformInto(ITransformation transformation, short[] newRed, short[] newGreen,
+                             short[] newBlue) {
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      int[] r = new int[this.width];
+      int[] g = new int[this.width];
+      int[] b = new int[this.width];
+      int[][] channels = new int[3][this.width];
+      short[][] results = {newRed, newGreen, newBlue};
+      for (int y = fromRow; y < toRow; y++) {
+        int start = y * this.width;
+        for (int x = 0; x < this.width; x++) {
+          r[x] = this.red[start + x] & 0xFFFF;
+          g[x] = this.green[start + x] & 0xFFFF;
+          b[x] = this.blue[start + x] & 0xFFFF;
+        }
+        transformation.transformRow(r, g, b, channels, this.width, this.maxValue);
+        for (int c = 0; c < 3; c++) {
+          short[] values = results[c];
+          int[] channel = channels[c];
+          for (int x = 0; x < this.width; x++) {
+            values[start + x] = (short) channel[x];
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Checks if the planes of the image can be overwritten, which is the case when no plane has
+   * been given to another image and the three channels do not share a plane.
+   *
+   * @return true if the planes belong to this image only
+   */
+  private boolean ownsPlanes() {
+    return !this.lent && this.red != this.green && this.red != this.blue
+            && this.green != this.blue;
+  }
+
+  /**
+   * Creates a buffered image of this image. The channels are scaled down to 8 bits.
+   *
+   * @return the buffered image
+   */
+  @Override
+  public BufferedImage createBufferedImage() {
+    BufferedImage img = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_RGB);
+    int[] data = dataOf(img);
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+        data[i] = (this.toEightBits(this.red[i]) << 16) | (this.toEightBits(this.green[i]) << 8)
+                | this.toEightBits(this.blue[i]);
+      }
+    });
+    return img;
+  }
+
+  /**
+   * Gets the histogram of a given color of this image. The values are grouped into 256 bins of
+   * equal width so that the histogram has the same shape as the one of an 8 bit image.
+   *
+   * @param component the given color
+   * @return the histogram of the color
+   * @throws IllegalArgumentException if the given color is invalid
+   */
+  @Override
+  public Map<Integer, Integer> getHistogram(String component) throws IllegalArgumentException {
+    checkHistogramComponent(component);
+
+    int[] counts = new int[HISTOGRAM_BINS];
+    if (component.equals("intensity")) {
+      for (int i = 0; i < this.red.length; i++) {
+        int intensity = ((this.red[i] & 0xFFFF) + (this.green[i] & 0xFFFF)
+                + (this.blue[i] & 0xFFFF)) / 3;
+        counts[this.toBin(intensity)]++;
+      }
+    } else {
+      short[] plane = component.equals("red") ? this.red
+              : (component.equals("green") ? this.green : this.blue);
+      for (short value : plane) {
+        counts[this.toBin(value & 0xFFFF)]++;
+      }
+    }
+
+    return toHistogram(counts);
+  }
+
+  /**
+   * Gets the histogram bin of the given value.
+   *
+   * @param value the value of a channel
+   * @return the bin of the value
+   */
+  private int toBin(int value) {
+    return (int) ((long) value * HISTOGRAM_BINS / (this.maxValue + 1));
+  }
+
+  /**
+   * Scales the given value of a channel down to 8 bits.
+   *
+   * @param value the value of a channel
+   * @return the scaled value
+   */
+  private int toEightBits(short value) {
+    return (int) ((long) (value & 0xFFFF) * MAX_VALUE / this.maxValue);
+  }
+
+  /**
+   * Clamps the given value between 0 and the max value of this image.
+   *
+   * @param value the value to clamp
+   * @return the clamped value
+   */
+  private int clampHigh(int value) {
+    if (value < 0) {
+      return 0;
+    } else if (value > this.maxValue) {
+      return this.maxValue;
+    } else {
+      return value;
+    }
+  }
+
+  /**
+   * Brightens every value of the given plane by the given increment.
+   *
+   * @param plane the plane to brighten
+   * @param increment the value to brighten by
+   * @return the brightened plane
+   */
+  private short[] brightenPlane(short[] plane, int increment) {
+    short[] newPlane = new short[plane.length];
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+        newPlane[i] = (short) this.clampHigh((plane[i] & 0xFFFF) + increment);
+      }
+    });
+    return newPlane;
+  }
+
+  /**
+   * Applies the given filter to every value of the given plane.
+   *
+   * @param plane the plane to filter
+   * @param filter the filter to apply
+   * @return the filtered plane
+   */
+  private short[] filterPlane(short[] plane, IFilter filter) {
+    int[] values = new int[plane.length];
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+        values[i] = plane[i] & 0xFFFF;
+      }
+    });
+
+    int[] filtered = new int[plane.length];
+    filter.filterPlane(values, filtered, this.width, this.height, this.maxValue);
+
+    short[] newPlane = new short[plane.length];
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+        newPlane[i] = (short) filtered[i];
+      }
+    });
+    return newPlane;
+  }
+
+  /**
+   * Compares any given object and checks if it's a type of this class with the same pixels.
+   *
+   * @param o the provided object.
+   * @return true if the given object is a HighBitImage with the same pixels.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof HighBitImage)) {
+      return false;
+    }
+
+    HighBitImage image = (HighBitImage) o;
+    return image.width == this.width
+            && image.height == this.height
+            && image.maxValue == this.maxValue
+            && Arrays.equals(image.red, this.red)
+            && Arrays.equals(image.green, this.green)
+            && Arrays.equals(image.blue, this.blue);
+  }
+
+  /**
+   * Overrides hashCode for the class HighBitImage.
+   *
+   * @return the hashCode of the object.
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.width, this.height, this.maxValue, Arrays.hashCode(this.red),
+            Arrays.hashCode(this.green), Arrays.hashCode(this.blue));
+  }
+}
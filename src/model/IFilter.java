@@ -21,4 +21,17 @@ public interface IFilter {
    */
   int filteredValue(int[][] pixels, int maxValue) throws IllegalArgumentException;
 
+  /**
+   * Applies the filter to every value of a single channel of an image. Values outside the
+   * image are treated as 0. This is what the images use to apply a filter, so that no array
+   * has to be created for every pixel.
+   *
+   * @param plane the values of the channel in row-major order.
+   * @param result the array to write the filtered values into in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param maxValue the maxValue that any pixel can be.
+   */
+  void filterPlane(int[] plane, int[] result, int width, int height, int maxValue);
+
 }
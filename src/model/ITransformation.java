@@ -12,4 +12,49 @@ public interface ITransformation {
    * @return the pixel after the transformation has been applied.
    */
   IPixel transformPixel(IPixel pixel);
+
+  /**
+   * Applies the transformation to the given channel values and returns the value of one of the
+   * resulting channels.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param red the red value of the pixel.
+   * @param green the green value of the pixel.
+   * @param blue the blue value of the pixel.
+   * @param maxValue the maxValue that any channel can be.
+   * @return the value of the given channel after the transformation has been applied.
+   */
+  int transformChannel(int channel, int red, int green, int blue, int maxValue);
+
+  /**
+   * Applies the transformation to a run of pixels whose channels are given as separate planes,
+   * and writes one of the resulting channels. The results are the same as calling
+   * {@link #transformChannel(int, int, int, int, int)} for every pixel.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param red the red values of the pixels.
+   * @param green the green values of the pixels.
+   * @param blue the blue values of the pixels.
+   * @param result the array to write the values of the resulting channel into.
+   * @param length the number of pixels.
+   * @param maxValue the maxValue that any channel can be.
+   */
+  void transformPlanes(int channel, int[] red, int[] green, int[] blue, int[] result, int length,
+                       int maxValue);
+
+  /**
+   * Applies the transformation to a run of pixels whose channels are given as separate planes,
+   * and writes all three resulting channels. The given channels may be overwritten, so a chain
+   * of transformations can pass the run back and forth without copying it.
+   *
+   * @param red the red values of the pixels.
+   * @param green the green values of the pixels.
+   * @param blue the blue values of the pixels.
+   * @param results the three arrays to write the red, green and blue resulting values into,
+   *                which must not be the arrays of the given channels.
+   * @param length the number of pixels.
+   * @param maxValue the maxValue that any channel can be.
+   */
+  void transformRow(int[] red, int[] green, int[] blue, int[][] results, int length,
+                    int maxValue);
 }
@@ -26,6 +26,27 @@ public interface Image {
    */
   Image flipHorizontal();
 
+  /**
+   * Rotates the image clockwise by the given number of degrees.
+   *
+   * @param degrees the number of degrees to rotate by (90, 180 or 270)
+   * @return the rotated image
+   * @throws IllegalArgumentException if the number of degrees is invalid
+   */
+  Image rotate(int degrees) throws IllegalArgumentException;
+
+  /**
+   * Crops the image to the given region.
+   *
+   * @param col the column of the top left pixel of the region
+   * @param row the row of the top left pixel of the region
+   * @param width the width of the region
+   * @param height the height of the region
+   * @return the cropped image
+   * @throws IllegalArgumentException if the region is not inside the image
+   */
+  Image crop(int col, int row, int width, int height) throws IllegalArgumentException;
+
   /**
    * Converts the image to grey scale using the component method given.
    *
@@ -39,6 +60,9 @@ public interface Image {
    * one for each channel. The size of the return list is width * height and the size of each inner
    * list is n.
    *
+   * This is kept as an adapter for callers that still work with pixel objects, and is not used
+   * when loading, processing or saving images.
+   *
    * @return the list of pixels with their channel values as an array of integers.
    */
   IPixel[][] writePixels();
@@ -57,6 +81,24 @@ public interface Image {
    */
   int getHeight();
 
+  /**
+   * Gets the max value that any channel of the image can be.
+   *
+   * @return the max value of a channel
+   */
+  int getMaxValue();
+
+  /**
+   * Gets the value of the given channel of the pixel at the given position.
+   *
+   * @param col the column of the pixel
+   * @param row the row of the pixel
+   * @param channel the index of the channel (0 for red, 1 for green, 2 for blue)
+   * @return the value of the channel
+   * @throws IllegalArgumentException if the position or the channel are invalid
+   */
+  int getChannelValue(int col, int row, int channel) throws IllegalArgumentException;
+
   /**
    * Applies the given filter to every pixel in the image.
    *
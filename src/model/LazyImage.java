@@ -0,0 +1,428 @@
+package model;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Class that represents an image whose pixels are only computed when they are needed. Every
+ * operation on a lazy image returns a new lazy image that remembers the image it was made from
+ * and the operation, so a script builds a graph of deferred images. The pixels of an image are
+ * computed the first time they are read, for example when the image is saved or shown, and are
+ * then kept, so an image that is used by several others is only computed once. Images that are
+ * never read are never computed.
+ *
+ * <p>When a transformation is applied to an image that is itself the result of a transformation,
+ * is not used by any other image of the graph and has been closed, so it is no longer stored
+ * under a name, the two transformations are applied together as a {@link FusedTransformation},
+ * so the image in between is never stored. The size of every image is known without computing
+ * it, and invalid arguments are reported when the operation is requested, like for the other
+ * images.
+ *
+ * <p>Closing a lazy image records that it is no longer stored. Its computed image is closed once
+ * no image made from it still needs it, which is when every such image has been computed into
+ * an image of its own or has been closed without being computed, so the memory of an off-heap
+ * image is released as soon as it is no longer needed.
+ */
+public class LazyImage extends AbstractImage implements CloseableImage {
+  private final int maxValue;
+  private LazyImage parent;
+  private UnaryOperator<Image> operation;
+  private ITransformation transformation;
+  private int uses;
+  private Image value;
+  private LazyImage claimed;
+  private int claims;
+  private boolean released;
+  private boolean closed;
+
+  /**
+   * Constructor for initialising a lazy image whose pixels are those of the given image.
+   *
+   * @param image the image
+   * @throws IllegalArgumentException if the image provided is null
+   */
+  public LazyImage(Image image) throws IllegalArgumentException {
+    super(checkImage(image).getWidth(), image.getHeight());
+    this.maxValue = image.getMaxValue();
+    this.value = image;
+  }
+
+  /**
+   * Constructor for initialising a lazy image that is computed from the given image.
+   *
+   * @param parent the image it is computed from
+   * @param width of the image
+   * @param height of the image
+   * @param operation the operation that computes the image from the parent
+   * @param transformation the transformation applied by the operation, or null if the operation
+   *                       is not a transformation
+   */
+  private LazyImage(LazyImage parent, int width, int height, UnaryOperator<Image> operation,
+                    ITransformation transformation) {
+    super(width, height);
+    this.maxValue = parent.maxValue;
+    this.parent = parent;
+    this.operation = operation;
+    this.transformation = transformation;
+    this.claimed = parent;
+    parent.use();
+  }
+
+  /**
+   * Checks if the pixels of the image have been computed.
+   *
+   * @return true if the pixels have been computed
+   */
+  public synchronized boolean isComputed() {
+    return this.value != null;
+  }
+
+  /**
+   * Gets the image with the computed pixels, computing them and the pixels of the images it is
+   * made from first if needed.
+   *
+   * @return the computed image
+   */
+  public synchronized Image force() {
+    if (this.value != null) {
+      return this.value;
+    }
+    if (this.closed) {
+      throw new IllegalStateException("Image has already been closed!");
+    }
+
+    Image source = null;
+    if (this.transformation == null) {
+      source = this.parent.force();
+      this.value = this.operation.apply(source);
+    } else {
+      // Collect the transformations of the images above this one that nothing else uses.
+      List<ITransformation> chain = new ArrayList<ITransformation>();
+      chain.add(this.transformation);
+      LazyImage top = this.parent;
+      LazyImage above = top.fuseInto(chain);
+      while (above != null) {
+        top = above;
+        above = top.fuseInto(chain);
+      }
+      Collections.reverse(chain);
+
+      Image image = top.force();
+      this.value = chain.size() == 1 ? this.operation.apply(image)
+              : image.applyTransformation(new FusedTransformation(chain));
+    }
+
+    // The image it was made from is no longer needed by this image, unless the computed image
+    // is a view of the same pixels.
+    this.parent = null;
+    this.operation = null;
+    this.transformation = null;
+    if (source == null || pixelsOf(this.value) != pixelsOf(source)) {
+      this.releaseClaim();
+    }
+    return this.value;
+  }
+
+  /**
+   * Gets the image that holds the pixels of the given image, which is the parent of a view.
+   *
+   * @param image the image
+   * @return the image that holds its pixels
+   */
+  private static Image pixelsOf(Image image) {
+    return image instanceof GeometricView ? ((GeometricView) image).getParent() : image;
+  }
+
+  /**
+   * Records that the image is no longer stored, and closes its computed image if no image made
+   * from it still needs it.
+   */
+  @Override
+  public synchronized void close() {
+    this.released = true;
+    this.closeIfUnclaimed();
+  }
+
+  /**
+   * Checks if the computed image of the image has been closed.
+   *
+   * @return true if the image has been closed
+   */
+  @Override
+  public synchronized boolean isClosed() {
+    return this.closed;
+  }
+
+  /**
+   * Records that another lazy image is computed from this one.
+   */
+  private synchronized void use() {
+    this.uses++;
+    this.claims++;
+  }
+
+  /**
+   * Records that an image made from this one no longer needs it, closing this image if it is no
+   * longer stored either.
+   */
+  private synchronized void unclaim() {
+    this.claims--;
+    this.closeIfUnclaimed();
+  }
+
+  /**
+   * Gives up the claim of this image on the image it is made from.
+   */
+  private void releaseClaim() {
+    LazyImage source = this.claimed;
+    this.claimed = null;
+    if (source != null) {
+      source.unclaim();
+    }
+  }
+
+  /**
+   * Closes the computed image, if there is one that holds memory outside of the heap, once the
+   * image is no longer stored and no image made from it needs it. The claim on the image this
+   * one is made from is then given up as well.
+   */
+  private synchronized void closeIfUnclaimed() {
+    if (this.closed || !this.released || this.claims > 0) {
+      return;
+    }
+
+    this.closed = true;
+    if (this.value instanceof CloseableImage) {
+      ((CloseableImage) this.value).close();
+    }
+    this.parent = null;
+    this.operation = null;
+    this.transformation = null;
+    this.releaseClaim();
+  }
+
+  /**
+   * Adds the transformation of this image to the given chain if it can be applied together
+   * with the transformation of an image made from it, which is the case when this image has not
+   * been computed, is the result of a transformation, is used by a single image and is no longer
+   * stored, so it will not be computed on its own later.
+   *
+   * @param chain the transformations of the images made from this one, last one first
+   * @return the image this one is computed from if the transformation was added, or null
+   */
+  private synchronized LazyImage fuseInto(List<ITransformation> chain) {
+    if (this.value != null || this.transformation == null || this.uses != 1 || !this.released) {
+      return null;
+    }
+    chain.add(this.transformation);
+    return this.parent;
+  }
+
+  /**
+   * Creates a lazy image of the same size that is computed from this one.
+   *
+   * @param operation the operation that computes the image from this one
+   * @return the lazy image
+   */
+  private LazyImage defer(UnaryOperator<Image> operation) {
+    return new LazyImage(this, this.width, this.height, operation, null);
+  }
+
+  /**
+   * Brighten the image by the given increment.
+   *
+   * @param increment the integer value to brighten the image by
+   * @throws IllegalArgumentException if the increment value is invalid
+   */
+  @Override
+  public Image brightenImage(int increment) {
+    return this.defer(image -> image.brightenImage(increment));
+  }
+
+  /**
+   * Flips the image vertically.
+   */
+  @Override
+  public Image flipVertical() {
+    return this.defer(Image::flipVertical);
+  }
+
+  /**
+   * Flips the image horizontally.
+   */
+  @Override
+  public Image flipHorizontal() {
+    return this.defer(Image::flipHorizontal);
+  }
+
+  /**
+   * Rotates the image clockwise by the given number of degrees.
+   *
+   * @param degrees the number of degrees to rotate by (90, 180 or 270)
+   * @return the rotated image
+   * @throws IllegalArgumentException if the number of degrees is invalid
+   */
+  @Override
+  public Image rotate(int degrees) throws IllegalArgumentException {
+    if (degrees != 90 && degrees != 180 && degrees != 270) {
+      throw new IllegalArgumentException("Invalid number of degrees provided: " + degrees);
+    }
+
+    boolean swapped = degrees != 180;
+    return new LazyImage(this, swapped ? this.height : this.width,
+            swapped ? this.width : this.height, image -> image.rotate(degrees), null);
+  }
+
+  /**
+   * Crops the image to the given region.
+   *
+   * @param col the column of the top left pixel of the region
+   * @param row the row of the top left pixel of the region
+   * @param width the width of the region
+   * @param height the height of the region
+   * @return the cropped image
+   * @throws IllegalArgumentException if the region is not inside the image
+   */
+  @Override
+  public Image crop(int col, int row, int width, int height) throws IllegalArgumentException {
+    GeometricView.checkRegion(this, col, row, width, height);
+    return new LazyImage(this, width, height, image -> image.crop(col, row, width, height), null);
+  }
+
+  /**
+   * Converts the image to grey scale using the component method given.
+   *
+   * @param method the component to use when converting to greyscale image
+   * @throws IllegalArgumentException if the method is invalid
+   */
+  @Override
+  public Image convertGreyscale(String method) throws IllegalArgumentException {
+    checkGreyMethod(method);
+    return this.defer(image -> image.convertGreyscale(method));
+  }
+
+  /**
+   * Writes the pixels of the image into an array of pixels indexed by column and then row,
+   * computing the image if needed.
+   *
+   * @return the pixels of the image.
+   */
+  @Override
+  public IPixel[][] writePixels() {
+    return this.force().writePixels();
+  }
+
+  /**
+   * Gets the max value of the channels of the image.
+   *
+   * @return the max value of the channels.
+   */
+  @Override
+  public int getMaxValue() {
+    return this.maxValue;
+  }
+
+  /**
+   * Gets the value of the given channel of the pixel at the given position, computing the image
+   * if needed.
+   *
+   * @param col the column of the pixel
+   * @param row the row of the pixel
+   * @param channel the index of the channel (0 for red, 1 for green, 2 for blue)
+   * @return the value of the channel
+   * @throws IllegalArgumentException if the position or the channel are invalid
+   */
+  @Override
+  public int getChannelValue(int col, int row, int channel) throws IllegalArgumentException {
+    return this.force().getChannelValue(col, row, channel);
+  }
+
+  /**
+   * Applies the given filter to every pixel in the image.
+   *
+   * @param filter the given filter.
+   * @return the image after the filter has been applied.
+   */
+  @Override
+  public Image applyFilter(IFilter filter) {
+    return this.defer(image -> image.applyFilter(filter));
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image.
+   *
+   * @param transformation the given matrix.
+   * @return the image after each pixel in the image has been transformed.
+   */
+  @Override
+  public Image applyTransformation(ITransformation transformation) {
+    return new LazyImage(this, this.width, this.height,
+            image -> image.applyTransformation(transformation), transformation);
+  }
+
+  /**
+   * Creates a buffered image of this image, computing the image if needed.
+   *
+   * @return the buffered image
+   */
+  @Override
+  public BufferedImage createBufferedImage() {
+    return this.force().createBufferedImage();
+  }
+
+  /**
+   * Gets the histogram of a given color of this image, computing the image if needed.
+   *
+   * @param component the given color
+   * @return the histogram of the color
+   * @throws IllegalArgumentException if the given color is invalid
+   */
+  @Override
+  public Map<Integer, Integer> getHistogram(String component) throws IllegalArgumentException {
+    checkHistogramComponent(component);
+    return this.force().getHistogram(component);
+  }
+
+  /**
+   * Compares any given object and checks if it's an image with the same pixels, computing the
+   * images if needed.
+   *
+   * @param o the provided object.
+   * @return true if the given object has the same pixels.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof LazyImage) {
+      o = ((LazyImage) o).force();
+    }
+    return this.force().equals(o);
+  }
+
+  /**
+   * Overrides hashCode for the class LazyImage.
+   *
+   * @return the hashCode of the computed image.
+   */
+  @Override
+  public int hashCode() {
+    return this.force().hashCode();
+  }
+
+  /**
+   * Checks that the given image is not null.
+   *
+   * @param image the image
+   * @return the image
+   * @throws IllegalArgumentException if the image provided is null
+   */
+  private static Image checkImage(Image image) throws IllegalArgumentException {
+    if (image == null) {
+      throw new IllegalArgumentException("Image provided was null!");
+    }
+    return image;
+  }
+}
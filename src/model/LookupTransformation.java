@@ -0,0 +1,347 @@
+package model;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * A class for a transformation that is compiled into lookup tables. Point operations, which
+ * change every channel on its own, such as brightening, are turned into a table with an entry
+ * for every value a channel can hold, so a channel is transformed with a single read from the
+ * table. Extracting a component sets every channel to the same value of the pixel, and the sums
+ * and products that the intensity and luma components need are read from tables as well.
+ *
+ * <p>The tables are built the first time the transformation is applied to an image with a
+ * given max value, and are kept for later images with the same max value. Every entry is
+ * computed with the same arithmetic as the operation it replaces, so the results are identical.
+ */
+public class LookupTransformation implements ITransformation {
+
+  private final IntBinaryOperator function;
+  private final String component;
+  private volatile Tables tables;
+
+  /**
+   * Constructor that initializes a point operation, which maps the value of every channel
+   * with the given function.
+   *
+   * @param function the function that gives the new value of a channel from its value and the
+   *                 maxValue that any channel can be. The new value must be between 0 and the
+   *                 max value.
+   */
+  public LookupTransformation(IntBinaryOperator function) {
+    this.function = function;
+    this.component = null;
+  }
+
+  /**
+   * Constructor that initializes the extraction of a component, which sets every channel to the
+   * value of the given component of the pixel.
+   *
+   * @param component the component, which is "red", "green", "blue", "value", "intensity" or
+   *                  "luma".
+   * @throws IllegalArgumentException if the component is invalid.
+   */
+  public LookupTransformation(String component) throws IllegalArgumentException {
+    AbstractImage.checkGreyMethod(component);
+
+    this.function = null;
+    this.component = component;
+  }
+
+  /**
+   * Creates the point operation that brightens every channel by the given increment, clamping
+   * the values between 0 and the max value.
+   *
+   * @param increment the value to add to every channel, which may be negative.
+   * @return the transformation.
+   */
+  public static LookupTransformation brighten(int increment) {
+    return new LookupTransformation((value, maxValue) ->
+            Math.min(Math.max(value + increment, 0), maxValue));
+  }
+
+  /**
+   * Composes this point operation with the given one into a single point operation, whose table
+   * holds the result of applying the given operation to every entry of the table of this one.
+   *
+   * @param next the point operation that is applied after this one.
+   * @return the composed point operation, or null if either transformation extracts a
+   *         component.
+   */
+  LookupTransformation andThen(LookupTransformation next) {
+    if (this.component != null || next.component != null) {
+      return null;
+    }
+
+    IntBinaryOperator first = this.function;
+    IntBinaryOperator second = next.function;
+    return new LookupTransformation((value, maxValue) ->
+            second.applyAsInt(first.applyAsInt(value, maxValue), maxValue));
+  }
+
+  /**
+   * Applies the transformation to the given pixel.
+   *
+   * @param pixel the given pixel.
+   * @return the pixel after the transformation has been applied.
+   */
+  @Override
+  public IPixel transformPixel(IPixel pixel) {
+    int red = pixel.getChannelValue("red");
+    int green = pixel.getChannelValue("green");
+    int blue = pixel.getChannelValue("blue");
+    int maxValue = pixel.getMaxValue();
+
+    return new Pixel(Integer.bitCount(maxValue),
+            this.transformChannel(0, red, green, blue, maxValue),
+            this.transformChannel(1, red, green, blue, maxValue),
+            this.transformChannel(2, red, green, blue, maxValue));
+  }
+
+  /**
+   * Applies the transformation to the given channel values and returns the value of one of the
+   * resulting channels.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param red the red value of the pixel.
+   * @param green the green value of the pixel.
+   * @param blue the blue value of the pixel.
+   * @param maxValue the maxValue that any channel can be.
+   * @return the value of the given channel after the transformation has been applied.
+   */
+  @Override
+  public int transformChannel(int channel, int red, int green, int blue, int maxValue) {
+    Tables t = this.tablesFor(maxValue);
+    if (this.component == null) {
+      return t.values[channel == 0 ? red : channel == 1 ? green : blue];
+    }
+
+    return this.component(t, red, green, blue);
+  }
+
+  /**
+   * Applies the transformation to a run of pixels whose channels are given as separate planes,
+   * and writes one of the resulting channels. Every loop reads the tables once per value and
+   * has no branches.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param red the red values of the pixels.
+   * @param green the green values of the pixels.
+   * @param blue the blue values of the pixels.
+   * @param result the array to write the values of the resulting channel into.
+   * @param length the number of pixels.
+   * @param maxValue the maxValue that any channel can be.
+   */
+  @Override
+  public void transformPlanes(int channel, int[] red, int[] green, int[] blue, int[] result,
+                              int length, int maxValue) {
+    Tables t = this.tablesFor(maxValue);
+    if (this.component == null) {
+      int[] plane = channel == 0 ? red : channel == 1 ? green : blue;
+      int[] values = t.values;
+      for (int i = 0; i < length; i++) {
+        result[i] = values[plane[i]];
+      }
+      return;
+    }
+
+    switch (this.component) {
+      case "red":
+        System.arraycopy(red, 0, result, 0, length);
+        break;
+      case "green":
+        System.arraycopy(green, 0, result, 0, length);
+        break;
+      case "blue":
+        System.arraycopy(blue, 0, result, 0, length);
+        break;
+      case "value":
+        for (int i = 0; i < length; i++) {
+          result[i] = Math.max(red[i], Math.max(green[i], blue[i]));
+        }
+        break;
+      case "intensity":
+        int[] thirds = t.values;
+        for (int i = 0; i < length; i++) {
+          result[i] = thirds[red[i] + green[i] + blue[i]];
+        }
+        break;
+      default:
+        double[] redLuma = t.red;
+        double[] greenLuma = t.green;
+        double[] blueLuma = t.blue;
+        for (int i = 0; i < length; i++) {
+          result[i] = (int) (redLuma[red[i]] + greenLuma[green[i]] + blueLuma[blue[i]]);
+        }
+        break;
+    }
+  }
+
+  /**
+   * Applies the transformation to a run of pixels whose channels are given as separate planes,
+   * and writes all three resulting channels. The given channels are left unchanged.
+   *
+   * @param red the red values of the pixels.
+   * @param green the green values of the pixels.
+   * @param blue the blue values of the pixels.
+   * @param results the three arrays to write the red, green and blue resulting values into.
+   * @param length the number of pixels.
+   * @param maxValue the maxValue that any channel can be.
+   */
+  @Override
+  public void transformRow(int[] red, int[] green, int[] blue, int[][] results, int length,
+                           int maxValue) {
+    for (int c = 0; c < 3; c++) {
+      this.transformPlanes(c, red, green, blue, results[c], length, maxValue);
+    }
+  }
+
+  /**
+   * Applies the transformation to a run of packed 0xRRGGBB pixels with 8 bits per channel. The
+   * channels are read from the tables straight from the packed pixels, without unpacking them
+   * into planes first.
+   *
+   * @param raster the packed pixels.
+   * @param result the array to write the transformed pixels into.
+   * @param from the index of the first pixel.
+   * @param to the index after the last pixel.
+   */
+  void transformPacked(int[] raster, int[] result, int from, int to) {
+    Tables t = this.tablesFor(AbstractImage.MAX_VALUE);
+    if (this.component == null) {
+      int[] values = t.values;
+      for (int i = from; i < to; i++) {
+        int rgb = raster[i];
+        result[i] = (values[(rgb >> 16) & 0xFF] << 16) | (values[(rgb >> 8) & 0xFF] << 8)
+                | values[rgb & 0xFF];
+      }
+      return;
+    }
+
+    for (int i = from; i < to; i++) {
+      int rgb = raster[i];
+      int grey = this.component(t, (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+      result[i] = (grey << 16) | (grey << 8) | grey;
+    }
+  }
+
+  /**
+   * Applies the transformation to a row of pixels with 8 bits per channel that are stored as
+   * three bytes each, in place.
+   *
+   * @param bytes the red, green and blue bytes of every pixel.
+   * @param length the number of pixels.
+   */
+  void transformInterleaved(byte[] bytes, int length) {
+    Tables t = this.tablesFor(AbstractImage.MAX_VALUE);
+    if (this.component == null) {
+      int[] values = t.values;
+      for (int k = 0; k < 3 * length; k++) {
+        bytes[k] = (byte) values[bytes[k] & 0xFF];
+      }
+      return;
+    }
+
+    for (int k = 0; k < 3 * length; k += 3) {
+      byte grey = (byte) this.component(t, bytes[k] & 0xFF, bytes[k + 1] & 0xFF,
+              bytes[k + 2] & 0xFF);
+      bytes[k] = grey;
+      bytes[k + 1] = grey;
+      bytes[k + 2] = grey;
+    }
+  }
+
+  /**
+   * Gets the value of the component of a pixel.
+   *
+   * @param t the tables.
+   * @param red the red value of the pixel.
+   * @param green the green value of the pixel.
+   * @param blue the blue value of the pixel.
+   * @return the value of the component.
+   */
+  private int component(Tables t, int red, int green, int blue) {
+    switch (this.component) {
+      case "red":
+        return red;
+      case "green":
+        return green;
+      case "blue":
+        return blue;
+      case "value":
+        return Math.max(red, Math.max(green, blue));
+      case "intensity":
+        return t.values[red + green + blue];
+      default:
+        return (int) (t.red[red] + t.green[green] + t.blue[blue]);
+    }
+  }
+
+  /**
+   * Gets the tables for the given max value, building them if the last tables were built for
+   * a different max value.
+   *
+   * @param maxValue the maxValue that any channel can be.
+   * @return the tables.
+   */
+  private Tables tablesFor(int maxValue) {
+    Tables t = this.tables;
+    if (t == null || t.maxValue != maxValue) {
+      t = new Tables(maxValue, this.function, this.component);
+      this.tables = t;
+    }
+    return t;
+  }
+
+  /**
+   * The tables of a transformation for a single max value.
+   */
+  private static final class Tables {
+    private final int maxValue;
+    private final int[] values;
+    private final double[] red;
+    private final double[] green;
+    private final double[] blue;
+
+    /**
+     * Constructor that builds the tables that the given operation needs.
+     *
+     * @param maxValue the maxValue that any channel can be.
+     * @param function the function of a point operation, or null for a component.
+     * @param component the component to extract, or null for a point operation.
+     */
+    private Tables(int maxValue, IntBinaryOperator function, String component) {
+      this.maxValue = maxValue;
+      int[] values = null;
+      double[] red = null;
+      double[] green = null;
+      double[] blue = null;
+
+      if (component == null) {
+        values = new int[maxValue + 1];
+        for (int v = 0; v <= maxValue; v++) {
+          values[v] = function.applyAsInt(v, maxValue);
+        }
+      } else if (component.equals("intensity")) {
+        // The table is indexed by the sum of the three channels.
+        values = new int[3 * maxValue + 1];
+        for (int sum = 0; sum < values.length; sum++) {
+          values[sum] = sum / 3;
+        }
+      } else if (component.equals("luma")) {
+        red = new double[maxValue + 1];
+        green = new double[maxValue + 1];
+        blue = new double[maxValue + 1];
+        for (int v = 0; v <= maxValue; v++) {
+          red[v] = v * AbstractImage.RED_LUMA_FACTOR;
+          green[v] = v * AbstractImage.GREEN_LUMA_FACTOR;
+          blue[v] = v * AbstractImage.BLUE_LUMA_FACTOR;
+        }
+      }
+
+      this.values = values;
+      this.red = red;
+      this.green = green;
+      this.blue = blue;
+    }
+  }
+}
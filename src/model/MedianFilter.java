@@ -0,0 +1,296 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Class for a filter that replaces every value with the median of the square of values around
+ * it, which removes noise while keeping edges sharp. Values outside the image are treated as 0,
+ * like for every other filter.
+ *
+ * <p>Channels with 8 bits are filtered with the algorithm of Perreault and Hebert: a histogram
+ * is kept for every column of the square, and the histogram of the square is moved along a row
+ * by adding the histogram of the column that enters it and subtracting the one that leaves. The
+ * histograms have a coarse level of 16 bins on top of the 256 values. Only the coarse bins are
+ * moved at every pixel, and the fine bins of a coarse bin are only brought up to date when the
+ * median falls in it, so the cost per pixel does not depend on the radius. Channels with
+ * more bits would need a histogram of every possible value for every column, so they are
+ * filtered with the algorithm of Huang instead, which keeps a single histogram and moves the
+ * median from one pixel to the next.
+ */
+public class MedianFilter implements IFilter {
+  private static final int VALUES = 256;
+  private static final int COARSE_SHIFT = 4;
+  private static final int COARSE_VALUES = VALUES >> COARSE_SHIFT;
+
+  private final int radius;
+
+  /**
+   * Constructor that initializes the filter with the given radius.
+   *
+   * @param radius the number of pixels on each side of the centre of the square.
+   * @throws IllegalArgumentException if the radius is negative.
+   */
+  public MedianFilter(int radius) throws IllegalArgumentException {
+    if (radius < 0) {
+      throw new IllegalArgumentException("Radius must not be negative!");
+    }
+
+    this.radius = radius;
+  }
+
+  /**
+   * Gets the size of the filter.
+   *
+   * @return the size.
+   */
+  @Override
+  public int getSize() {
+    return 2 * this.radius + 1;
+  }
+
+  /**
+   * Gets the value of the pixel after the filter has been applied to it.
+   *
+   * @param pixels the pixels to which the filter has to applied.
+   * @param maxValue the maxValue that any pixel can be.
+   * @return the median of the pixels.
+   * @throws IllegalArgumentException if the pixels are not the same size as the filter.
+   */
+  @Override
+  public int filteredValue(int[][] pixels, int maxValue) throws IllegalArgumentException {
+    int size = this.getSize();
+    if (pixels.length != size || pixels[0].length != size) {
+      throw new IllegalArgumentException("Values array provided is not the same size as the " +
+              "kernel!");
+    }
+
+    int[] values = new int[size * size];
+    for (int i = 0; i < size; i++) {
+      System.arraycopy(pixels[i], 0, values, i * size, size);
+    }
+    Arrays.sort(values);
+    return values[values.length / 2];
+  }
+
+  /**
+   * Applies the filter to every value of a single channel of an image. Values outside the
+   * image are treated as 0. Every band of rows is filtered on its own.
+   *
+   * @param plane the values of the channel in row-major order.
+   * @param result the array to write the filtered values into in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param maxValue the maxValue that any pixel can be.
+   */
+  @Override
+  public void filterPlane(int[] plane, int[] result, int width, int height, int maxValue) {
+    if (maxValue < VALUES) {
+      Parallel.forEachBand(height, (fromRow, toRow) ->
+              this.columnHistograms(plane, result, width, height, fromRow, toRow));
+    } else {
+      Parallel.forEachBand(height, (fromRow, toRow) ->
+              this.movingMedian(plane, result, width, height, maxValue, fromRow, toRow));
+    }
+  }
+
+  /**
+   * Filters a band of rows of a channel with 8 bits using a histogram for every column.
+   *
+   * @param plane the values of the channel in row-major order.
+   * @param result the array to write the filtered values into in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param fromRow the first row of the band.
+   * @param toRow the row after the last row of the band.
+   */
+  private void columnHistograms(int[] plane, int[] result, int width, int height, int fromRow,
+                                int toRow) {
+    int size = this.getSize();
+    int rank = size * size / 2;
+    // Column c of the histograms is column c - radius of the image, and the columns outside the
+    // image only hold zeros.
+    int columns = width + 2 * this.radius;
+    int[] fine = new int[columns * VALUES];
+    int[] coarse = new int[columns * COARSE_VALUES];
+    for (int c = 0; c < columns; c++) {
+      int x = c - this.radius;
+      for (int y = fromRow - this.radius; y <= fromRow + this.radius; y++) {
+        int value = x < 0 || x >= width || y < 0 || y >= height ? 0 : plane[y * width + x];
+        fine[c * VALUES + value]++;
+        coarse[c * COARSE_VALUES + (value >> COARSE_SHIFT)]++;
+      }
+    }
+
+    // The fine bins of the square are only brought up to date for the coarse bin that holds the
+    // median, and updated[b] is the column of the square that the fine bins of b were last
+    // brought up to date for.
+    int[] kernelFine = new int[VALUES];
+    int[] kernelCoarse = new int[COARSE_VALUES];
+    int[] updated = new int[COARSE_VALUES];
+    int fineBins = VALUES / COARSE_VALUES;
+    for (int y = fromRow; y < toRow; y++) {
+      if (y > fromRow) {
+        this.moveColumns(plane, fine, coarse, width, height, y);
+      }
+
+      Arrays.fill(kernelCoarse, 0);
+      Arrays.fill(updated, -size);
+      for (int c = 0; c < size; c++) {
+        addHistogram(kernelCoarse, coarse, c * COARSE_VALUES, 0, COARSE_VALUES, 1);
+      }
+
+      for (int x = 0; x < width; x++) {
+        if (x > 0) {
+          addHistogram(kernelCoarse, coarse, (x + size - 1) * COARSE_VALUES, 0, COARSE_VALUES,
+                  1);
+          addHistogram(kernelCoarse, coarse, (x - 1) * COARSE_VALUES, 0, COARSE_VALUES, -1);
+        }
+
+        int below = 0;
+        int bin = 0;
+        while (below + kernelCoarse[bin] <= rank) {
+          below += kernelCoarse[bin];
+          bin++;
+        }
+
+        int first = bin * fineBins;
+        if (x - updated[bin] >= size) {
+          Arrays.fill(kernelFine, first, first + fineBins, 0);
+          for (int c = x; c < x + size; c++) {
+            addHistogram(kernelFine, fine, c * VALUES + first, first, fineBins, 1);
+          }
+        } else {
+          for (int c = updated[bin] + 1; c <= x; c++) {
+            addHistogram(kernelFine, fine, (c + size - 1) * VALUES + first, first, fineBins, 1);
+            addHistogram(kernelFine, fine, (c - 1) * VALUES + first, first, fineBins, -1);
+          }
+        }
+        updated[bin] = x;
+
+        int value = first;
+        while (below + kernelFine[value] <= rank) {
+          below += kernelFine[value];
+          value++;
+        }
+        result[y * width + x] = value;
+      }
+    }
+  }
+
+  /**
+   * Moves the histogram of every column of the image down to the given row, removing the value
+   * of the row that leaves the square and adding the value of the row that enters it.
+   *
+   * @param plane the values of the channel in row-major order.
+   * @param fine the histograms of the columns.
+   * @param coarse the coarse histograms of the columns.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param y the new row.
+   */
+  private void moveColumns(int[] plane, int[] fine, int[] coarse, int width, int height, int y) {
+    int leaving = y - this.radius - 1;
+    int entering = y + this.radius;
+    for (int x = 0; x < width; x++) {
+      int c = x + this.radius;
+      int old = leaving < 0 ? 0 : plane[leaving * width + x];
+      int value = entering >= height ? 0 : plane[entering * width + x];
+      fine[c * VALUES + old]--;
+      coarse[c * COARSE_VALUES + (old >> COARSE_SHIFT)]--;
+      fine[c * VALUES + value]++;
+      coarse[c * COARSE_VALUES + (value >> COARSE_SHIFT)]++;
+    }
+  }
+
+  /**
+   * Adds some of the bins of a histogram, or subtracts them if the sign is negative, to the
+   * given histogram.
+   *
+   * @param histogram the histogram to add to.
+   * @param histograms the array holding the histogram to add.
+   * @param start the index of the first bin of the histogram to add.
+   * @param first the index of the first bin to add to.
+   * @param bins the number of bins.
+   * @param sign 1 to add the histogram or -1 to subtract it.
+   */
+  private static void addHistogram(int[] histogram, int[] histograms, int start, int first,
+                                   int bins, int sign) {
+    for (int b = 0; b < bins; b++) {
+      histogram[first + b] += sign * histograms[start + b];
+    }
+  }
+
+  /**
+   * Filters a band of rows of a channel with more than 8 bits using a single histogram that is
+   * moved along every row. The median is moved from the median of the previous pixel, so only
+   * the bins between the two medians are looked at.
+   *
+   * @param plane the values of the channel in row-major order.
+   * @param result the array to write the filtered values into in row-major order.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param maxValue the maxValue that any pixel can be.
+   * @param fromRow the first row of the band.
+   * @param toRow the row after the last row of the band.
+   */
+  private void movingMedian(int[] plane, int[] result, int width, int height, int maxValue,
+                            int fromRow, int toRow) {
+    int size = this.getSize();
+    int rank = size * size / 2;
+    int[] histogram = new int[maxValue + 1];
+
+    for (int y = fromRow; y < toRow; y++) {
+      Arrays.fill(histogram, 0);
+      for (int x = -this.radius - 1; x < this.radius; x++) {
+        this.addColumn(plane, histogram, width, height, x, y, 1, 0);
+      }
+
+      int median = 0;
+      int below = 0;
+      for (int x = 0; x < width; x++) {
+        below += this.addColumn(plane, histogram, width, height, x - this.radius - 1, y, -1,
+                median);
+        below += this.addColumn(plane, histogram, width, height, x + this.radius, y, 1, median);
+
+        while (below > rank) {
+          median--;
+          below -= histogram[median];
+        }
+        while (below + histogram[median] <= rank) {
+          below += histogram[median];
+          median++;
+        }
+        result[y * width + x] = median;
+      }
+    }
+  }
+
+  /**
+   * Adds the values of a column of the square around a pixel to the histogram, or removes them
+   * if the sign is negative, and counts the values below the current median. The square of the
+   * pixel before the first pixel of a row starts out with one column too many, which is removed
+   * before the first pixel.
+   *
+   * @param plane the values of the channel in row-major order.
+   * @param histogram the histogram.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param x the column of the image.
+   * @param y the row of the centre of the square.
+   * @param sign 1 to add the values or -1 to remove them.
+   * @param median the current median.
+   * @return the change in the number of values below the median.
+   */
+  private int addColumn(int[] plane, int[] histogram, int width, int height, int x, int y,
+                        int sign, int median) {
+    int below = 0;
+    for (int row = y - this.radius; row <= y + this.radius; row++) {
+      int value = x < 0 || x >= width || row < 0 || row >= height ? 0 : plane[row * width + x];
+      histogram[value] += sign;
+      if (value < median) {
+        below += sign;
+      }
+    }
+    return below;
+  }
+}
@@ -0,0 +1,33 @@
+package model;
+
+/**
+ * Interface that represents an image whose pixels can be overwritten by an operation, so the
+ * result of the operation does not need memory of its own. The image the operation is applied to
+ * is changed, so these operations must only be used when nothing else will read the image again.
+ * An image whose pixels cannot be written, for example because they are shared with another
+ * image, returns a new image instead, like the operations of {@link Image}.
+ */
+public interface MutableImage extends Image {
+
+  /**
+   * Applies the given matrix to every pixel in the image, overwriting its pixels if possible.
+   *
+   * @param transformation the given matrix.
+   * @return this image after its pixels have been transformed, or a new transformed image.
+   */
+  Image applyTransformationInPlace(ITransformation transformation);
+
+  /**
+   * Flips the image vertically, overwriting its pixels if possible.
+   *
+   * @return this image after it has been flipped, or a new flipped image.
+   */
+  Image flipVerticalInPlace();
+
+  /**
+   * Flips the image horizontally, overwriting its pixels if possible.
+   *
+   * @return this image after it has been flipped, or a new flipped image.
+   */
+  Image flipHorizontalInPlace();
+}
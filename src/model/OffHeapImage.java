@@ -0,0 +1,612 @@
+package model;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+
+/**
+ * Class that implements the operations offered by an image whose pixels live outside of the
+ * Java heap. The pixels are stored as interleaved red, green and blue bytes, row by row, in
+ * direct byte buffers. Large images are split into several buffers of whole rows so that images
+ * bigger than 2 GB can be stored. Every channel has 8 bits.
+ *
+ * <p>Only a row or a few rows of pixels are copied onto the heap while an operation runs, so the
+ * heap and the garbage collector are not affected by the size of the image. The image must be
+ * closed once it is no longer needed, after which it cannot be used.</p>
+ *
+ * <p>An image can also be mapped straight from a file with {@link #map}, in which case its pixels
+ * are only read from the file when an operation touches them. Transformations and flips can
+ * overwrite the rows of an image that is not mapped when nothing else reads the image.</p>
+ */
+public class OffHeapImage extends AbstractImage implements CloseableImage, MutableImage {
+  private static final int MAX_BUFFER_SIZE = 1 << 30;
+  private static final int FILTER_BAND_ROWS = 64;
+  private static final Object UNSAFE;
+  private static final Method INVOKE_CLEANER;
+
+  static {
+    // Unsafe.invokeCleaner frees a direct buffer at once. It is looked up by reflection, so the
+    // image still works, only releasing its memory later, on a JVM that does not offer it.
+    Object unsafe = null;
+    Method invokeCleaner = null;
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field field = unsafeClass.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      unsafe = field.get(null);
+      invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      unsafe = null;
+      invokeCleaner = null;
+    }
+    UNSAFE = unsafe;
+    INVOKE_CLEANER = invokeCleaner;
+  }
+
+  private final int rowsPerBuffer;
+  private final int rowSize;
+  private ByteBuffer[] buffers;
+
+  /**
+   * Constructor for initialising a black OffHeapImage of the given size.
+   *
+   * @param width of the image
+   * @param height of the image
+   * @throws IllegalArgumentException if the width or height are invalid
+   */
+  public OffHeapImage(int width, int height) throws IllegalArgumentException {
+    this(width, height, true);
+  }
+
+  /**
+   * Constructor for initialising the size of an OffHeapImage, optionally allocating its buffers.
+   *
+   * @param width of the image
+   * @param height of the image
+   * @param allocate whether to allocate the buffers
+   * @throws IllegalArgumentException if the width or height are invalid
+   */
+  private OffHeapImage(int width, int height, boolean allocate) throws IllegalArgumentException {
+    super(width, height);
+
+    if ((long) width * 3 > MAX_BUFFER_SIZE) {
+      throw new IllegalArgumentException("Invalid size of image!");
+    }
+
+    this.rowSize = width * 3;
+    this.rowsPerBuffer = Math.max(1, MAX_BUFFER_SIZE / Math.max(1, this.rowSize));
+
+    int bufferCount = (height + this.rowsPerBuffer - 1) / this.rowsPerBuffer;
+    this.buffers = new ByteBuffer[bufferCount];
+    for (int i = 0; i < bufferCount && allocate; i++) {
+      this.buffers[i] = ByteBuffer.allocateDirect(this.rowsInBuffer(i) * this.rowSize);
+    }
+  }
+
+  /**
+   * Creates an image whose pixels are mapped read-only from the given file. The pixels must be
+   * stored in the file as interleaved red, green and blue bytes, row by row, starting at the given
+   * offset. The pixels of the file are only read when they are used, and every operation on the
+   * image produces a new image that is not mapped.
+   *
+   * @param channel the channel of the file
+   * @param offset the position of the first pixel in the file
+   * @param width of the image
+   * @param height of the image
+   * @return the mapped image
+   * @throws IOException if the file cannot be mapped
+   * @throws IllegalArgumentException if the width or height are invalid
+   */
+  public static OffHeapImage map(FileChannel channel, long offset, int width, int height)
+          throws IOException, IllegalArgumentException {
+    OffHeapImage image = new OffHeapImage(width, height, false);
+    for (int i = 0; i < image.buffers.length; i++) {
+      image.buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+              offset + (long) i * image.rowsPerBuffer * image.rowSize,
+              (long) image.rowsInBuffer(i) * image.rowSize);
+    }
+    return image;
+  }
+
+  /**
+   * Writes the given packed 0xRRGGBB pixels into the given row of the image. This is meant to be
+   * used while the image is being filled in, before it is shared, and cannot be used on an image
+   * mapped from a file.
+   *
+   * @param row the row to write
+   * @param rgb the packed pixels of the row
+   * @throws IllegalArgumentException if the row is invalid or the pixels do not fit the row
+   */
+  public void writeRow(int row, int[] rgb) throws IllegalArgumentException {
+    if (row < 0 || row >= this.height || rgb.length < this.width) {
+      throw new IllegalArgumentException("Invalid row provided!");
+    }
+
+    byte[] bytes = new byte[this.rowSize];
+    for (int x = 0; x < this.width; x++) {
+      bytes[3 * x] = (byte) (rgb[x] >> 16);
+      bytes[3 * x + 1] = (byte) (rgb[x] >> 8);
+      bytes[3 * x + 2] = (byte) rgb[x];
+    }
+    this.putRow(row, bytes);
+  }
+
+  /**
+   * Reads the given row of the image as packed 0xRRGGBB pixels.
+   *
+   * @param row the row to read
+   * @param rgb the array to read the pixels into
+   * @throws IllegalArgumentException if the row is invalid or the pixels do not fit the array
+   */
+  public void readRow(int row, int[] rgb) throws IllegalArgumentException {
+    if (row < 0 || row >= this.height || rgb.length < this.width) {
+      throw new IllegalArgumentException("Invalid row provided!");
+    }
+
+    byte[] bytes = new byte[this.rowSize];
+    this.getRow(row, bytes);
+    for (int x = 0; x < this.width; x++) {
+      rgb[x] = ((bytes[3 * x] & 0xFF) << 16) | ((bytes[3 * x + 1] & 0xFF) << 8)
+              | (bytes[3 * x + 2] & 0xFF);
+    }
+  }
+
+  /**
+   * Brighten the image by the given increment.
+   *
+   * @param increment the integer value to brighten the image by
+   * @throws IllegalArgumentException if the increment value is invalid
+   */
+  @Override
+  public Image brightenImage(int increment) {
+    OffHeapImage result = new OffHeapImage(this.width, this.height);
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      byte[] bytes = new byte[this.rowSize];
+      for (int y = fromRow; y < toRow; y++) {
+        this.getRow(y, bytes);
+        for (int i = 0; i < bytes.length; i++) {
+          bytes[i] = (byte) clamp((bytes[i] & 0xFF) + increment);
+        }
+        result.putRow(y, bytes);
+      }
+    });
+
+    return result;
+  }
+
+  /**
+   * Flips the image vertically.
+   */
+  @Override
+  public Image flipVertical() {
+    OffHeapImage result = new OffHeapImage(this.width, this.height);
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      byte[] bytes = new byte[this.rowSize];
+      for (int y = fromRow; y < toRow; y++) {
+        this.getRow(this.height - 1 - y, bytes);
+        result.putRow(y, bytes);
+      }
+    });
+
+    return result;
+  }
+
+  /**
+   * Flips the image horizontally.
+   */
+  @Override
+  public Image flipHorizontal() {
+    OffHeapImage result = new OffHeapImage(this.width, this.height);
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      byte[] bytes = new byte[this.rowSize];
+      byte[] flipped = new byte[this.rowSize];
+      for (int y = fromRow; y < toRow; y++) {
+        this.getRow(y, bytes);
+        for (int x = 0; x < this.width; x++) {
+          int from = 3 * (this.width - 1 - x);
+          flipped[3 * x] = bytes[from];
+          flipped[3 * x + 1] = bytes[from + 1];
+          flipped[3 * x + 2] = bytes[from + 2];
+        }
+        result.putRow(y, flipped);
+      }
+    });
+
+    return result;
+  }
+
+  /**
+   * Converts the image to grey scale using the component method given.
+   *
+   * @param method the component to use when converting to greyscale image
+   * @throws IllegalArgumentException if the method is invalid
+   */
+  @Override
+  public Image convertGreyscale(String method) throws IllegalArgumentException {
+    checkGreyMethod(method);
+    OffHeapImage result = new OffHeapImage(this.width, this.height);
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      byte[] bytes = new byte[this.rowSize];
+      for (int y = fromRow; y < toRow; y++) {
+        this.getRow(y, bytes);
+        for (int i = 0; i < bytes.length; i += 3) {
+          byte grey = (byte) getGreyValue(method, bytes[i] & 0xFF, bytes[i + 1] & 0xFF,
+                  bytes[i + 2] & 0xFF);
+          bytes[i] = grey;
+          bytes[i + 1] = grey;
+          bytes[i + 2] = grey;
+        }
+        result.putRow(y, bytes);
+      }
+    });
+
+    return result;
+  }
+
+  /**
+   * Writes the pixels of the image into an array of pixels indexed by column and then row.
+   * This adapts the image for callers that still expect pixel objects, and copies the whole image
+   * onto the heap.
+   *
+   * @return the pixels of the image.
+   */
+  @Override
+  public IPixel[][] writePixels() {
+    IPixel[][] pixels = new IPixel[this.width][this.height];
+    byte[] bytes = new byte[this.rowSize];
+
+    for (int y = 0; y < this.height; y++) {
+      this.getRow(y, bytes);
+      for (int x = 0; x < this.width; x++) {
+        pixels[x][y] = new Pixel(bytes[3 * x] & 0xFF, bytes[3 * x + 1] & 0xFF,
+                bytes[3 * x + 2] & 0xFF);
+      }
+    }
+
+    return pixels;
+  }
+
+  /**
+   * Gets the value of the given channel of the pixel at the given position.
+   *
+   * @param col the column of the pixel
+   * @param row the row of the pixel
+   * @param channel the index of the channel (0 for red, 1 for green, 2 for blue)
+   * @return the value of the channel
+   * @throws IllegalArgumentException if the position or the channel are invalid
+   */
+  @Override
+  public int getChannelValue(int col, int row, int channel) throws IllegalArgumentException {
+    this.checkPosition(col, row, channel);
+    return this.buffer(row).get(this.offset(row) + 3 * col + channel) & 0xFF;
+  }
+
+  /**
+   * Applies the given filter to every pixel in the image. Pixels outside the image are
+   * treated as 0. The image is filtered in bands of rows, so only a band and the rows around it
+   * covered by the filter are copied onto the heap at a time. Only the rows around a band that
+   * are inside the image are copied, so the filter sees the edges of the image where they are.
+   *
+   * @param filter the given filter.
+   * @return the image after the filter has been applied.
+   */
+  @Override
+  public Image applyFilter(IFilter filter) {
+    OffHeapImage result = new OffHeapImage(this.width, this.height);
+    int half = filter.getSize() / 2;
+    int bandSize = Math.max(1, Math.min(this.height, FILTER_BAND_ROWS));
+    int bandHeight = bandSize + 2 * half;
+    byte[] bytes = new byte[this.rowSize];
+    int[][] planes = new int[3][this.width * bandHeight];
+    int[] filtered = new int[this.width * bandHeight];
+    byte[][] out = new byte[bandSize][this.rowSize];
+
+    for (int start = 0; start < this.height; start += bandSize) {
+      int rows = Math.min(bandSize, this.height - start);
+      int fromRow = Math.max(0, start - half);
+      int toRow = Math.min(this.height, start + rows + half);
+      for (int row = fromRow; row < toRow; row++) {
+        this.getRow(row, bytes);
+        int j = row - fromRow;
+        for (int x = 0; x < this.width; x++) {
+          for (int channel = 0; channel < 3; channel++) {
+            planes[channel][j * this.width + x] = bytes[3 * x + channel] & 0xFF;
+          }
+        }
+      }
+
+      for (int channel = 0; channel < 3; channel++) {
+        filter.filterPlane(planes[channel], filtered, this.width, toRow - fromRow, MAX_VALUE);
+        for (int r = 0; r < rows; r++) {
+          for (int x = 0; x < this.width; x++) {
+            out[r][3 * x + channel] = (byte) filtered[(start + r - fromRow) * this.width + x];
+          }
+        }
+      }
+
+      for (int r = 0; r < rows; r++) {
+        result.putRow(start + r, out[r]);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image. Lookup tables are applied to the
+   * bytes of every row directly.
+   *
+   * @param transformation the given matrix.
+   * @return the image after each pixel in the image has been transformed.
+   */
+  @Override
+  public Image applyTransformation(ITransformation transformation) {
+    OffHeapImage result = new OffHeapImage(this.width, this.height);
+    this.transformInto(transformation, result);
+    return result;
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image, overwriting its rows unless the image
+   * is mapped from a file.
+   *
+   * @param transformation the given matrix.
+   * @return this image after its pixels have been transformed, or a new transformed image.
+   */
+  @Override
+  public Image applyTransformationInPlace(ITransformation transformation) {
+    if (!this.isWritable()) {
+      return this.applyTransformation(transformation);
+    }
+
+    this.transformInto(transformation, this);
+    return this;
+  }
+
+  /**
+   * Flips the image vertically by swapping its rows, unless the image is mapped from a file.
+   *
+   * @return this image after it has been flipped, or a new flipped image.
+   */
+  @Override
+  public Image flipVerticalInPlace() {
+    if (!this.isWritable()) {
+      return this.flipVertical();
+    }
+
+    Parallel.forEachBand(this.height / 2, (fromRow, toRow) -> {
+      byte[] top = new byte[this.rowSize];
+      byte[] bottom = new byte[this.rowSize];
+      for (int y = fromRow; y < toRow; y++) {
+        this.getRow(y, top);
+        this.getRow(this.height - 1 - y, bottom);
+        this.putRow(y, bottom);
+        this.putRow(this.height - 1 - y, top);
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Flips the image horizontally by reversing every row, unless the image is mapped from a file.
+   *
+   * @return this image after it has been flipped, or a new flipped image.
+   */
+  @Override
+  public Image flipHorizontalInPlace() {
+    if (!this.isWritable()) {
+      return this.flipHorizontal();
+    }
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      byte[] bytes = new byte[this.rowSize];
+      for (int y = fromRow; y < toRow; y++) {
+        this.getRow(y, bytes);
+        for (int left = 0, right = 3 * (this.width - 1); left < right; left += 3, right -= 3) {
+          for (int c = 0; c < 3; c++) {
+            byte value = bytes[left + c];
+            bytes[left + c] = bytes[right + c];
+            bytes[right + c] = value;
+          }
+        }
+        this.putRow(y, bytes);
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image and writes the results into the rows
+   * of the given image, which may be this image as every row is read before it is written.
+   *
+   * @param transformation the given matrix.
+   * @param result the image to write the transformed pixels into.
+   */
+  private void transformInto(ITransformation transformation, OffHeapImage result) {
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      byte[] bytes = new byte[this.rowSize];
+      int[] r = new int[this.width];
+      int[] g = new int[this.width];
+      int[] b = new int[this.width];
+      int[][] channels = new int[3][this.width];
+      for (int y = fromRow; y < toRow; y++) {
+        this.getRow(y, bytes);
+        if (transformation instanceof LookupTransformation) {
+          ((LookupTransformation) transformation).transformInterleaved(bytes, this.width);
+          result.putRow(y, bytes);
+          continue;
+        }
+        for (int x = 0; x < this.width; x++) {
+          r[x] = bytes[3 * x] & 0xFF;
+          g[x] = bytes[3 * x + 1] & 0xFF;
+          b[x] = bytes[3 * x + 2] & 0xFF;
+        }
+        transformation.transformRow(r, g, b, channels, this.width, MAX_VALUE);
+        for (int c = 0; c < 3; c++) {
+          int[] channel = channels[c];
+          for (int x = 0; x < this.width; x++) {
+            bytes[3 * x + c] = (byte) channel[x];
+          }
+        }
+        result.putRow(y, bytes);
+      }
+    });
+  }
+
+  /**
+   * Creates a buffered image of this image.
+   *
+   * @return the buffered image
+   */
+  @Override
+  public BufferedImage createBufferedImage() {
+    BufferedImage img = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_RGB);
+    int[] data = dataOf(img);
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      byte[] bytes = new byte[this.rowSize];
+      for (int y = fromRow; y < toRow; y++) {
+        this.getRow(y, bytes);
+        int start = y * this.width;
+        for (int x = 0; x < this.width; x++) {
+          data[start + x] = ((bytes[3 * x] & 0xFF) << 16) | ((bytes[3 * x + 1] & 0xFF) << 8)
+                  | (bytes[3 * x + 2] & 0xFF);
+        }
+      }
+    });
+
+    return img;
+  }
+
+  /**
+   * Gets the histogram of a given color of this image.
+   *
+   * @param component the given color
+   * @return the histogram of the color
+   * @throws IllegalArgumentException if the given color is invalid
+   */
+  @Override
+  public Map<Integer, Integer> getHistogram(String component) throws IllegalArgumentException {
+    checkHistogramComponent(component);
+    int[] counts = new int[MAX_VALUE + 1];
+    byte[] bytes = new byte[this.rowSize];
+
+    for (int y = 0; y < this.height; y++) {
+      this.getRow(y, bytes);
+      for (int i = 0; i < bytes.length; i += 3) {
+        counts[getGreyValue(component, bytes[i] & 0xFF, bytes[i + 1] & 0xFF,
+                bytes[i + 2] & 0xFF)]++;
+      }
+    }
+
+    return toHistogram(counts);
+  }
+
+  /**
+   * Releases the buffers of the image. The direct memory of every buffer is freed, or unmapped
+   * for an image mapped from a file, right away rather than when the garbage collector reclaims
+   * the buffer. If the JVM offers no way to do that, the buffers are only dropped. The image
+   * cannot be used afterwards, and must not be closed while an operation is still reading it.
+   */
+  @Override
+  public synchronized void close() {
+    ByteBuffer[] released = this.buffers;
+    this.buffers = null;
+    if (released == null || INVOKE_CLEANER == null) {
+      return;
+    }
+
+    for (ByteBuffer buffer : released) {
+      if (buffer != null) {
+        try {
+          INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+          // The buffer is freed when it is reclaimed instead.
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks if the image has been closed.
+   *
+   * @return true if the image has been closed
+   */
+  @Override
+  public boolean isClosed() {
+    return this.buffers == null;
+  }
+
+  /**
+   * Copies the bytes of the given row into the given array.
+   *
+   * @param row the row to copy
+   * @param bytes the array to copy into
+   */
+  private void getRow(int row, byte[] bytes) {
+    this.buffer(row).get(this.offset(row), bytes, 0, this.rowSize);
+  }
+
+  /**
+   * Copies the given bytes into the given row.
+   *
+   * @param row the row to copy into
+   * @param bytes the bytes of the row
+   */
+  private void putRow(int row, byte[] bytes) {
+    this.buffer(row).put(this.offset(row), bytes, 0, this.rowSize);
+  }
+
+  /**
+   * Checks if the rows of the image can be overwritten, which is not the case when the image is
+   * mapped from a file.
+   *
+   * @return true if the rows can be overwritten
+   * @throws IllegalStateException if the image has been closed
+   */
+  private boolean isWritable() throws IllegalStateException {
+    return this.height == 0 || !this.buffer(0).isReadOnly();
+  }
+
+  /**
+   * Gets the buffer that holds the given row.
+   *
+   * @param row the row
+   * @return the buffer holding the row
+   * @throws IllegalStateException if the image has been closed
+   */
+  private ByteBuffer buffer(int row) throws IllegalStateException {
+    if (this.buffers == null) {
+      throw new IllegalStateException("Image has already been closed!");
+    }
+    return this.buffers[row / this.rowsPerBuffer];
+  }
+
+  /**
+   * Gets the number of rows held by the buffer with the given index.
+   *
+   * @param index the index of the buffer
+   * @return the number of rows in the buffer
+   */
+  private int rowsInBuffer(int index) {
+    return Math.min(this.rowsPerBuffer, this.height - index * this.rowsPerBuffer);
+  }
+
+  /**
+   * Gets the offset of the given row within its buffer.
+   *
+   * @param row the row
+   * @return the offset of the first byte of the row
+   */
+  private int offset(int row) {
+    return (row % this.rowsPerBuffer) * this.rowSize;
+  }
+}
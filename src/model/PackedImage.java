@@ -0,0 +1,324 @@
+package model;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Class that implements the operations offered by an image using a single packed raster.
+ * Every pixel is stored as one int in the form 0xRRGGBB and the pixels are stored row by row
+ * (the pixel at column x and row y is at index y * width + x). Every channel has 8 bits.
+ * Transformations and flips can overwrite the raster when nothing else reads the image.
+ */
+public class PackedImage extends AbstractImage implements MutableImage {
+  private final int[] raster;
+
+  /**
+   * Constructor for initialising a PackedImage.
+   *
+   * @param width of the image
+   * @param height of the image
+   * @param raster the packed 0xRRGGBB pixels of the image in row-major order
+   * @throws IllegalArgumentException if the width or height are invalid or if the raster provided
+   *                                  is null or does not match the size of the image.
+   */
+  public PackedImage(int width, int height, int[] raster) throws IllegalArgumentException {
+    super(width, height);
+
+    if (raster == null) {
+      throw new IllegalArgumentException("Raster provided was null!");
+    }
+
+    if (raster.length != width * height) {
+      throw new IllegalArgumentException("Raster provided does not match the size of the image!");
+    }
+
+    this.raster = raster;
+  }
+
+  /**
+   * Gets the packed raster of this image. The raster is shared with this image and must not be
+   * modified.
+   *
+   * @return the packed 0xRRGGBB pixels of the image in row-major order
+   */
+  int[] getRaster() {
+    return this.raster;
+  }
+
+  /**
+   * Brighten the image by the given increment.
+   *
+   * @param increment the integer value to brighten the image by
+   * @throws IllegalArgumentException if the increment value is invalid
+   */
+  @Override
+  public Image brightenImage(int increment) {
+    int[] newRaster = new int[this.raster.length];
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+        int rgb = this.raster[i];
+        int red = clamp(((rgb >> 16) & 0xFF) + increment);
+        int green = clamp(((rgb >> 8) & 0xFF) + increment);
+        int blue = clamp((rgb & 0xFF) + increment);
+        newRaster[i] = (red << 16) | (green << 8) | blue;
+      }
+    });
+
+    return new PackedImage(this.width, this.height, newRaster);
+  }
+
+  /**
+   * Converts the image to grey scale using the component method given.
+   *
+   * @param method the component to use when converting to greyscale image
+   * @throws IllegalArgumentException if the method is invalid
+   */
+  @Override
+  public Image convertGreyscale(String method) throws IllegalArgumentException {
+    checkGreyMethod(method);
+    int[] newRaster = new int[this.raster.length];
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+        int rgb = this.raster[i];
+        int grey = getGreyValue(method, (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+        newRaster[i] = (grey << 16) | (grey << 8) | grey;
+      }
+    });
+
+    return new PackedImage(this.width, this.height, newRaster);
+  }
+
+  /**
+   * Writes the pixels of the image into an array of pixels indexed by column and then row.
+   * This adapts the packed raster for callers that still expect pixel objects.
+   *
+   * @return the pixels of the image.
+   */
+  @Override
+  public IPixel[][] writePixels() {
+    IPixel[][] pixels = new IPixel[this.width][this.height];
+
+    for (int y = 0; y < this.height; y++) {
+      for (int x = 0; x < this.width; x++) {
+        int rgb = this.raster[y * this.width + x];
+        pixels[x][y] = new Pixel((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+      }
+    }
+
+    return pixels;
+  }
+
+  /**
+   * Gets the value of the given channel of the pixel at the given position.
+   *
+   * @param col the column of the pixel
+   * @param row the row of the pixel
+   * @param channel the index of the channel (0 for red, 1 for green, 2 for blue)
+   * @return the value of the channel
+   * @throws IllegalArgumentException if the position or the channel are invalid
+   */
+  @Override
+  public int getChannelValue(int col, int row, int channel) throws IllegalArgumentException {
+    this.checkPosition(col, row, channel);
+    return (this.raster[row * this.width + col] >> (16 - 8 * channel)) & 0xFF;
+  }
+
+  /**
+   * Applies the given filter to every pixel in the image. Pixels outside the image are
+   * treated as 0.
+   *
+   * @param filter the given filter.
+   * @return the image after the filter has been applied.
+   */
+  @Override
+  public Image applyFilter(IFilter filter) {
+    int[] newRaster = new int[this.raster.length];
+    int[] plane = new int[this.raster.length];
+    int[] filtered = new int[this.raster.length];
+
+    for (int shift = 16; shift >= 0; shift -= 8) {
+      int channelShift = shift;
+      Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+        for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+          plane[i] = (this.raster[i] >> channelShift) & 0xFF;
+        }
+      });
+      filter.filterPlane(plane, filtered, this.width, this.height, MAX_VALUE);
+      Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+        for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+          newRaster[i] |= filtered[i] << channelShift;
+        }
+      });
+    }
+
+    return new PackedImage(this.width, this.height, newRaster);
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image. Lookup tables are applied to the
+   * packed pixels directly.
+   *
+   * @param transformation the given matrix.
+   * @return the image after each pixel in the image has been transformed.
+   */
+  @Override
+  public Image applyTransformation(ITransformation transformation) {
+    int[] newRaster = new int[this.raster.length];
+    this.transformInto(transformation, newRaster);
+    return new PackedImage(this.width, this.height, newRaster);
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image, overwriting its raster.
+   *
+   * @param transformation the given matrix.
+   * @return this image after its pixels have been transformed.
+   */
+  @Override
+  public Image applyTransformationInPlace(ITransformation transformation) {
+    this.transformInto(transformation, this.raster);
+    return this;
+  }
+
+  /**
+   * Flips the image vertically by swapping its rows in the raster.
+   *
+   * @return this image after it has been flipped.
+   */
+  @Override
+  public Image flipVerticalInPlace() {
+    Parallel.forEachBand(this.height / 2, (fromRow, toRow) -> {
+      int[] row = new int[this.width];
+      for (int y = fromRow; y < toRow; y++) {
+        int top = y * this.width;
+        int bottom = (this.height - 1 - y) * this.width;
+        System.arraycopy(this.raster, top, row, 0, this.width);
+        System.arraycopy(this.raster, bottom, this.raster, top, this.width);
+        System.arraycopy(row, 0, this.raster, bottom, this.width);
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Flips the image horizontally by reversing every row of the raster.
+   *
+   * @return this image after it has been flipped.
+   */
+  @Override
+  public Image flipHorizontalInPlace() {
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int y = fromRow; y < toRow; y++) {
+        int left = y * this.width;
+        int right = left + this.width - 1;
+        for (; left < right; left++, right--) {
+          int rgb = this.raster[left];
+          this.raster[left] = this.raster[right];
+          this.raster[right] = rgb;
+        }
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image and writes the results into the given
+   * raster, which may be the raster of this image as every row is read before it is written.
+   *
+   * @param transformation the given matrix.
+   * @param newRaster the raster to write the transformed pixels into.
+   */
+  private void transformInto(ITransformation transformation, int[] newRaster) {
+    if (transformation instanceof LookupTransformation) {
+      LookupTransformation lookup = (LookupTransformation) transformation;
+      Parallel.forEachBand(this.height, (fromRow, toRow) -> lookup.transformPacked(this.raster,
+              newRaster, fromRow * this.width, toRow * this.width));
+      return;
+    }
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      int[] red = new int[this.width];
+      int[] green = new int[this.width];
+      int[] blue = new int[this.width];
+      int[][] results = new int[3][this.width];
+      for (int y = fromRow; y < toRow; y++) {
+        int start = y * this.width;
+        for (int x = 0; x < this.width; x++) {
+          int rgb = this.raster[start + x];
+          red[x] = (rgb >> 16) & 0xFF;
+          green[x] = (rgb >> 8) & 0xFF;
+          blue[x] = rgb & 0xFF;
+        }
+        transformation.transformRow(red, green, blue, results, this.width, MAX_VALUE);
+        for (int x = 0; x < this.width; x++) {
+          newRaster[start + x] = (results[0][x] << 16) | (results[1][x] << 8) | results[2][x];
+        }
+      }
+    });
+  }
+
+  /**
+   * Creates a buffered image of this image.
+   *
+   * @return the buffered image
+   */
+  @Override
+  public BufferedImage createBufferedImage() {
+    BufferedImage img = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_RGB);
+    int[] data = dataOf(img);
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> System.arraycopy(this.raster,
+            fromRow * this.width, data, fromRow * this.width, (toRow - fromRow) * this.width));
+    return img;
+  }
+
+  /**
+   * Gets the histogram of a given color of this image.
+   *
+   * @param component the given color
+   * @return the histogram of the color
+   * @throws IllegalArgumentException if the given color is invalid
+   */
+  @Override
+  public Map<Integer, Integer> getHistogram(String component) throws IllegalArgumentException {
+    checkHistogramComponent(component);
+
+    int[] counts = new int[MAX_VALUE + 1];
+    for (int rgb : this.raster) {
+      counts[getGreyValue(component, (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF)]++;
+    }
+
+    return toHistogram(counts);
+  }
+
+  /**
+   * Compares any given object and checks if it's a type of this class with the same pixels.
+   *
+   * @param o the provided object.
+   * @return true if the given object is a PackedImage with the same pixels.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof PackedImage)) {
+      return false;
+    }
+
+    PackedImage image = (PackedImage) o;
+    return image.width == this.width
+            && image.height == this.height
+            && Arrays.equals(image.raster, this.raster);
+  }
+
+  /**
+   * Overrides hashCode for the class PackedImage.
+   *
+   * @return the hashCode of the object.
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.width, this.height, Arrays.hashCode(this.raster));
+  }
+}
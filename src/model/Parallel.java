@@ -0,0 +1,135 @@
+package model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class that runs the operations of the images on several threads. An operation is split into
+ * bands of rows, and every band is processed on its own by one of the threads of a fork-join
+ * pool. Every row of a result only depends on the rows of the source, so the results are the
+ * same whatever the number of threads.
+ */
+public final class Parallel {
+  private static final int BANDS_PER_THREAD = 4;
+
+  private static int threads = Runtime.getRuntime().availableProcessors();
+  private static ForkJoinPool pool;
+
+  /**
+   * Interface that represents the work done on a band of rows.
+   */
+  public interface RowBand {
+
+    /**
+     * Processes the rows from the first row up to, but not including, the last row.
+     *
+     * @param fromRow the first row of the band
+     * @param toRow the row after the last row of the band
+     */
+    void apply(int fromRow, int toRow);
+  }
+
+  private Parallel() {
+  }
+
+  /**
+   * Sets the number of threads used by the operations of the images. One thread runs every
+   * operation on the calling thread.
+   *
+   * @param count the number of threads
+   * @throws IllegalArgumentException if the number of threads is less than one
+   */
+  public static synchronized void setThreads(int count) throws IllegalArgumentException {
+    if (count < 1) {
+      throw new IllegalArgumentException("Invalid number of threads provided: " + count);
+    }
+
+    if (pool != null) {
+      pool.shutdown();
+      pool = null;
+    }
+    threads = count;
+  }
+
+  /**
+   * Gets the number of threads used by the operations of the images.
+   *
+   * @return the number of threads
+   */
+  public static synchronized int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Processes the given number of rows in bands, on several threads if more than one thread is
+   * used. The method returns once every band has been processed, and rethrows the exception
+   * thrown by any band.
+   *
+   * @param rows the number of rows
+   * @param band the work done on a band of rows
+   */
+  public static void forEachBand(int rows, RowBand band) {
+    ForkJoinPool current = getPool();
+    if (current == null || rows < 2) {
+      band.apply(0, rows);
+      return;
+    }
+
+    int bandSize = Math.max(1, rows / (current.getParallelism() * BANDS_PER_THREAD));
+    current.invoke(new BandTask(0, rows, bandSize, band));
+  }
+
+  /**
+   * Gets the pool to run the bands on, creating it the first time it is needed.
+   *
+   * @return the pool, or null if a single thread is used
+   */
+  private static synchronized ForkJoinPool getPool() {
+    if (threads > 1 && pool == null) {
+      pool = new ForkJoinPool(threads);
+    }
+    return pool;
+  }
+
+  /**
+   * Task that splits a range of rows in halves until they are no bigger than a band.
+   */
+  private static final class BandTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int fromRow;
+    private final int toRow;
+    private final int bandSize;
+    private final RowBand band;
+
+    /**
+     * Constructor for initialising a BandTask.
+     *
+     * @param fromRow the first row of the range
+     * @param toRow the row after the last row of the range
+     * @param bandSize the largest number of rows processed as a single band
+     * @param band the work done on a band of rows
+     */
+    private BandTask(int fromRow, int toRow, int bandSize, RowBand band) {
+      this.fromRow = fromRow;
+      this.toRow = toRow;
+      this.bandSize = bandSize;
+      this.band = band;
+    }
+
+    /**
+     * Processes the range of rows, splitting it if it is bigger than a band.
+     */
+    @Override
+    protected void compute() {
+      if (this.toRow - this.fromRow <= this.bandSize) {
+        this.band.apply(this.fromRow, this.toRow);
+        return;
+      }
+
+      int middle = (this.fromRow + this.toRow) >>> 1;
+      invokeAll(new BandTask(this.fromRow, middle, this.bandSize, this.band),
+              new BandTask(middle, this.toRow, this.bandSize, this.band));
+    }
+  }
+}
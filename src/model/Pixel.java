@@ -165,7 +165,7 @@ public class Pixel implements IPixel {
     if (newValue < 0) {
       return 0;
     } else if (newValue > this.maxValue) {
-      return 255;
+      return this.maxValue;
     } else {
       return newValue;
     }
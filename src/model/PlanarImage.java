@@ -0,0 +1,464 @@
+package model;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Class that implements the operations offered by an image using one plane per channel.
+ * The red, green and blue values are stored in three separate byte arrays, row by row, so that
+ * operations that work on one channel at a time read contiguous memory. Every channel has 8 bits.
+ * Transformations and flips can overwrite the planes when nothing else reads the image and the
+ * planes are not shared with another image or between channels.
+ */
+public class PlanarImage extends AbstractImage implements MutableImage {
+  private final byte[] red;
+  private final byte[] green;
+  private final byte[] blue;
+  private volatile boolean lent;
+
+  /**
+   * Constructor for initialising a PlanarImage.
+   *
+   * @param width of the image
+   * @param height of the image
+   * @param red the red plane of the image in row-major order
+   * @param green the green plane of the image in row-major order
+   * @param blue the blue plane of the image in row-major order
+   * @throws IllegalArgumentException if the width or height are invalid or if the planes provided
+   *                                  are null or do not match the size of the image.
+   */
+  public PlanarImage(int width, int height, byte[] red, byte[] green, byte[] blue)
+          throws IllegalArgumentException {
+    super(width, height);
+
+    if (red == null || green == null || blue == null) {
+      throw new IllegalArgumentException("Planes provided were null!");
+    }
+
+    int size = width * height;
+    if (red.length != size || green.length != size || blue.length != size) {
+      throw new IllegalArgumentException("Planes provided do not match the size of the image!");
+    }
+
+    this.red = red;
+    this.green = green;
+    this.blue = blue;
+  }
+
+  /**
+   * Creates a PlanarImage from a packed 0xRRGGBB raster in row-major order.
+   *
+   * @param width of the image
+   * @param height of the image
+   * @param raster the packed pixels of the image
+   * @return the planar image
+   * @throws IllegalArgumentException if the raster does not match the size of the image
+   */
+  public static PlanarImage fromRaster(int width, int height, int[] raster)
+          throws IllegalArgumentException {
+    if (raster == null || raster.length != width * height) {
+      throw new IllegalArgumentException("Raster provided does not match the size of the image!");
+    }
+
+    byte[] red = new byte[raster.length];
+    byte[] green = new byte[raster.length];
+    byte[] blue = new byte[raster.length];
+
+    for (int i = 0; i < raster.length; i++) {
+      red[i] = (byte) (raster[i] >> 16);
+      green[i] = (byte) (raster[i] >> 8);
+      blue[i] = (byte) raster[i];
+    }
+
+    return new PlanarImage(width, height, red, green, blue);
+  }
+
+  /**
+   * Brighten the image by the given increment.
+   *
+   * @param increment the integer value to brighten the image by
+   * @throws IllegalArgumentException if the increment value is invalid
+   */
+  @Override
+  public Image brightenImage(int increment) {
+    return new PlanarImage(this.width, this.height, this.brightenPlane(this.red, increment),
+            this.brightenPlane(this.green, increment), this.brightenPlane(this.blue, increment));
+  }
+
+  /**
+   * Converts the image to grey scale using the component method given. The resulting image
+   * shares a single plane between its three channels.
+   *
+   * @param method the component to use when converting to greyscale image
+   * @throws IllegalArgumentException if the method is invalid
+   */
+  @Override
+  public Image convertGreyscale(String method) throws IllegalArgumentException {
+    checkGreyMethod(method);
+
+    byte[] grey;
+    switch (method) {
+      case "red":
+        grey = this.red;
+        this.lent = true;
+        break;
+      case "green":
+        grey = this.green;
+        this.lent = true;
+        break;
+      case "blue":
+        grey = this.blue;
+        this.lent = true;
+        break;
+      default:
+        byte[] values = new byte[this.red.length];
+        Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+          for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+            values[i] = (byte) getGreyValue(method, this.red[i] & 0xFF, this.green[i] & 0xFF,
+                    this.blue[i] & 0xFF);
+          }
+        });
+        grey = values;
+    }
+
+    return new PlanarImage(this.width, this.height, grey, grey, grey);
+  }
+
+  /**
+   * Writes the pixels of the image into an array of pixels indexed by column and then row.
+   * This adapts the planes for callers that still expect pixel objects.
+   *
+   * @return the pixels of the image.
+   */
+  @Override
+  public IPixel[][] writePixels() {
+    IPixel[][] pixels = new IPixel[this.width][this.height];
+
+    for (int y = 0; y < this.height; y++) {
+      for (int x = 0; x < this.width; x++) {
+        int i = y * this.width + x;
+        pixels[x][y] = new Pixel(this.red[i] & 0xFF, this.green[i] & 0xFF, this.blue[i] & 0xFF);
+      }
+    }
+
+    return pixels;
+  }
+
+  /**
+   * Gets the value of the given channel of the pixel at the given position.
+   *
+   * @param col the column of the pixel
+   * @param row the row of the pixel
+   * @param channel the index of the channel (0 for red, 1 for green, 2 for blue)
+   * @return the value of the channel
+   * @throws IllegalArgumentException if the position or the channel are invalid
+   */
+  @Override
+  public int getChannelValue(int col, int row, int channel) throws IllegalArgumentException {
+    this.checkPosition(col, row, channel);
+    byte[] plane = channel == 0 ? this.red : (channel == 1 ? this.green : this.blue);
+    return plane[row * this.width + col] & 0xFF;
+  }
+
+  /**
+   * Applies the given filter to every pixel in the image, one plane at a time. Pixels outside
+   * the image are treated as 0. A plane shared by all three channels is only filtered once.
+   *
+   * @param filter the given filter.
+   * @return the image after the filter has been applied.
+   */
+  @Override
+  public Image applyFilter(IFilter filter) {
+    if (this.red == this.green && this.red == this.blue) {
+      byte[] grey = this.filterPlane(this.red, filter);
+      return new PlanarImage(this.width, this.height, grey, grey, grey);
+    }
+    return new PlanarImage(this.width, this.height, this.filterPlane(this.red, filter),
+            this.filterPlane(this.green, filter), this.filterPlane(this.blue, filter));
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image.
+   *
+   * @param transformation the given matrix.
+   * @return the image after each pixel in the image has been transformed.
+   */
+  @Override
+  public Image applyTransformation(ITransformation transformation) {
+    byte[] newRed = new byte[this.red.length];
+    byte[] newGreen = new byte[this.green.length];
+    byte[] newBlue = new byte[this.blue.length];
+    this.transformInto(transformation, newRed, newGreen, newBlue);
+    return new PlanarImage(this.width, this.height, newRed, newGreen, newBlue);
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image, overwriting its planes if they belong
+   * to this image only.
+   *
+   * @param transformation the given matrix.
+   * @return this image after its pixels have been transformed, or a new transformed image.
+   */
+  @Override
+  public Image applyTransformationInPlace(ITransformation transformation) {
+    if (!this.ownsPlanes()) {
+      return this.applyTransformation(transformation);
+    }
+
+    this.transformInto(transformation, this.red, this.green, this.blue);
+    return this;
+  }
+
+  /**
+   * Flips the image vertically by swapping the rows of its planes, if they belong to this image
+   * only.
+   *
+   * @return this image after it has been flipped, or a new flipped image.
+   */
+  @Override
+  public Image flipVerticalInPlace() {
+    if (!this.ownsPlanes()) {
+      return this.flipVertical();
+    }
+
+    Parallel.forEachBand(this.height / 2, (fromRow, toRow) -> {
+      byte[] row = new byte[this.width];
+      for (byte[] plane : new byte[][]{this.red, this.green, this.blue}) {
+        for (int y = fromRow; y < toRow; y++) {
+          int top = y * this.width;
+          int bottom = (this.height - 1 - y) * this.width;
+          System.arraycopy(plane, top, row, 0, this.width);
+          System.arraycopy(plane, bottom, plane, top, this.width);
+          System.arraycopy(row, 0, plane, bottom, this.width);
+        }
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Flips the image horizontally by reversing every row of its planes, if they belong to this
+   * image only.
+   *
+   * @return this image after it has been flipped, or a new flipped image.
+   */
+  @Override
+  public Image flipHorizontalInPlace() {
+    if (!this.ownsPlanes()) {
+      return this.flipHorizontal();
+    }
+
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (byte[] plane : new byte[][]{this.red, this.green, this.blue}) {
+        for (int y = fromRow; y < toRow; y++) {
+          int left = y * this.width;
+          int right = left + this.width - 1;
+          for (; left < right; left++, right--) {
+            byte value = plane[left];
+            plane[left] = plane[right];
+            plane[right] = value;
+          }
+        }
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image and writes the results into the given
+   * planes, which may be the planes of this image as every row is read before it is written.
+   *
+   * @param transformation the given matrix.
+   * @param newRed the plane to write the red values into.
+   * @param newGreen the plane to write the green values into.
+   * @param newBlue the plane to write the blue values into.
+   */
+  private void transformInto(ITransformation transformation, byte[] newRed, byte[] newGreen,
+                             byte[] newBlue) {
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      int[] r = new int[this.width];
+      int[] g = new int[this.width];
+      int[] b = new int[this.width];
+      int[][] channels = new int[3][this.width];
+      byte[][] results = {newRed, newGreen, newBlue};
+      for (int y = fromRow; y < toRow; y++) {
+        int start = y * this.width;
+        for (int x = 0; x < this.width; x++) {
+          r[x] = this.red[start + x] & 0xFF;
+          g[x] = this.green[start + x] & 0xFF;
+          b[x] = this.blue[start + x] & 0xFF;
+        }
+        transformation.transformRow(r, g, b, channels, this.width, MAX_VALUE);
+        for (int c = 0; c < 3; c++) {
+          byte[] values = results[c];
+          int[] channel = channels[c];
+          for (int x = 0; x < this.width; x++) {
+            values[start + x] = (byte) channel[x];
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Checks if the planes of the image can be overwritten, which is the case when no plane has
+   * been given to another image and the three channels do not share a plane.
+   *
+   * @return true if the planes belong to this image only
+   */
+  private boolean ownsPlanes() {
+    return !this.lent && this.red != this.green && this.red != this.blue
+            && this.green != this.blue;
+  }
+
+  /**
+   * Creates a buffered image of this image.
+   *
+   * @return the buffered image
+   */
+  @Override
+  public BufferedImage createBufferedImage() {
+    BufferedImage img = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_RGB);
+    int[] data = dataOf(img);
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+        data[i] = ((this.red[i] & 0xFF) << 16) | ((this.green[i] & 0xFF) << 8)
+                | (this.blue[i] & 0xFF);
+      }
+    });
+    return img;
+  }
+
+  /**
+   * Gets the histogram of a given color of this image.
+   *
+   * @param component the given color
+   * @return the histogram of the color
+   * @throws IllegalArgumentException if the given color is invalid
+   */
+  @Override
+  public Map<Integer, Integer> getHistogram(String component) throws IllegalArgumentException {
+    checkHistogramComponent(component);
+
+    int[] counts = new int[MAX_VALUE + 1];
+    if (component.equals("intensity")) {
+      for (int i = 0; i < this.red.length; i++) {
+        counts[((this.red[i] & 0xFF) + (this.green[i] & 0xFF) + (this.blue[i] & 0xFF)) / 3]++;
+      }
+    } else {
+      for (byte value : this.getPlane(component)) {
+        counts[value & 0xFF]++;
+      }
+    }
+
+    return toHistogram(counts);
+  }
+
+  /**
+   * Interleaves the planes of this image into a packed 0xRRGGBB raster in row-major order.
+   *
+   * @return the packed raster
+   */
+  public int[] toRaster() {
+    int[] raster = new int[this.red.length];
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = ((this.red[i] & 0xFF) << 16) | ((this.green[i] & 0xFF) << 8)
+              | (this.blue[i] & 0xFF);
+    }
+    return raster;
+  }
+
+  /**
+   * Gets the plane of the given channel.
+   *
+   * @param channel the name of the channel
+   * @return the plane of the channel
+   */
+  private byte[] getPlane(String channel) {
+    switch (channel) {
+      case "red":
+        return this.red;
+      case "green":
+        return this.green;
+      default:
+        return this.blue;
+    }
+  }
+
+  /**
+   * Brightens every value of the given plane by the given increment.
+   *
+   * @param plane the plane to brighten
+   * @param increment the value to brighten by
+   * @return the brightened plane
+   */
+  private byte[] brightenPlane(byte[] plane, int increment) {
+    byte[] newPlane = new byte[plane.length];
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+        newPlane[i] = (byte) clamp((plane[i] & 0xFF) + increment);
+      }
+    });
+    return newPlane;
+  }
+
+  /**
+   * Applies the given filter to every value of the given plane.
+   *
+   * @param plane the plane to filter
+   * @param filter the filter to apply
+   * @return the filtered plane
+   */
+  private byte[] filterPlane(byte[] plane, IFilter filter) {
+    int[] values = new int[plane.length];
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+        values[i] = plane[i] & 0xFF;
+      }
+    });
+
+    int[] filtered = new int[plane.length];
+    filter.filterPlane(values, filtered, this.width, this.height, MAX_VALUE);
+
+    byte[] newPlane = new byte[plane.length];
+    Parallel.forEachBand(this.height, (fromRow, toRow) -> {
+      for (int i = fromRow * this.width; i < toRow * this.width; i++) {
+        newPlane[i] = (byte) filtered[i];
+      }
+    });
+    return newPlane;
+  }
+
+  /**
+   * Compares any given object and checks if it's a type of this class with the same pixels.
+   *
+   * @param o the provided object.
+   * @return true if the given object is a PlanarImage with the same pixels.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof PlanarImage)) {
+      return false;
+    }
+
+    PlanarImage image = (PlanarImage) o;
+    return image.width == this.width
+            && image.height == this.height
+            && Arrays.equals(image.red, this.red)
+            && Arrays.equals(image.green, this.green)
+            && Arrays.equals(image.blue, this.blue);
+  }
+
+  /**
+   * Overrides hashCode for the class PlanarImage.
+   *
+   * @return the hashCode of the object.
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.width, this.height, Arrays.hashCode(this.red),
+            Arrays.hashCode(this.green), Arrays.hashCode(this.blue));
+  }
+}
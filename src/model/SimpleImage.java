@@ -61,36 +61,50 @@ public class SimpleImage implements Image {
   }
 
   /**
-   * Flips the image horizontally.
+   * Flips the image horizontally. The pixels are not copied, the result is a view over this
+   * image.
    */
   @Override
   public Image flipHorizontal() {
-
-    IPixel[][] flippedImage = new IPixel[this.width][this.height];
-
-    for (int r = 0; r < this.width; r++) {
-      flippedImage[r] = this.pixels[this.width - 1 - r];
-    }
-
-    return new SimpleImage(this.width, this.height, flippedImage);
+    return new GeometricView(this).flipHorizontal();
   }
 
   /**
-   * Flips the image vertically.
+   * Flips the image vertically. The pixels are not copied, the result is a view over this
+   * image.
    */
   @Override
   public Image flipVertical() {
+    return new GeometricView(this).flipVertical();
+  }
 
-    IPixel[][] flippedImage = new IPixel[this.width][this.height];
-
-    for (int r = 0; r < this.width; r++) {
-      for (int c = 0; c < this.height; c++) {
-        flippedImage[r][c] = this.pixels[r][this.height - 1 - c];
-      }
-    }
-
-    return new SimpleImage(this.width, this.height, flippedImage);
+  /**
+   * Rotates the image clockwise by the given number of degrees. The pixels are not copied, the
+   * result is a view over this image.
+   *
+   * @param degrees the number of degrees to rotate by (90, 180 or 270)
+   * @return the rotated image
+   * @throws IllegalArgumentException if the number of degrees is invalid
+   */
+  @Override
+  public Image rotate(int degrees) throws IllegalArgumentException {
+    return new GeometricView(this).rotate(degrees);
+  }
 
+  /**
+   * Crops the image to the given region. The pixels are not copied, the result is a view over
+   * this image.
+   *
+   * @param col the column of the top left pixel of the region
+   * @param row the row of the top left pixel of the region
+   * @param width the width of the region
+   * @param height the height of the region
+   * @return the cropped image
+   * @throws IllegalArgumentException if the region is not inside the image
+   */
+  @Override
+  public Image crop(int col, int row, int width, int height) throws IllegalArgumentException {
+    return new GeometricView(this).crop(col, row, width, height);
   }
 
   /**
@@ -158,6 +172,43 @@ public class SimpleImage implements Image {
     return this.height;
   }
 
+  /**
+   * Gets the max value that any channel of the image can be.
+   *
+   * @return the max value of a channel
+   */
+  @Override
+  public int getMaxValue() {
+    return this.maxValue;
+  }
+
+  /**
+   * Gets the value of the given channel of the pixel at the given position.
+   *
+   * @param col the column of the pixel
+   * @param row the row of the pixel
+   * @param channel the index of the channel (0 for red, 1 for green, 2 for blue)
+   * @return the value of the channel
+   * @throws IllegalArgumentException if the position or the channel are invalid
+   */
+  @Override
+  public int getChannelValue(int col, int row, int channel) throws IllegalArgumentException {
+    if (col < 0 || col >= this.width || row < 0 || row >= this.height) {
+      throw new IllegalArgumentException("Invalid position of pixel!");
+    }
+
+    switch (channel) {
+      case 0:
+        return this.pixels[col][row].getChannelValue("red");
+      case 1:
+        return this.pixels[col][row].getChannelValue("green");
+      case 2:
+        return this.pixels[col][row].getChannelValue("blue");
+      default:
+        throw new IllegalArgumentException("Invalid channel!");
+    }
+  }
+
   /**
    * Applies the given filter to every pixel in the image.
    *
@@ -169,16 +220,14 @@ public class SimpleImage implements Image {
 
     IPixel[][] newPixels = new Pixel[this.width][this.height];
 
-    int filterSize = filter.getSize();
+    int[] red = this.filterChannel("red", filter);
+    int[] green = this.filterChannel("green", filter);
+    int[] blue = this.filterChannel("blue", filter);
 
     for (int r = 0; r < this.width; r++) {
       for (int c = 0; c < this.height; c++) {
-        IPixel pixel = this.pixels[r][c];
-
-        int red = this.applyFilterHelper("red", r, c, filterSize, filter, pixel);
-        int green = this.applyFilterHelper("green", r, c, filterSize, filter, pixel);
-        int blue = this.applyFilterHelper("blue", r, c, filterSize, filter, pixel);
-        newPixels[r][c] = new Pixel(red, green, blue);
+        int i = c * this.width + r;
+        newPixels[r][c] = new Pixel(red[i], green[i], blue[i]);
       }
     }
 
@@ -273,40 +322,27 @@ public class SimpleImage implements Image {
   }
 
   /**
-   * Helper for the apply filter method.
+   * Helper for the apply filter method. Copies the given channel of every pixel into a plane
+   * in row-major order and applies the filter to the whole plane.
    *
-   * @param channel the channel value.
-   * @param row the row of the pixel.
-   * @param col the column of the pixel.
-   * @param filterSize the size of the filter that is being applied.
+   * @param channel the channel to filter.
    * @param filter the filter to be applied.
-   * @param pixel the pixel that the filter is going to be applied to.
-   * @return the value of the pixel after the filter has been applied to it.
+   * @return the filtered values of the channel in row-major order.
    */
-  private int applyFilterHelper(String channel, int row, int col, int filterSize, IFilter filter,
-                                IPixel pixel) {
-
-    int newRow = row - filterSize / 2;
-    int newCol = col - filterSize / 2;
-
-    int[][] correspondingPixels = new int[filterSize][filterSize];
-
-    for (int i = 0; i < filterSize; i++) {
-      for (int j = 0; j < filterSize; j++) {
-        if (newRow < 0 || newRow >= this.width || newCol < 0 || newCol >= this.height) {
-          correspondingPixels[i][j] = 0;
-        } else {
-          correspondingPixels[i][j] = this.pixels[newRow][newCol].getChannelValue(channel);
-        }
-        newCol++;
+  private int[] filterChannel(String channel, IFilter filter) {
+    int[] plane = new int[this.width * this.height];
+
+    for (int r = 0; r < this.width; r++) {
+      for (int c = 0; c < this.height; c++) {
+        plane[c * this.width + r] = this.pixels[r][c].getChannelValue(channel);
       }
-      newRow++;
     }
 
-    return filter.filteredValue(correspondingPixels, this.maxValue);
+    int[] filtered = new int[plane.length];
+    filter.filterPlane(plane, filtered, this.width, this.height, this.maxValue);
+    return filtered;
   }
 
-
   /**
    * Gets the grey value using the method given.
    *
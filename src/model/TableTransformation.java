@@ -0,0 +1,108 @@
+package model;
+
+/**
+ * A class for a transformation whose matrix is split into tables. As the transformation is
+ * linear, every resulting channel is the sum of three products of a weight and a channel value,
+ * so for channels with 8 bits every product is read from one of nine tables, one for every
+ * weight, with an entry for every value. A resulting channel is then three reads from the tables
+ * and two additions, and no value has to be converted to a double.
+ *
+ * <p>The tables hold the double products, which are added up in the same order as in
+ * {@link Transformation}, so the results are identical. They are used wherever the double
+ * arithmetic is used one resulting channel at a time: when the fixed point arithmetic is off, or
+ * when a row of the matrix is too large for it. The fixed point arithmetic multiplies whole rows
+ * of ints, which is as fast as reading the tables, so it is used unchanged, as is the arithmetic
+ * for channels with more than 8 bits. When the fixed point arithmetic is off, whole rows are
+ * transformed by the single pass of {@link Transformation}, which is faster than the tables.
+ */
+public class TableTransformation extends Transformation {
+  private static final int VALUES = 256;
+
+  private final boolean[] fixed;
+  private final double[][] tables;
+
+  /**
+   * Constructor that initializes the matrix transformation and builds its tables.
+   *
+   * @param matrix the given matrix.
+   * @throws IllegalArgumentException if the matrix is not a 3x3 matrix.
+   */
+  public TableTransformation(double[][] matrix) throws IllegalArgumentException {
+    super(matrix);
+
+    // Table 3 * c + k holds the products of the weight of channel k in resulting channel c.
+    this.fixed = new boolean[3];
+    this.tables = new double[9][VALUES];
+    for (int c = 0; c < 3; c++) {
+      this.fixed[c] = FixedPoint.toFixed(matrix[c]) != null;
+      for (int k = 0; k < 3; k++) {
+        for (int v = 0; v < VALUES; v++) {
+          this.tables[3 * c + k][v] = v * matrix[c][k];
+        }
+      }
+    }
+  }
+
+  /**
+   * Applies the transformation to the given channel values and returns the value of one of the
+   * resulting channels.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param red the red value of the pixel.
+   * @param green the green value of the pixel.
+   * @param blue the blue value of the pixel.
+   * @param maxValue the maxValue that any channel can be.
+   * @return the value of the given channel after the transformation has been applied.
+   */
+  @Override
+  public int transformChannel(int channel, int red, int green, int blue, int maxValue) {
+    if (!this.usesTables(channel, maxValue)) {
+      return super.transformChannel(channel, red, green, blue, maxValue);
+    }
+
+    int first = 3 * channel;
+    return clamp(this.tables[first][red] + this.tables[first + 1][green]
+            + this.tables[first + 2][blue], maxValue);
+  }
+
+  /**
+   * Applies the transformation to a run of pixels whose channels are given as separate planes,
+   * and writes one of the resulting channels.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param red the red values of the pixels.
+   * @param green the green values of the pixels.
+   * @param blue the blue values of the pixels.
+   * @param result the array to write the values of the resulting channel into.
+   * @param length the number of pixels.
+   * @param maxValue the maxValue that any channel can be.
+   */
+  @Override
+  public void transformPlanes(int channel, int[] red, int[] green, int[] blue, int[] result,
+                              int length, int maxValue) {
+    if (!this.usesTables(channel, maxValue)) {
+      super.transformPlanes(channel, red, green, blue, result, length, maxValue);
+      return;
+    }
+
+    double[] redProducts = this.tables[3 * channel];
+    double[] greenProducts = this.tables[3 * channel + 1];
+    double[] blueProducts = this.tables[3 * channel + 2];
+    for (int i = 0; i < length; i++) {
+      result[i] = clamp(redProducts[red[i]] + greenProducts[green[i]] + blueProducts[blue[i]],
+              maxValue);
+    }
+  }
+
+  /**
+   * Checks if the given resulting channel is computed with the tables, which is the case when
+   * the channels have 8 bits and the double arithmetic is used for it.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param maxValue the maxValue that any channel can be.
+   * @return true if the tables are used.
+   */
+  private boolean usesTables(int channel, int maxValue) {
+    return maxValue < VALUES && !(this.fixed[channel] && FixedPoint.applies(maxValue));
+  }
+}
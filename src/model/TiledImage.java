@@ -0,0 +1,354 @@
+package model;
+
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Class that implements the operations offered by an image that is split into square tiles.
+ * Every tile is only decoded or computed the first time one of its pixels is used, and is kept
+ * afterwards. Operations on a tiled image return another tiled image whose tiles are computed
+ * from the tiles of this image when they are needed, so an operation only does the work for the
+ * part of the image that is actually used. Every channel has 8 bits.
+ */
+public class TiledImage extends AbstractImage {
+  public static final int TILE_SIZE = 256;
+
+  private final TileSource source;
+  private final int tilesAcross;
+  private final AtomicReferenceArray<int[]> tiles;
+
+  /**
+   * Interface that represents where the pixels of the tiles of a tiled image come from.
+   */
+  public interface TileSource {
+
+    /**
+     * Computes the pixels of the given region of the image.
+     *
+     * @param x the column of the top left pixel of the region
+     * @param y the row of the top left pixel of the region
+     * @param width the width of the region
+     * @param height the height of the region
+     * @return the packed 0xRRGGBB pixels of the region in row-major order
+     */
+    int[] computeTile(int x, int y, int width, int height);
+  }
+
+  /**
+   * Constructor for initialising a TiledImage whose tiles come from the given source.
+   *
+   * @param width of the image
+   * @param height of the image
+   * @param source the source of the tiles
+   * @throws IllegalArgumentException if the width or height are invalid or the source is null
+   */
+  public TiledImage(int width, int height, TileSource source) throws IllegalArgumentException {
+    super(width, height);
+
+    if (source == null) {
+      throw new IllegalArgumentException("Source provided was null!");
+    }
+
+    this.source = source;
+    this.tilesAcross = (width + TILE_SIZE - 1) / TILE_SIZE;
+    int tilesDown = (height + TILE_SIZE - 1) / TILE_SIZE;
+    this.tiles = new AtomicReferenceArray<int[]>(this.tilesAcross * tilesDown);
+  }
+
+  /**
+   * Copies the pixels of the given region of the image into the given array, computing only the
+   * tiles that the region covers.
+   *
+   * @param x the column of the top left pixel of the region
+   * @param y the row of the top left pixel of the region
+   * @param width the width of the region
+   * @param height the height of the region
+   * @param out the array to copy the packed pixels of the region into in row-major order
+   * @throws IllegalArgumentException if the region is not inside the image
+   */
+  public void readRegion(int x, int y, int width, int height, int[] out)
+          throws IllegalArgumentException {
+    if (x < 0 || y < 0 || width < 0 || height < 0 || x + width > this.width
+            || y + height > this.height || out.length < width * height) {
+      throw new IllegalArgumentException("Invalid region of image!");
+    }
+
+    for (int ty = y / TILE_SIZE; ty * TILE_SIZE < y + height; ty++) {
+      for (int tx = x / TILE_SIZE; tx * TILE_SIZE < x + width; tx++) {
+        int[] tile = this.tile(tx, ty);
+        int tileX = tx * TILE_SIZE;
+        int tileY = ty * TILE_SIZE;
+        int tileWidth = Math.min(TILE_SIZE, this.width - tileX);
+        int fromX = Math.max(x, tileX);
+        int toX = Math.min(x + width, tileX + tileWidth);
+        int fromY = Math.max(y, tileY);
+        int toY = Math.min(y + height, tileY + TILE_SIZE);
+
+        for (int row = fromY; row < toY; row++) {
+          System.arraycopy(tile, (row - tileY) * tileWidth + (fromX - tileX), out,
+                  (row - y) * width + (fromX - x), toX - fromX);
+        }
+      }
+    }
+  }
+
+  /**
+   * Brighten the image by the given increment.
+   *
+   * @param increment the integer value to brighten the image by
+   * @throws IllegalArgumentException if the increment value is invalid
+   */
+  @Override
+  public Image brightenImage(int increment) {
+    return new TiledImage(this.width, this.height, (x, y, w, h) ->
+            pixelsOf(this.region(x, y, w, h).brightenImage(increment)));
+  }
+
+  /**
+   * Flips the image vertically.
+   */
+  @Override
+  public Image flipVertical() {
+    return new TiledImage(this.width, this.height, (x, y, w, h) -> {
+      int[] pixels = new int[w * h];
+      this.readRegion(x, this.height - y - h, w, h, pixels);
+      int[] tile = new int[w * h];
+      for (int row = 0; row < h; row++) {
+        System.arraycopy(pixels, (h - 1 - row) * w, tile, row * w, w);
+      }
+      return tile;
+    });
+  }
+
+  /**
+   * Flips the image horizontally.
+   */
+  @Override
+  public Image flipHorizontal() {
+    return new TiledImage(this.width, this.height, (x, y, w, h) -> {
+      int[] pixels = new int[w * h];
+      this.readRegion(this.width - x - w, y, w, h, pixels);
+      int[] tile = new int[w * h];
+      for (int row = 0; row < h; row++) {
+        for (int col = 0; col < w; col++) {
+          tile[row * w + col] = pixels[row * w + w - 1 - col];
+        }
+      }
+      return tile;
+    });
+  }
+
+  /**
+   * Crops the image to the given region. The tiles of the cropped image are copied from the
+   * tiles of this image when they are needed.
+   *
+   * @param col the column of the top left pixel of the region
+   * @param row the row of the top left pixel of the region
+   * @param width the width of the region
+   * @param height the height of the region
+   * @return the cropped image
+   * @throws IllegalArgumentException if the region is not inside the image
+   */
+  @Override
+  public Image crop(int col, int row, int width, int height) throws IllegalArgumentException {
+    GeometricView.checkRegion(this, col, row, width, height);
+    return new TiledImage(width, height, (x, y, w, h) -> {
+      int[] tile = new int[w * h];
+      this.readRegion(col + x, row + y, w, h, tile);
+      return tile;
+    });
+  }
+
+  /**
+   * Converts the image to grey scale using the component method given.
+   *
+   * @param method the component to use when converting to greyscale image
+   * @throws IllegalArgumentException if the method is invalid
+   */
+  @Override
+  public Image convertGreyscale(String method) throws IllegalArgumentException {
+    checkGreyMethod(method);
+    return new TiledImage(this.width, this.height, (x, y, w, h) ->
+            pixelsOf(this.region(x, y, w, h).convertGreyscale(method)));
+  }
+
+  /**
+   * Writes the pixels of the image into an array of pixels indexed by column and then row.
+   * This adapts the image for callers that still expect pixel objects, and computes every tile.
+   *
+   * @return the pixels of the image.
+   */
+  @Override
+  public IPixel[][] writePixels() {
+    return this.region(0, 0, this.width, this.height).writePixels();
+  }
+
+  /**
+   * Gets the value of the given channel of the pixel at the given position. Only the tile that
+   * holds the pixel is computed.
+   *
+   * @param col the column of the pixel
+   * @param row the row of the pixel
+   * @param channel the index of the channel (0 for red, 1 for green, 2 for blue)
+   * @return the value of the channel
+   * @throws IllegalArgumentException if the position or the channel are invalid
+   */
+  @Override
+  public int getChannelValue(int col, int row, int channel) throws IllegalArgumentException {
+    this.checkPosition(col, row, channel);
+    int tileX = col / TILE_SIZE;
+    int tileWidth = Math.min(TILE_SIZE, this.width - tileX * TILE_SIZE);
+    int rgb = this.tile(tileX, row / TILE_SIZE)[(row % TILE_SIZE) * tileWidth + col % TILE_SIZE];
+    return (rgb >> (16 - 8 * channel)) & 0xFF;
+  }
+
+  /**
+   * Applies the given filter to every pixel in the image. Pixels outside the image are
+   * treated as 0. Each tile is computed from the tiles of this image around it.
+   *
+   * @param filter the given filter.
+   * @return the image after the filter has been applied.
+   */
+  @Override
+  public Image applyFilter(IFilter filter) {
+    int half = filter.getSize() / 2;
+
+    return new TiledImage(this.width, this.height, (x, y, w, h) -> {
+      int fromX = Math.max(0, x - half);
+      int fromY = Math.max(0, y - half);
+      int toX = Math.min(this.width, x + w + half);
+      int toY = Math.min(this.height, y + h + half);
+      int[] filtered = pixelsOf(this.region(fromX, fromY, toX - fromX, toY - fromY)
+              .applyFilter(filter));
+
+      int[] tile = new int[w * h];
+      for (int row = 0; row < h; row++) {
+        System.arraycopy(filtered, (y + row - fromY) * (toX - fromX) + (x - fromX), tile,
+                row * w, w);
+      }
+      return tile;
+    });
+  }
+
+  /**
+   * Applies the given matrix to every pixel in the image.
+   *
+   * @param transformation the given matrix.
+   * @return the image after each pixel in the image has been transformed.
+   */
+  @Override
+  public Image applyTransformation(ITransformation transformation) {
+    return new TiledImage(this.width, this.height, (x, y, w, h) ->
+            pixelsOf(this.region(x, y, w, h).applyTransformation(transformation)));
+  }
+
+  /**
+   * Creates a buffered image of this image, one tile at a time. Rows of tiles are computed on
+   * several threads.
+   *
+   * @return the buffered image
+   */
+  @Override
+  public BufferedImage createBufferedImage() {
+    BufferedImage img = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_RGB);
+    int[] data = dataOf(img);
+    int tilesDown = this.tiles.length() / Math.max(1, this.tilesAcross);
+
+    Parallel.forEachBand(tilesDown, (fromTile, toTile) -> {
+      for (int ty = fromTile; ty < toTile; ty++) {
+        for (int tx = 0; tx < this.tilesAcross; tx++) {
+          int[] tile = this.tile(tx, ty);
+          int tileWidth = Math.min(TILE_SIZE, this.width - tx * TILE_SIZE);
+          int tileHeight = Math.min(TILE_SIZE, this.height - ty * TILE_SIZE);
+          for (int row = 0; row < tileHeight; row++) {
+            System.arraycopy(tile, row * tileWidth, data,
+                    (ty * TILE_SIZE + row) * this.width + tx * TILE_SIZE, tileWidth);
+          }
+        }
+      }
+    });
+
+    return img;
+  }
+
+  /**
+   * Gets the histogram of a given color of this image.
+   *
+   * @param component the given color
+   * @return the histogram of the color
+   * @throws IllegalArgumentException if the given color is invalid
+   */
+  @Override
+  public Map<Integer, Integer> getHistogram(String component) throws IllegalArgumentException {
+    checkHistogramComponent(component);
+    int[] counts = new int[MAX_VALUE + 1];
+
+    for (int i = 0; i < this.tiles.length(); i++) {
+      for (int rgb : this.tile(i % this.tilesAcross, i / this.tilesAcross)) {
+        counts[getGreyValue(component, (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF)]++;
+      }
+    }
+
+    return toHistogram(counts);
+  }
+
+  /**
+   * Gets the pixels of the given region as a packed image.
+   *
+   * @param x the column of the top left pixel of the region
+   * @param y the row of the top left pixel of the region
+   * @param width the width of the region
+   * @param height the height of the region
+   * @return the region as a packed image
+   */
+  private PackedImage region(int x, int y, int width, int height) {
+    int[] pixels = new int[width * height];
+    this.readRegion(x, y, width, height, pixels);
+    return new PackedImage(width, height, pixels);
+  }
+
+  /**
+   * Gets the packed 0xRRGGBB pixels of the given image in row-major order.
+   *
+   * @param image the image
+   * @return the packed pixels of the image
+   */
+  private static int[] pixelsOf(Image image) {
+    if (image instanceof PackedImage) {
+      return ((PackedImage) image).getRaster();
+    }
+
+    int[] pixels = image.createBufferedImage().getRGB(0, 0, image.getWidth(), image.getHeight(),
+            null, 0, image.getWidth());
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = pixels[i] & 0xFFFFFF;
+    }
+    return pixels;
+  }
+
+  /**
+   * Gets the pixels of the given tile, computing them if this is the first time they are used.
+   * If two threads compute the same tile at the same time, only one of the results is kept.
+   *
+   * @param tileX the column of the tile
+   * @param tileY the row of the tile
+   * @return the packed pixels of the tile in row-major order
+   */
+  private int[] tile(int tileX, int tileY) {
+    int index = tileY * this.tilesAcross + tileX;
+    int[] tile = this.tiles.get(index);
+
+    if (tile == null) {
+      int x = tileX * TILE_SIZE;
+      int y = tileY * TILE_SIZE;
+      tile = this.source.computeTile(x, y, Math.min(TILE_SIZE, this.width - x),
+              Math.min(TILE_SIZE, this.height - y));
+      if (!this.tiles.compareAndSet(index, null, tile)) {
+        tile = this.tiles.get(index);
+      }
+    }
+
+    return tile;
+  }
+}
@@ -1,11 +1,13 @@
 package model;
 
 /**
- * A class for a transformation.
+ * A class for a transformation. Channels with 8 bits are transformed with the fixed point
+ * arithmetic of {@link FixedPoint}, and other channels with double arithmetic.
  */
 public class Transformation implements ITransformation {
 
   private final double[][] matrix;
+  private final int[][] fixedMatrix;
 
   /**
    * Constructor that initializes that matrix transformation.
@@ -19,6 +21,13 @@ public class Transformation implements ITransformation {
     }
 
     this.matrix = matrix;
+    this.fixedMatrix = new int[3][];
+    for (int channel = 0; channel < 3; channel++) {
+      if (matrix[channel].length != 3) {
+        throw new IllegalArgumentException("Invalid matrix size!");
+      }
+      this.fixedMatrix[channel] = FixedPoint.toFixed(matrix[channel]);
+    }
   }
 
   /**
@@ -30,36 +39,186 @@ public class Transformation implements ITransformation {
   @Override
   public IPixel transformPixel(IPixel pixel) {
 
-    double red = pixel.getChannelValue("red") * this.matrix[0][0]
-            + pixel.getChannelValue("green") * this.matrix[0][1]
-            + pixel.getChannelValue("blue") * this.matrix[0][2];
+    int red = pixel.getChannelValue("red");
+    int green = pixel.getChannelValue("green");
+    int blue = pixel.getChannelValue("blue");
+    int maxValue = pixel.getMaxValue();
+
+    return new Pixel(Integer.bitCount(maxValue),
+            this.transformChannel(0, red, green, blue, maxValue),
+            this.transformChannel(1, red, green, blue, maxValue),
+            this.transformChannel(2, red, green, blue, maxValue));
+  }
+
+  /**
+   * Applies the transformation to the given channel values and returns the value of one of the
+   * resulting channels.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param red the red value of the pixel.
+   * @param green the green value of the pixel.
+   * @param blue the blue value of the pixel.
+   * @param maxValue the maxValue that any channel can be.
+   * @return the value of the given channel after the transformation has been applied.
+   */
+  @Override
+  public int transformChannel(int channel, int red, int green, int blue, int maxValue) {
+    int[] weights = this.fixedMatrix[channel];
+    if (weights == null || !FixedPoint.applies(maxValue)) {
+      return this.exactChannel(channel, red, green, blue, maxValue);
+    }
+
+    int value = FixedPoint.toValue(red * weights[0] + green * weights[1] + blue * weights[2],
+            maxValue);
+    if (FixedPoint.isVerifying()) {
+      FixedPoint.record(value, this.exactChannel(channel, red, green, blue, maxValue));
+    }
+    return value;
+  }
 
-    double green = pixel.getChannelValue("red") * this.matrix[1][0]
-            + pixel.getChannelValue("green") * this.matrix[1][1]
-            + pixel.getChannelValue("blue") * this.matrix[1][2];
+  /**
+   * Applies the transformation to the given channel values with double arithmetic and returns
+   * the value of one of the resulting channels.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param red the red value of the pixel.
+   * @param green the green value of the pixel.
+   * @param blue the blue value of the pixel.
+   * @param maxValue the maxValue that any channel can be.
+   * @return the value of the given channel after the transformation has been applied.
+   */
+  private int exactChannel(int channel, int red, int green, int blue, int maxValue) {
+    double value = red * this.matrix[channel][0]
+            + green * this.matrix[channel][1]
+            + blue * this.matrix[channel][2];
 
-    double blue = pixel.getChannelValue("red") * this.matrix[2][0]
-            + pixel.getChannelValue("green") * this.matrix[2][1]
-            + pixel.getChannelValue("blue") * this.matrix[2][2];
+    return clamp(value, maxValue);
+  }
 
-    if (red < 0) {
-      red = 0;
-    } else if (red > pixel.getMaxValue()) {
-      red = pixel.getMaxValue();
+  /**
+   * Applies the transformation to a run of pixels whose channels are given as separate planes,
+   * and writes one of the resulting channels. The row of the matrix is read once, and the loop
+   * has no branches, so the JIT compiler can turn it into vector instructions.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param red the red values of the pixels.
+   * @param green the green values of the pixels.
+   * @param blue the blue values of the pixels.
+   * @param result the array to write the values of the resulting channel into.
+   * @param length the number of pixels.
+   * @param maxValue the maxValue that any channel can be.
+   */
+  @Override
+  public void transformPlanes(int channel, int[] red, int[] green, int[] blue, int[] result,
+                              int length, int maxValue) {
+    int[] weights = this.fixedMatrix[channel];
+    if (weights == null || !FixedPoint.applies(maxValue)) {
+      this.exactPlanes(channel, red, green, blue, result, length, maxValue);
+      return;
     }
 
-    if (green < 0) {
-      green = 0;
-    } else if (green > pixel.getMaxValue()) {
-      green = pixel.getMaxValue();
+    int redWeight = weights[0];
+    int greenWeight = weights[1];
+    int blueWeight = weights[2];
+    for (int i = 0; i < length; i++) {
+      result[i] = FixedPoint.toValue(red[i] * redWeight + green[i] * greenWeight
+              + blue[i] * blueWeight, maxValue);
     }
 
-    if (blue < 0) {
-      blue = 0;
-    } else if (blue > pixel.getMaxValue()) {
-      blue = pixel.getMaxValue();
+    if (FixedPoint.isVerifying()) {
+      int[] exact = new int[length];
+      this.exactPlanes(channel, red, green, blue, exact, length, maxValue);
+      FixedPoint.record(result, exact, length);
     }
+  }
 
-    return new Pixel((int) red, (int) green, (int) blue);
+  /**
+   * Applies the transformation to a run of pixels whose channels are given as separate planes,
+   * and writes all three resulting channels. The given channels are left unchanged.
+   *
+   * @param red the red values of the pixels.
+   * @param green the green values of the pixels.
+   * @param blue the blue values of the pixels.
+   * @param results the three arrays to write the red, green and blue resulting values into.
+   * @param length the number of pixels.
+   * @param maxValue the maxValue that any channel can be.
+   */
+  @Override
+  public void transformRow(int[] red, int[] green, int[] blue, int[][] results, int length,
+                           int maxValue) {
+    if (!FixedPoint.applies(maxValue)) {
+      this.exactRow(red, green, blue, results, length, maxValue);
+      return;
+    }
+
+    for (int c = 0; c < 3; c++) {
+      this.transformPlanes(c, red, green, blue, results[c], length, maxValue);
+    }
+  }
+
+  /**
+   * Applies the transformation to a run of pixels with double arithmetic and writes all three
+   * resulting channels in a single pass, so every channel value is read and converted to a
+   * double once rather than once for every resulting channel.
+   *
+   * @param red the red values of the pixels.
+   * @param green the green values of the pixels.
+   * @param blue the blue values of the pixels.
+   * @param results the three arrays to write the red, green and blue resulting values into.
+   * @param length the number of pixels.
+   * @param maxValue the maxValue that any channel can be.
+   */
+  private void exactRow(int[] red, int[] green, int[] blue, int[][] results, int length,
+                        int maxValue) {
+    double[] redRow = this.matrix[0];
+    double[] greenRow = this.matrix[1];
+    double[] blueRow = this.matrix[2];
+    int[] redResult = results[0];
+    int[] greenResult = results[1];
+    int[] blueResult = results[2];
+
+    for (int i = 0; i < length; i++) {
+      double r = red[i];
+      double g = green[i];
+      double b = blue[i];
+      redResult[i] = clamp(r * redRow[0] + g * redRow[1] + b * redRow[2], maxValue);
+      greenResult[i] = clamp(r * greenRow[0] + g * greenRow[1] + b * greenRow[2], maxValue);
+      blueResult[i] = clamp(r * blueRow[0] + g * blueRow[1] + b * blueRow[2], maxValue);
+    }
+  }
+
+  /**
+   * Applies the transformation to a run of pixels with double arithmetic and writes one of the
+   * resulting channels.
+   *
+   * @param channel the index of the resulting channel (0 for red, 1 for green, 2 for blue).
+   * @param red the red values of the pixels.
+   * @param green the green values of the pixels.
+   * @param blue the blue values of the pixels.
+   * @param result the array to write the values of the resulting channel into.
+   * @param length the number of pixels.
+   * @param maxValue the maxValue that any channel can be.
+   */
+  private void exactPlanes(int channel, int[] red, int[] green, int[] blue, int[] result,
+                           int length, int maxValue) {
+    double redWeight = this.matrix[channel][0];
+    double greenWeight = this.matrix[channel][1];
+    double blueWeight = this.matrix[channel][2];
+
+    for (int i = 0; i < length; i++) {
+      result[i] = clamp(red[i] * redWeight + green[i] * greenWeight + blue[i] * blueWeight,
+              maxValue);
+    }
+  }
+
+  /**
+   * Clamps the given value between 0 and the given max value, rounding towards zero.
+   *
+   * @param value the value of a channel after the transformation.
+   * @param maxValue the maxValue that any channel can be.
+   * @return the clamped value.
+   */
+  static int clamp(double value, int maxValue) {
+    return Math.min(Math.max((int) value, 0), maxValue);
   }
 }
@@ -0,0 +1,66 @@
+package model.utility;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+
+/**
+ * Class that reads an image file that is held in memory. Seeking to any position is free, so an
+ * image reader that only decodes the parts of the file it needs does not go through the rest of
+ * it, and several streams can read the same bytes at the same time.
+ */
+class ByteArrayImageStream extends ImageInputStreamImpl {
+  private final byte[] bytes;
+
+  /**
+   * Constructor for initialising a ByteArrayImageStream that reads the given bytes.
+   *
+   * @param bytes the bytes of the file, which are not copied
+   */
+  ByteArrayImageStream(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  /**
+   * Reads the next byte of the file.
+   *
+   * @return the byte, or -1 at the end of the file
+   */
+  @Override
+  public int read() {
+    this.bitOffset = 0;
+    if (this.streamPos >= this.bytes.length) {
+      return -1;
+    }
+    return this.bytes[(int) this.streamPos++] & 0xFF;
+  }
+
+  /**
+   * Reads up to the given number of bytes of the file into the given array.
+   *
+   * @param b the array to read into
+   * @param off the index of the array to start writing at
+   * @param len the largest number of bytes to read
+   * @return the number of bytes read, or -1 at the end of the file
+   */
+  @Override
+  public int read(byte[] b, int off, int len) {
+    this.bitOffset = 0;
+    if (this.streamPos >= this.bytes.length) {
+      return len == 0 ? 0 : -1;
+    }
+
+    int count = (int) Math.min(len, this.bytes.length - this.streamPos);
+    System.arraycopy(this.bytes, (int) this.streamPos, b, off, count);
+    this.streamPos += count;
+    return count;
+  }
+
+  /**
+   * Gets the length of the file.
+   *
+   * @return the number of bytes of the file
+   */
+  @Override
+  public long length() {
+    return this.bytes.length;
+  }
+}
@@ -18,6 +18,18 @@ public class FileUtil {
    * @throws IllegalArgumentException if it is not able to read from the file
    */
   public StringReader readScript(String filename) throws IllegalArgumentException {
+    return new StringReader(this.readScriptText(filename));
+  }
+
+  /**
+   * Reads the script in the given file and returns its commands as a single line of text,
+   * leaving out empty lines and comments.
+   *
+   * @param filename of the file to read from
+   * @return the commands of the script
+   * @throws IllegalArgumentException if it is not able to read from the file
+   */
+  public String readScriptText(String filename) throws IllegalArgumentException {
 
     Scanner sc;
 
@@ -36,6 +48,6 @@ public class FileUtil {
       }
     }
 
-    return new StringReader(builder.toString());
+    return builder.toString();
   }
 }
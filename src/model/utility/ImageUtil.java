@@ -1,38 +1,127 @@
 package model.utility;
 
 import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
 import java.util.Scanner;
+import java.util.UUID;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
 
+import model.HighBitImage;
 import model.IPixel;
 import model.Image;
-import model.Pixel;
-import model.SimpleImage;
+import model.LazyImage;
+import model.OffHeapImage;
+import model.PackedImage;
+import model.PlanarImage;
+import model.TiledImage;
 
 /**
  * Class that represents the operations required to load and save any kind of image.
  */
 public class ImageUtil {
 
+  private static final int MAX_MAPPED_SIZE = 1 << 30;
+  private static String defaultLayout = "packed";
+  private static boolean binaryPPM = false;
+  private static boolean lazy = false;
+
+  /**
+   * Sets the layout used for the pixels of every image loaded from now on. The "packed" layout
+   * stores each pixel as a single int, the "planar" layout stores each channel in its own
+   * array, which suits scripts that mostly apply filters, the "offheap" layout stores the
+   * pixels outside of the Java heap, which suits images too big for the heap, and the "tiled"
+   * layout splits the image into tiles that are only decoded and computed when they are used.
+   *
+   * @param layout the name of the layout
+   * @throws IllegalArgumentException if the layout is invalid
+   */
+  public static void setDefaultLayout(String layout) throws IllegalArgumentException {
+    if (!(layout.equals("packed") || layout.equals("planar") || layout.equals("offheap")
+            || layout.equals("tiled"))) {
+      throw new IllegalArgumentException("Invalid layout provided: " + layout);
+    }
+    defaultLayout = layout;
+  }
+
+  /**
+   * Sets whether PPM images are saved in the binary (P6) format instead of the plain (P3)
+   * format. PPM images of both formats can always be loaded.
+   *
+   * @param binary true to save PPM images in the binary format
+   */
+  public static void setBinaryPPM(boolean binary) {
+    binaryPPM = binary;
+  }
+
+  /**
+   * Sets whether images loaded from now on are evaluated lazily. The operations on a lazy image
+   * only record what has to be computed, and the pixels are computed when the image is saved or
+   * shown (see {@link LazyImage}).
+   *
+   * @param lazyEvaluation true to evaluate images lazily
+   */
+  public static void setLazy(boolean lazyEvaluation) {
+    lazy = lazyEvaluation;
+  }
+
   /**
-   * Loads any kind of image.
+   * Loads any kind of image. The image is wrapped in a {@link LazyImage} if lazy evaluation is
+   * on.
    *
    * @param filename the filename of the image to load into the program.
    * @return the image.
    * @throws IllegalArgumentException if the image is not found.
    */
   public Image loadImage(String filename) throws IllegalArgumentException {
+    Image image = this.loadAnyImage(filename);
+    return lazy ? new LazyImage(image) : image;
+  }
+
+  /**
+   * Loads any kind of image using the default layout.
+   *
+   * @param filename the filename of the image to load into the program.
+   * @return the image.
+   * @throws IllegalArgumentException if the image is not found.
+   */
+  private Image loadAnyImage(String filename) throws IllegalArgumentException {
 
     String[] filenameParts = filename.split("\\.");
     String fileType = filenameParts[filenameParts.length - 1];
 
-    if (fileType.equals("ppm")) {
+    if (fileType.equals("ppm") && this.isBinaryPPM(filename)) {
+      return this.loadBinaryPPM(filename);
+    } else if (fileType.equals("ppm")) {
       return this.loadPPM(filename);
     } else {
       return this.loadImg(filename);
@@ -53,11 +142,230 @@ public class ImageUtil {
 
     String filenameParts = filename.substring(filename.indexOf("."));
     String fileType = filenameParts.substring(1);
+    File temp = createTempFile(filename);
+
+    try {
+      if (fileType.equals("ppm")) {
+        this.savePPM(temp.getPath(), width, height, pixels);
+      } else {
+        this.saveImg(temp.getPath(), fileType, width, height, pixels);
+      }
+    } catch (IllegalArgumentException e) {
+      temp.delete();
+      throw e;
+    }
+    replaceFile(temp, filename);
+  }
+
+  /**
+   * Saves the given image with the given filename. The image is written to a temporary file
+   * next to the given file, which then replaces the given file, so an image that is still
+   * mapped from the old file keeps its pixels.
+   *
+   * @param filename the given filename.
+   * @param image the image to save.
+   * @throws IllegalArgumentException if the file cannot be saved.
+   */
+  public void saveImage(String filename, Image image) throws IllegalArgumentException {
+
+    String filenameParts = filename.substring(filename.indexOf("."));
+    String fileType = filenameParts.substring(1);
+    File temp = createTempFile(filename);
+
+    try {
+      this.writeImage(temp.getPath(), fileType, image);
+    } catch (IllegalArgumentException e) {
+      temp.delete();
+      throw e;
+    }
+    replaceFile(temp, filename);
+  }
+
+  /**
+   * Writes the given image to the given file in the given format.
+   *
+   * @param filename the file to write.
+   * @param fileType the format of the image.
+   * @param image the image to save.
+   * @throws IllegalArgumentException if the file cannot be written.
+   */
+  private void writeImage(String filename, String fileType, Image image)
+          throws IllegalArgumentException {
+
+    if (fileType.equals("ppm") && binaryPPM) {
+      this.saveBinaryPPM(filename, image);
+      return;
+    }
+
+    if (image.getMaxValue() > 255) {
+      if (fileType.equals("ppm")) {
+        this.saveHighBitPPM(filename, image);
+      } else if (fileType.equals("png")) {
+        this.writeImg(filename, fileType, this.createHighBitImage(image));
+      } else {
+        this.writeImg(filename, fileType, image.createBufferedImage());
+      }
+      return;
+    }
+
+    BufferedImage img = image.createBufferedImage();
 
     if (fileType.equals("ppm")) {
-      this.savePPM(filename, width, height, pixels);
+      this.savePPM(filename, img);
     } else {
-      this.saveImg(filename, fileType, width, height, pixels);
+      this.writeImg(filename, fileType, img);
+    }
+  }
+
+  /**
+   * Gets a file that does not exist yet in the directory of the given file, to write an image to
+   * before it replaces the given file.
+   *
+   * @param filename the given filename.
+   * @return the temporary file.
+   */
+  static File createTempFile(String filename) {
+    File target = new File(filename).getAbsoluteFile();
+    return new File(target.getParentFile(), "." + target.getName() + "." + UUID.randomUUID()
+            + ".tmp");
+  }
+
+  /**
+   * Replaces the given file with the temporary file that the image was written to. The old file
+   * is unlinked rather than overwritten, so any image mapped from it stays valid. Nothing is
+   * replaced if no temporary file was written, as for a format that has no writer.
+   *
+   * @param temp the temporary file.
+   * @param filename the given filename.
+   * @throws IllegalArgumentException if the file cannot be replaced.
+   */
+  static void replaceFile(File temp, String filename) throws IllegalArgumentException {
+    if (!temp.exists()) {
+      return;
+    }
+
+    Path source = temp.toPath();
+    Path target = Paths.get(filename);
+    try {
+      try {
+        Files.move(source, target, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      temp.delete();
+      throw new IllegalArgumentException("Unable to save " + filename + " file!");
+    }
+  }
+
+  /**
+   * Checks if the image with the given filename can be read one row at a time, which is the
+   * case for PPM images.
+   *
+   * @param filename the filename of the image.
+   * @return true if the image can be read with {@link #openRowReader(String)}.
+   */
+  public boolean canReadRows(String filename) {
+    String[] filenameParts = filename.split("\\.");
+    return filenameParts[filenameParts.length - 1].equals("ppm");
+  }
+
+  /**
+   * Checks if an image can be saved with the given filename one row at a time, which is the
+   * case for PPM images.
+   *
+   * @param filename the given filename.
+   * @return true if the image can be saved with {@link #openRowWriter(String, int, int, int)}.
+   */
+  public boolean canWriteRows(String filename) {
+    return filename.contains(".")
+            && filename.substring(filename.indexOf(".")).substring(1).equals("ppm");
+  }
+
+  /**
+   * Opens a PPM image to be read one row at a time, so the whole image is never held in memory.
+   *
+   * @param filename the filename of the image.
+   * @return the reader of the rows of the image, which must be closed.
+   * @throws IllegalArgumentException if the image is not found or is invalid.
+   */
+  public RowReader openRowReader(String filename) throws IllegalArgumentException {
+    return new PPMRowReader(filename);
+  }
+
+  /**
+   * Creates a PPM image to be saved one row at a time. The file is the same as the one
+   * {@link #saveImage(String, Image)} saves for an image with the same pixels, and like it the
+   * rows are written to a temporary file that only replaces the given file once it is closed.
+   *
+   * @param filename the given filename.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param maxValue the max value that any channel of the image can be.
+   * @return the writer of the rows of the image, which must be closed.
+   * @throws IllegalArgumentException if the file cannot be created.
+   */
+  public RowWriter openRowWriter(String filename, int width, int height, int maxValue)
+          throws IllegalArgumentException {
+    return new PPMRowWriter(filename, width, height, maxValue, binaryPPM);
+  }
+
+  /**
+   * Checks if the file with the given filename has the extension of an image that can be
+   * loaded.
+   *
+   * @param filename the filename of the image.
+   * @return true if the file is a PPM image or an image that ImageIO can read.
+   */
+  public boolean isImageFile(String filename) {
+    String[] filenameParts = filename.split("\\.");
+    if (filenameParts.length < 2) {
+      return false;
+    }
+
+    String fileType = filenameParts[filenameParts.length - 1];
+    if (fileType.equals("ppm")) {
+      return true;
+    }
+    for (String suffix : ImageIO.getReaderFileSuffixes()) {
+      if (suffix.equalsIgnoreCase(fileType)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reads the number of pixels of the image with the given filename from its header, without
+   * reading its pixels.
+   *
+   * @param filename the filename of the image.
+   * @return the number of pixels of the image.
+   * @throws IllegalArgumentException if the image is not found or is invalid.
+   */
+  public long readPixelCount(String filename) throws IllegalArgumentException {
+    if (this.canReadRows(filename)) {
+      try (RowReader reader = this.openRowReader(filename)) {
+        return (long) reader.getWidth() * reader.getHeight();
+      }
+    }
+
+    try (ImageInputStream in = ImageIO.createImageInputStream(new File(filename))) {
+      Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+      if (readers == null || !readers.hasNext()) {
+        throw new IllegalArgumentException("Not able to read " + filename + " file!");
+      }
+
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(in);
+        return (long) reader.getWidth(0) * reader.getHeight(0);
+      } finally {
+        reader.dispose();
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Not able to read " + filename + " file!");
     }
   }
 
@@ -97,20 +405,189 @@ public class ImageUtil {
     int width = sc.nextInt();
     int height = sc.nextInt();
     int maxValue = sc.nextInt();
-    int bits = 8;
 
-    IPixel[][] pixels = new IPixel[width][height];
+    if (maxValue > 255) {
+      short[] red = new short[width * height];
+      short[] green = new short[width * height];
+      short[] blue = new short[width * height];
+      // The channels are stored in shorts, so no value can be above 16 bits.
+      int limit = Math.min(maxValue, 65535);
+      for (int i = 0; i < red.length; i++) {
+        red[i] = (short) this.readChannel(sc, limit);
+        green[i] = (short) this.readChannel(sc, limit);
+        blue[i] = (short) this.readChannel(sc, limit);
+      }
+      return new HighBitImage(width, height, maxValue, red, green, blue);
+    }
+
+    if (defaultLayout.equals("offheap")) {
+      OffHeapImage image = new OffHeapImage(width, height);
+      int[] row = new int[width];
+      for (int r = 0; r < height; r++) {
+        for (int c = 0; c < width; c++) {
+          int red = this.readChannel(sc, maxValue);
+          int green = this.readChannel(sc, maxValue);
+          int blue = this.readChannel(sc, maxValue);
+          row[c] = (red << 16) | (green << 8) | blue;
+        }
+        image.writeRow(r, row);
+      }
+      return image;
+    }
+
+    int[] raster = new int[width * height];
+
+    for (int i = 0; i < raster.length; i++) {
+      int red = this.readChannel(sc, maxValue);
+      int green = this.readChannel(sc, maxValue);
+      int blue = this.readChannel(sc, maxValue);
+      raster[i] = (red << 16) | (green << 8) | blue;
+    }
+
+    return this.createImage(width, height, raster);
+  }
+
+  /**
+   * Reads the next channel value of a plain PPM image, which must lie between 0 and the given
+   * max value.
+   *
+   * @param sc the scanner of the pixels of the image.
+   * @param maxValue the max value of the image.
+   * @return the channel value.
+   * @throws IllegalArgumentException if the value is out of range.
+   */
+  private int readChannel(Scanner sc, int maxValue) throws IllegalArgumentException {
+    int value = sc.nextInt();
+    if (value < 0 || value > maxValue) {
+      throw new IllegalArgumentException("One of the values provided was invalid!");
+    }
+    return value;
+  }
+
+  /**
+   * Checks if the given PPM file is in the binary (P6) format.
+   *
+   * @param filename the filename of the image.
+   * @return true if the file begins with P6.
+   * @throws IllegalArgumentException if the image is not found.
+   */
+  private boolean isBinaryPPM(String filename) throws IllegalArgumentException {
+    try (InputStream in = new FileInputStream(filename)) {
+      return in.read() == 'P' && in.read() == '6';
+    } catch (IOException e) {
+      throw new IllegalArgumentException("File " + filename + " not found!");
+    }
+  }
+
+  /**
+   * Loads a binary (P6) PPM image. With the offheap and tiled layouts, images with 8 bits per
+   * channel are mapped straight from the file, so their pixels are only read when they are used,
+   * and with the other layouts the mapped pixels are copied into the default layout. Images with
+   * more bits per channel are read into a high bit depth image.
+   *
+   * @param filename the filename of the image to load into the program.
+   * @return the image.
+   * @throws IllegalArgumentException if the image is not found or is invalid.
+   */
+  private Image loadBinaryPPM(String filename) throws IllegalArgumentException {
+    int[] header = new int[4];
+
+    try (InputStream in = new BufferedInputStream(new FileInputStream(filename))) {
+      if (in.read() != 'P' || in.read() != '6') {
+        throw new IllegalArgumentException("Invalid PPM file: binary RAW file should begin "
+                + "with P6");
+      }
+      int position = 2;
+      for (int i = 0; i < 3; i++) {
+        position = this.readHeaderValue(in, position, header, i);
+      }
+      header[3] = position;
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Not able to read " + filename + " file!");
+    }
+
+    int width = header[0];
+    int height = header[1];
+    int maxValue = header[2];
+    int bytesPerValue = maxValue > 255 ? 2 : 1;
+    long dataSize = (long) width * height * 3 * bytesPerValue;
+
+    try (RandomAccessFile file = new RandomAccessFile(filename, "r")) {
+      FileChannel channel = file.getChannel();
+      if (channel.size() < header[3] + dataSize) {
+        throw new IllegalArgumentException("Invalid PPM file: not enough pixels in " + filename);
+      }
+
+      if (bytesPerValue == 1 && defaultLayout.equals("tiled")) {
+        return this.createTiledImage(OffHeapImage.map(channel, header[3], width, height));
+      } else if (bytesPerValue == 1 && defaultLayout.equals("offheap")) {
+        return OffHeapImage.map(channel, header[3], width, height);
+      } else if (bytesPerValue == 1) {
+        OffHeapImage mapped = OffHeapImage.map(channel, header[3], width, height);
+        int[] raster = new int[width * height];
+        int[] row = new int[width];
+        for (int r = 0; r < height; r++) {
+          mapped.readRow(r, row);
+          System.arraycopy(row, 0, raster, r * width, width);
+        }
+        mapped.close();
+        return this.createImage(width, height, raster);
+      }
+
+      short[] red = new short[width * height];
+      short[] green = new short[width * height];
+      short[] blue = new short[width * height];
+      MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, header[3], dataSize);
+      for (int i = 0; i < red.length; i++) {
+        red[i] = data.getShort();
+        green[i] = data.getShort();
+        blue[i] = data.getShort();
+      }
+      return new HighBitImage(width, height, maxValue, red, green, blue);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Not able to read " + filename + " file!");
+    }
+  }
 
-    for (int r = 0; r < height; r++) {
-      for (int c = 0; c < width; c++) {
-        int red = sc.nextInt();
-        int green = sc.nextInt();
-        int blue = sc.nextInt();
-        pixels[c][r] = new Pixel(bits, red, green, blue);
+  /**
+   * Reads the next number of the header of a binary PPM file, skipping whitespace and comments.
+   *
+   * @param in the stream of the file.
+   * @param position the number of bytes read from the file so far.
+   * @param header the array to store the number in.
+   * @param index the index of the number in the header.
+   * @return the number of bytes read from the file, including the whitespace after the number.
+   * @throws IOException if the file cannot be read.
+   * @throws IllegalArgumentException if the header is invalid.
+   */
+  private int readHeaderValue(InputStream in, int position, int[] header, int index)
+          throws IOException, IllegalArgumentException {
+    int c = in.read();
+    position++;
+    while (c == '#' || Character.isWhitespace(c)) {
+      if (c == '#') {
+        while (c != '\n' && c != '\r' && c != -1) {
+          c = in.read();
+          position++;
+        }
       }
+      c = in.read();
+      position++;
+    }
+
+    if (!Character.isDigit(c)) {
+      throw new IllegalArgumentException("Invalid PPM file: invalid header");
+    }
+
+    int value = 0;
+    while (Character.isDigit(c)) {
+      value = value * 10 + (c - '0');
+      c = in.read();
+      position++;
     }
 
-    return new SimpleImage(width, height, pixels);
+    header[index] = value;
+    return position;
   }
 
   /**
@@ -122,6 +599,13 @@ public class ImageUtil {
    */
   private Image loadImg(String filename) {
 
+    if (defaultLayout.equals("tiled")) {
+      Image image = this.loadTiledImg(filename);
+      if (image != null) {
+        return image;
+      }
+    }
+
     File file = null;
     BufferedImage img = null;
     try {
@@ -133,17 +617,222 @@ public class ImageUtil {
 
     int width = img.getWidth();
     int height = img.getHeight();
-    int bits = img.getColorModel().getPixelSize() / img.getColorModel().getNumComponents();
 
-    IPixel[][] pixels = new IPixel[width][height];
-    for (int r = 0; r < width; r++) {
-      for (int c = 0; c < height; c++) {
-        Color color = new Color(img.getRGB(r, c));
-        pixels[r][c] = new Pixel(bits, color.getRed(), color.getGreen(), color.getBlue());
+    if (img.getColorModel().getComponentSize(0) > 8) {
+      return this.loadHighBitImg(img);
+    }
+
+    if (defaultLayout.equals("offheap")) {
+      OffHeapImage image = new OffHeapImage(width, height);
+      int[] row = new int[width];
+      for (int r = 0; r < height; r++) {
+        img.getRGB(0, r, width, 1, row, 0, width);
+        image.writeRow(r, row);
+      }
+      return image;
+    }
+
+    int[] raster = img.getRGB(0, 0, width, height, null, 0, width);
+    for (int i = 0; i < raster.length; i++) {
+      raster[i] = raster[i] & 0xFFFFFF;
+    }
+
+    return this.createImage(width, height, raster);
+  }
+
+  /**
+   * Loads an image with 8 bits per channel as a tiled image whose tiles are decoded on their own
+   * the first time they are used. This is only done for formats whose reader can decode a region
+   * without decoding the part of the file before it, which are uncompressed BMP images and TIFF
+   * images, as decoding a region of a PNG or JPEG image decodes every row above it again. The
+   * bytes of the file are read once, so no file stays open and the image keeps the pixels the
+   * file had when it was loaded, and every tile is decoded from them by its own reader, so tiles
+   * can be decoded at the same time.
+   *
+   * @param filename the filename of the image to load into the program.
+   * @return the image, or null if the image has more than 8 bits per channel or its format
+   *         cannot be decoded one region at a time.
+   * @throws IllegalArgumentException if the image is not found.
+   */
+  private Image loadTiledImg(String filename) throws IllegalArgumentException {
+    byte[] bytes;
+    int width;
+    int height;
+
+    try {
+      Path path = Paths.get(filename);
+      if (Files.size(path) > Integer.MAX_VALUE - 8) {
+        return null;
+      }
+      bytes = Files.readAllBytes(path);
+
+      ImageReader reader = openReader(bytes);
+      if (reader == null) {
+        throw new IllegalArgumentException("Not able to read " + filename + " file!");
+      }
+      try {
+        ImageTypeSpecifier type = reader.getRawImageType(0);
+        if (!(reader.isRandomAccessEasy(0) || reader.getFormatName().equalsIgnoreCase("tif"))
+                || (type != null && type.getColorModel().getComponentSize(0) > 8)) {
+          return null;
+        }
+        width = reader.getWidth(0);
+        height = reader.getHeight(0);
+      } finally {
+        reader.dispose();
+      }
+    } catch (IOException | RuntimeException e) {
+      throw new IllegalArgumentException("Not able to read " + filename + " file!");
+    }
+
+    return new TiledImage(width, height, (x, y, w, h) -> {
+      BufferedImage part;
+      ImageReader reader = openReader(bytes);
+      try {
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(new Rectangle(x, y, w, h));
+        part = reader.read(0, param);
+      } catch (IOException e) {
+        throw new IllegalArgumentException("Not able to read " + filename + " file!");
+      } finally {
+        reader.dispose();
+      }
+
+      int[] tile = part.getRGB(0, 0, w, h, null, 0, w);
+      for (int i = 0; i < tile.length; i++) {
+        tile[i] = tile[i] & 0xFFFFFF;
       }
+      return tile;
+    });
+  }
+
+  /**
+   * Opens a reader for the image file with the given bytes.
+   *
+   * @param bytes the bytes of the file.
+   * @return the reader, or null if no reader knows the format of the file.
+   */
+  private static ImageReader openReader(byte[] bytes) {
+    ImageInputStream in = new ByteArrayImageStream(bytes);
+    Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+    if (!readers.hasNext()) {
+      return null;
     }
 
-    return new SimpleImage(width, height, pixels);
+    ImageReader reader = readers.next();
+    reader.setInput(in, true, true);
+    return reader;
+  }
+
+  /**
+   * Creates a tiled image whose tiles are read from the rows of the given mapped image.
+   *
+   * @param image the mapped image.
+   * @return the tiled image.
+   */
+  private Image createTiledImage(OffHeapImage image) {
+    int width = image.getWidth();
+
+    return new TiledImage(width, image.getHeight(), (x, y, w, h) -> {
+      int[] row = new int[width];
+      int[] tile = new int[w * h];
+      for (int r = 0; r < h; r++) {
+        image.readRow(y + r, row);
+        System.arraycopy(row, x, tile, r * w, w);
+      }
+      return tile;
+    });
+  }
+
+  /**
+   * Loads a buffered image with more than 8 bits per channel into a high bit depth image.
+   * Grey images have their single channel copied into all three channels.
+   *
+   * @param img the buffered image.
+   * @return the image.
+   */
+  private Image loadHighBitImg(BufferedImage img) {
+    int width = img.getWidth();
+    int height = img.getHeight();
+    int bits = img.getColorModel().getComponentSize(0);
+    Raster data = img.getRaster();
+    boolean isGrey = data.getNumBands() < 3;
+
+    short[] red = new short[width * height];
+    short[] green = isGrey ? red : new short[width * height];
+    short[] blue = isGrey ? red : new short[width * height];
+    int[] row = new int[width];
+
+    for (int y = 0; y < height; y++) {
+      data.getSamples(0, y, width, 1, 0, row);
+      for (int x = 0; x < width; x++) {
+        red[y * width + x] = (short) row[x];
+      }
+      if (!isGrey) {
+        data.getSamples(0, y, width, 1, 1, row);
+        for (int x = 0; x < width; x++) {
+          green[y * width + x] = (short) row[x];
+        }
+        data.getSamples(0, y, width, 1, 2, row);
+        for (int x = 0; x < width; x++) {
+          blue[y * width + x] = (short) row[x];
+        }
+      }
+    }
+
+    return new HighBitImage(width, height, (1 << bits) - 1, red, green, blue);
+  }
+
+  /**
+   * Creates a buffered image with 16 bits per channel from the given image. The channels are
+   * scaled up to the full 16 bit range.
+   *
+   * @param image the image.
+   * @return the buffered image.
+   */
+  private BufferedImage createHighBitImage(Image image) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int maxValue = image.getMaxValue();
+
+    ComponentColorModel colorModel = new ComponentColorModel(
+            ColorSpace.getInstance(ColorSpace.CS_sRGB), new int[]{16, 16, 16}, false, false,
+            Transparency.OPAQUE, DataBuffer.TYPE_USHORT);
+    WritableRaster data = colorModel.createCompatibleWritableRaster(width, height);
+
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        for (int c = 0; c < 3; c++) {
+          long value = image.getChannelValue(x, y, c);
+          data.setSample(x, y, c, (int) (value * 65535 / maxValue));
+        }
+      }
+    }
+
+    return new BufferedImage(colorModel, data, false, null);
+  }
+
+  /**
+   * Creates an image from the given packed raster using the default layout.
+   *
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param raster the packed 0xRRGGBB pixels of the image in row-major order.
+   * @return the image.
+   */
+  private Image createImage(int width, int height, int[] raster) {
+    if (defaultLayout.equals("planar")) {
+      return PlanarImage.fromRaster(width, height, raster);
+    } else if (defaultLayout.equals("tiled")) {
+      return new TiledImage(width, height, (x, y, w, h) -> {
+        int[] tile = new int[w * h];
+        for (int r = 0; r < h; r++) {
+          System.arraycopy(raster, (y + r) * width + x, tile, r * w, w);
+        }
+        return tile;
+      });
+    }
+    return new PackedImage(width, height, raster);
   }
 
   /**
@@ -188,6 +877,89 @@ public class ImageUtil {
     }
   }
 
+  /**
+   * Saves a PPM image with more than 8 bits per channel, keeping the max value of the image.
+   *
+   * @param filename the given filename.
+   * @param image the image to save.
+   * @throws IllegalArgumentException if the file cannot be saved.
+   */
+  private void saveHighBitPPM(String filename, Image image) throws IllegalArgumentException {
+
+    OutputStream out = null;
+
+    try {
+      out = new BufferedOutputStream(new FileOutputStream(filename));
+    } catch (FileNotFoundException e) {
+      throw new IllegalArgumentException(e.getMessage());
+    }
+
+    try {
+      out.write(this.writeString("P3"));
+      out.write(this.writeString(String.valueOf(image.getWidth())));
+      out.write(this.writeString(String.valueOf(image.getHeight())));
+      out.write(this.writeString(String.valueOf(image.getMaxValue())));
+
+      for (int r = 0; r < image.getHeight(); r++) {
+        for (int c = 0; c < image.getWidth(); c++) {
+          for (int channel = 0; channel < 3; channel++) {
+            out.write(this.writeString(String.valueOf(image.getChannelValue(c, r, channel))));
+          }
+        }
+      }
+
+      out.close();
+
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Unable to write to file!");
+    }
+  }
+
+  /**
+   * Saves the given image as a binary (P6) PPM image. The file is mapped into memory and the
+   * pixels are written straight into it.
+   *
+   * @param filename the given filename.
+   * @param image the image to save.
+   * @throws IllegalArgumentException if the file cannot be saved.
+   */
+  private void saveBinaryPPM(String filename, Image image) throws IllegalArgumentException {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int maxValue = image.getMaxValue();
+    int bytesPerValue = maxValue > 255 ? 2 : 1;
+    int rowSize = width * 3 * bytesPerValue;
+    byte[] header = ("P6\n" + width + " " + height + "\n" + maxValue + "\n").getBytes();
+    int rowsPerMap = Math.max(1, MAX_MAPPED_SIZE / Math.max(1, rowSize));
+
+    try (RandomAccessFile file = new RandomAccessFile(filename, "rw")) {
+      FileChannel channel = file.getChannel();
+      file.setLength(header.length + (long) rowSize * height);
+      file.write(header);
+
+      for (int start = 0; start < height; start += rowsPerMap) {
+        int rows = Math.min(rowsPerMap, height - start);
+        MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_WRITE,
+                header.length + (long) start * rowSize, (long) rows * rowSize);
+        for (int r = start; r < start + rows; r++) {
+          for (int c = 0; c < width; c++) {
+            for (int channelIndex = 0; channelIndex < 3; channelIndex++) {
+              int value = image.getChannelValue(c, r, channelIndex);
+              if (bytesPerValue == 2) {
+                data.putShort((short) value);
+              } else {
+                data.put((byte) value);
+              }
+            }
+          }
+        }
+        data.force();
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Unable to save " + filename + " file!");
+    }
+  }
+
   /**
    * Converts the given string into a byte array.
    *
@@ -199,6 +971,49 @@ public class ImageUtil {
     return newString.getBytes();
   }
 
+  /**
+   * Saves a PPM image with the given filename from the given buffered image.
+   *
+   * @param filename the given filename.
+   * @param img the buffered image holding the pixels to save.
+   * @throws IllegalArgumentException if the file cannot be saved.
+   */
+  private void savePPM(String filename, BufferedImage img) throws IllegalArgumentException {
+
+    OutputStream out = null;
+
+    try {
+      out = new BufferedOutputStream(new FileOutputStream(filename));
+    } catch (FileNotFoundException e) {
+      throw new IllegalArgumentException(e.getMessage());
+    }
+
+    int width = img.getWidth();
+    int height = img.getHeight();
+    int[] row = new int[width];
+
+    try {
+      out.write(this.writeString("P3"));
+      out.write(this.writeString(String.valueOf(width)));
+      out.write(this.writeString(String.valueOf(height)));
+      out.write(this.writeString(String.valueOf(255)));
+
+      for (int r = 0; r < height; r++) {
+        img.getRGB(0, r, width, 1, row, 0, width);
+        for (int c = 0; c < width; c++) {
+          out.write(this.writeString(String.valueOf((row[c] >> 16) & 0xFF)));
+          out.write(this.writeString(String.valueOf((row[c] >> 8) & 0xFF)));
+          out.write(this.writeString(String.valueOf(row[c] & 0xFF)));
+        }
+      }
+
+      out.close();
+
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Unable to write to file!");
+    }
+  }
+
   /**
    * Saves the image with the given filename.
    *
@@ -224,6 +1039,19 @@ public class ImageUtil {
       }
     }
 
+    this.writeImg(filename, extension, img);
+  }
+
+  /**
+   * Writes the given buffered image to the given filename using the given extension.
+   *
+   * @param filename the given filename.
+   * @param extension the format of the file.
+   * @param img the buffered image to write.
+   * @throws IllegalArgumentException if the file cannot be saved.
+   */
+  private void writeImg(String filename, String extension, BufferedImage img)
+          throws IllegalArgumentException {
     try {
       File file = new File(filename);
       ImageIO.write(img, extension, file);
@@ -0,0 +1,228 @@
+package model.utility;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Class that reads a plain (P3) or binary (P6) PPM image one row at a time. Only the header is
+ * read when the file is opened, and every row is read from the stream when it is asked for.
+ */
+class PPMRowReader implements RowReader {
+  private final String filename;
+  private final InputStream in;
+  private final boolean binary;
+  private final int width;
+  private final int height;
+  private final int maxValue;
+  private final byte[] bytes;
+  private long position;
+  private int rowsRead;
+
+  /**
+   * Constructor for initialising a PPMRowReader, which opens the file and reads its header.
+   *
+   * @param filename the filename of the image
+   * @throws IllegalArgumentException if the file is not found or is not a valid PPM image, or a
+   *                                  binary PPM image is too short for its pixels
+   */
+  PPMRowReader(String filename) throws IllegalArgumentException {
+    this.filename = filename;
+    try {
+      this.in = new BufferedInputStream(new FileInputStream(filename));
+    } catch (FileNotFoundException e) {
+      throw new IllegalArgumentException("File " + filename + " not found!");
+    }
+
+    try {
+      int first = this.read();
+      int second = this.read();
+      if (first != 'P' || (second != '3' && second != '6')) {
+        throw new IllegalArgumentException("Invalid PPM file: " + filename
+                + " should begin with P3 or P6");
+      }
+      this.binary = second == '6';
+      this.width = this.readValue();
+      this.height = this.readValue();
+      this.maxValue = this.readValue();
+    } catch (IOException e) {
+      this.close();
+      throw new IllegalArgumentException("Not able to read " + filename + " file!");
+    } catch (IllegalArgumentException e) {
+      this.close();
+      throw e;
+    }
+
+    int bytesPerValue = this.maxValue > 255 ? 2 : 1;
+    this.bytes = this.binary ? new byte[this.width * 3 * bytesPerValue] : null;
+
+    long dataSize = (long) this.width * this.height * 3 * bytesPerValue;
+    if (this.binary && new File(filename).length() < this.position + dataSize) {
+      this.close();
+      throw new IllegalArgumentException("Invalid PPM file: not enough pixels in " + filename);
+    }
+  }
+
+  /**
+   * Gets the width of the image.
+   *
+   * @return the width of the image
+   */
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  /**
+   * Gets the height of the image.
+   *
+   * @return the height of the image
+   */
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * Gets the max value that any channel of the image can be. Like the images loaded by
+   * {@link ImageUtil}, this is 255 for every image with 8 bits per channel, whatever the max
+   * value in its header is.
+   *
+   * @return the max value of the channels
+   */
+  @Override
+  public int getMaxValue() {
+    return Math.max(255, this.maxValue);
+  }
+
+  /**
+   * Reads the next row of the image into the given channels.
+   *
+   * @param red the array to read the red values of the row into
+   * @param green the array to read the green values of the row into
+   * @param blue the array to read the blue values of the row into
+   * @throws IllegalArgumentException if every row has been read or the file cannot be read
+   */
+  @Override
+  public void readRow(int[] red, int[] green, int[] blue) throws IllegalArgumentException {
+    if (this.rowsRead == this.height) {
+      throw new IllegalArgumentException("Every row of " + this.filename + " has been read!");
+    }
+
+    if (!this.binary) {
+      for (int x = 0; x < this.width; x++) {
+        red[x] = this.readChannel();
+        green[x] = this.readChannel();
+        blue[x] = this.readChannel();
+      }
+      this.rowsRead++;
+      return;
+    }
+
+    try {
+      int read = 0;
+      while (read < this.bytes.length) {
+        int count = this.in.read(this.bytes, read, this.bytes.length - read);
+        if (count < 0) {
+          throw new IllegalArgumentException("Invalid PPM file: not enough pixels in "
+                  + this.filename);
+        }
+        read += count;
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Not able to read " + this.filename + " file!");
+    }
+
+    int[][] channels = {red, green, blue};
+    if (this.maxValue > 255) {
+      for (int i = 0; i < 3 * this.width; i++) {
+        channels[i % 3][i / 3] = ((this.bytes[2 * i] & 0xFF) << 8)
+                | (this.bytes[2 * i + 1] & 0xFF);
+      }
+    } else {
+      for (int i = 0; i < 3 * this.width; i++) {
+        channels[i % 3][i / 3] = this.bytes[i] & 0xFF;
+      }
+    }
+    this.rowsRead++;
+  }
+
+  /**
+   * Closes the file.
+   *
+   * @throws IllegalArgumentException if the file cannot be closed
+   */
+  @Override
+  public void close() throws IllegalArgumentException {
+    try {
+      this.in.close();
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Not able to read " + this.filename + " file!");
+    }
+  }
+
+  /**
+   * Reads the next channel value of a plain PPM image, which must lie between 0 and the max value
+   * of the image, like the values of the images loaded by {@link ImageUtil}.
+   *
+   * @return the channel value
+   * @throws IllegalArgumentException if the value is out of range or the file cannot be read
+   */
+  private int readChannel() throws IllegalArgumentException {
+    int value = this.readValue();
+    if (value > Math.min(this.maxValue, 65535)) {
+      throw new IllegalArgumentException("One of the values provided was invalid!");
+    }
+    return value;
+  }
+
+  /**
+   * Reads the next number written as text, skipping whitespace and comments before it. The
+   * character after the number is read as well, which is the single whitespace that separates
+   * the header of a binary PPM image from its pixels.
+   *
+   * @return the number
+   * @throws IllegalArgumentException if the next value is not a number or the file cannot be read
+   */
+  private int readValue() throws IllegalArgumentException {
+    try {
+      int c = this.read();
+      while (c == '#' || Character.isWhitespace(c)) {
+        if (c == '#') {
+          while (c != '\n' && c != '\r' && c != -1) {
+            c = this.read();
+          }
+        }
+        c = this.read();
+      }
+
+      if (!Character.isDigit(c)) {
+        throw new IllegalArgumentException("Invalid PPM file: expected a number in "
+                + this.filename);
+      }
+
+      int value = 0;
+      while (Character.isDigit(c)) {
+        value = value * 10 + (c - '0');
+        c = this.read();
+      }
+      return value;
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Not able to read " + this.filename + " file!");
+    }
+  }
+
+  /**
+   * Reads the next byte of the file, counting the bytes read so far.
+   *
+   * @return the byte, or -1 at the end of the file
+   * @throws IOException if the file cannot be read
+   */
+  private int read() throws IOException {
+    this.position++;
+    return this.in.read();
+  }
+}
@@ -0,0 +1,156 @@
+package model.utility;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Class that writes a plain (P3) or binary (P6) PPM image one row at a time. The file is written
+ * in the same way as {@link ImageUtil} saves a whole image, so both give the same file. The rows
+ * are written to a temporary file next to the file, which only replaces the file when the writer
+ * is closed, so a file that was already there is kept if the image is discarded.
+ */
+class PPMRowWriter implements RowWriter {
+  private final String filename;
+  private final File temp;
+  private final OutputStream out;
+  private final boolean binary;
+  private final int width;
+  private final int height;
+  private final int maxValue;
+  private final byte[] bytes;
+  private int rowsWritten;
+  private boolean closed;
+
+  /**
+   * Constructor for initialising a PPMRowWriter, which creates the file and writes its header.
+   *
+   * @param filename the filename of the image
+   * @param width the width of the image
+   * @param height the height of the image
+   * @param maxValue the max value that any channel of the image can be
+   * @param binary whether the image is written in the binary (P6) format
+   * @throws IllegalArgumentException if the file cannot be created
+   */
+  PPMRowWriter(String filename, int width, int height, int maxValue, boolean binary)
+          throws IllegalArgumentException {
+    this.filename = filename;
+    this.binary = binary;
+    this.width = width;
+    this.height = height;
+    this.maxValue = maxValue;
+    this.bytes = binary ? new byte[width * 3 * (maxValue > 255 ? 2 : 1)] : null;
+
+    this.temp = ImageUtil.createTempFile(filename);
+    try {
+      this.out = new BufferedOutputStream(new FileOutputStream(this.temp));
+    } catch (FileNotFoundException e) {
+      throw new IllegalArgumentException(e.getMessage());
+    }
+
+    String ls = System.lineSeparator();
+    String header = binary ? "P6\n" + width + " " + height + "\n" + maxValue + "\n"
+            : "P3" + ls + width + ls + height + ls + maxValue + ls;
+    try {
+      this.write(header.getBytes());
+    } catch (IllegalArgumentException e) {
+      this.discard();
+      throw e;
+    }
+  }
+
+  /**
+   * Writes the next row of the image from the given channels.
+   *
+   * @param red the red values of the row
+   * @param green the green values of the row
+   * @param blue the blue values of the row
+   * @throws IllegalArgumentException if every row has been written or the file cannot be written
+   */
+  @Override
+  public void writeRow(int[] red, int[] green, int[] blue) throws IllegalArgumentException {
+    if (this.rowsWritten == this.height) {
+      throw new IllegalArgumentException("Every row of " + this.filename + " has been written!");
+    }
+
+    int[][] channels = {red, green, blue};
+    if (!this.binary) {
+      StringBuilder row = new StringBuilder();
+      String ls = System.lineSeparator();
+      for (int i = 0; i < 3 * this.width; i++) {
+        row.append(channels[i % 3][i / 3]).append(ls);
+      }
+      this.write(row.toString().getBytes());
+    } else if (this.maxValue > 255) {
+      for (int i = 0; i < 3 * this.width; i++) {
+        int value = channels[i % 3][i / 3];
+        this.bytes[2 * i] = (byte) (value >> 8);
+        this.bytes[2 * i + 1] = (byte) value;
+      }
+      this.write(this.bytes);
+    } else {
+      for (int i = 0; i < 3 * this.width; i++) {
+        this.bytes[i] = (byte) channels[i % 3][i / 3];
+      }
+      this.write(this.bytes);
+    }
+    this.rowsWritten++;
+  }
+
+  /**
+   * Closes the file, writing what is left of it, and moves it to the path of the image.
+   *
+   * @throws IllegalArgumentException if the file cannot be written
+   */
+  @Override
+  public void close() throws IllegalArgumentException {
+    if (this.closed) {
+      return;
+    }
+
+    try {
+      this.out.close();
+    } catch (IOException e) {
+      this.discard();
+      throw new IllegalArgumentException("Unable to write to file!");
+    }
+    this.closed = true;
+    ImageUtil.replaceFile(this.temp, this.filename);
+  }
+
+  /**
+   * Closes the file and deletes it, leaving any file that was already at the path of the image
+   * unchanged.
+   */
+  @Override
+  public void discard() {
+    if (this.closed) {
+      return;
+    }
+
+    this.closed = true;
+    try {
+      this.out.close();
+    } catch (IOException e) {
+      // The file is deleted anyway.
+    }
+    this.temp.delete();
+  }
+
+  /**
+   * Writes the given bytes to the file.
+   *
+   * @param data the bytes to write
+   * @throws IllegalArgumentException if the file cannot be written
+   */
+  private void write(byte[] data) throws IllegalArgumentException {
+    try {
+      this.out.write(data);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Unable to write to file!");
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package model.utility;
+
+/**
+ * Interface that represents an image file that is read one row at a time, so that only a row of
+ * the image has to be held in memory. The rows are read from the top of the image down.
+ */
+public interface RowReader extends AutoCloseable {
+
+  /**
+   * Gets the width of the image.
+   *
+   * @return the width of the image
+   */
+  int getWidth();
+
+  /**
+   * Gets the height of the image.
+   *
+   * @return the height of the image
+   */
+  int getHeight();
+
+  /**
+   * Gets the max value that any channel of the image can be.
+   *
+   * @return the max value of the channels
+   */
+  int getMaxValue();
+
+  /**
+   * Reads the next row of the image into the given channels.
+   *
+   * @param red the array to read the red values of the row into
+   * @param green the array to read the green values of the row into
+   * @param blue the array to read the blue values of the row into
+   * @throws IllegalArgumentException if every row has been read or the file cannot be read
+   */
+  void readRow(int[] red, int[] green, int[] blue) throws IllegalArgumentException;
+
+  /**
+   * Closes the file.
+   *
+   * @throws IllegalArgumentException if the file cannot be closed
+   */
+  @Override
+  void close() throws IllegalArgumentException;
+}
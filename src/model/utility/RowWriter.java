@@ -0,0 +1,32 @@
+package model.utility;
+
+/**
+ * Interface that represents an image file that is written one row at a time, so that only a row
+ * of the image has to be held in memory. The rows are written from the top of the image down.
+ */
+public interface RowWriter extends AutoCloseable {
+
+  /**
+   * Writes the next row of the image from the given channels.
+   *
+   * @param red the red values of the row
+   * @param green the green values of the row
+   * @param blue the blue values of the row
+   * @throws IllegalArgumentException if every row has been written or the file cannot be written
+   */
+  void writeRow(int[] red, int[] green, int[] blue) throws IllegalArgumentException;
+
+  /**
+   * Closes the file, writing what is left of it.
+   *
+   * @throws IllegalArgumentException if the file cannot be written
+   */
+  @Override
+  void close() throws IllegalArgumentException;
+
+  /**
+   * Closes the file without saving it, leaving any file that was already at its path unchanged.
+   * Nothing is done if the file was closed before.
+   */
+  void discard();
+}
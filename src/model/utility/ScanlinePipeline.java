@@ -0,0 +1,343 @@
+package model.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.IFilter;
+import model.ITransformation;
+
+/**
+ * Class that applies a chain of transformations and filters to an image one row at a time, from
+ * a {@link RowReader} to any number of {@link RowWriter}s. Every row is passed through the stages
+ * in the order they were added as soon as it is read. A transformation only needs the row
+ * itself, and a filter keeps a band of rows together with the rows around it that its kernel
+ * reaches, so the memory used depends on the width of the image and the size of the kernels but
+ * not on the height of the image.
+ *
+ * <p>A filter is applied to every band of rows like {@link model.OffHeapImage} applies it, with
+ * the rows around the band that lie outside the image treated as 0, so the rows that come out
+ * are the same as the rows of the filtered image.
+ */
+public class ScanlinePipeline {
+  private static final int FILTER_BAND_ROWS = 64;
+
+  private final RowReader reader;
+  private final int width;
+  private final int height;
+  private final int maxValue;
+  private final List<Stage> stages;
+
+  /**
+   * Constructor for initialising a ScanlinePipeline that reads the rows of the given image.
+   *
+   * @param reader the reader of the rows of the image
+   */
+  public ScanlinePipeline(RowReader reader) {
+    this.reader = reader;
+    this.width = reader.getWidth();
+    this.height = reader.getHeight();
+    this.maxValue = reader.getMaxValue();
+    this.stages = new ArrayList<Stage>();
+  }
+
+  /**
+   * Gets the width of the image.
+   *
+   * @return the width of the image
+   */
+  public int getWidth() {
+    return this.width;
+  }
+
+  /**
+   * Gets the height of the image.
+   *
+   * @return the height of the image
+   */
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * Gets the max value that any channel of the image can be.
+   *
+   * @return the max value of the channels
+   */
+  public int getMaxValue() {
+    return this.maxValue;
+  }
+
+  /**
+   * Adds a stage that applies the given matrix to every pixel of the rows.
+   *
+   * @param transformation the given matrix
+   */
+  public void addTransformation(ITransformation transformation) {
+    this.stages.add(new TransformationStage(transformation));
+  }
+
+  /**
+   * Adds a stage that applies the given filter to every pixel of the rows.
+   *
+   * @param filter the given filter
+   */
+  public void addFilter(IFilter filter) {
+    this.stages.add(new FilterStage(filter));
+  }
+
+  /**
+   * Adds a stage that writes the rows, as they are after the stages added before it, to the
+   * given writer. The writer is not closed by the pipeline.
+   *
+   * @param writer the writer of the rows of the image to save
+   */
+  public void addOutput(RowWriter writer) {
+    this.stages.add(new OutputStage(writer));
+  }
+
+  /**
+   * Gets the number of bytes of the rows that the stages keep at any time.
+   *
+   * @return the number of bytes of the rows kept
+   */
+  public long getBufferedBytes() {
+    long values = 3L * this.width;
+    for (Stage stage : this.stages) {
+      values += stage.bufferedValues();
+    }
+    return 4 * values;
+  }
+
+  /**
+   * Reads every row of the image and passes it through the stages.
+   *
+   * @throws IllegalArgumentException if the image cannot be read or written
+   */
+  public void run() throws IllegalArgumentException {
+    for (int i = 0; i < this.stages.size() - 1; i++) {
+      this.stages.get(i).next = this.stages.get(i + 1);
+    }
+
+    if (this.stages.isEmpty()) {
+      return;
+    }
+
+    int[][] row = new int[3][this.width];
+    Stage first = this.stages.get(0);
+    for (int r = 0; r < this.height; r++) {
+      this.reader.readRow(row[0], row[1], row[2]);
+      first.push(row);
+    }
+  }
+
+  /**
+   * Class for a stage of the pipeline, which receives the rows of the image in order and passes
+   * its own rows on to the next stage.
+   */
+  private abstract static class Stage {
+    private Stage next;
+
+    /**
+     * Receives the next row of the image. The channels of the row may be overwritten.
+     *
+     * @param row the red, green and blue values of the row
+     * @throws IllegalArgumentException if the row cannot be written
+     */
+    abstract void push(int[][] row) throws IllegalArgumentException;
+
+    /**
+     * Gets the number of channel values that the stage keeps.
+     *
+     * @return the number of values kept
+     */
+    abstract long bufferedValues();
+
+    /**
+     * Passes the given row on to the next stage, if there is one.
+     *
+     * @param row the red, green and blue values of the row
+     * @throws IllegalArgumentException if the row cannot be written
+     */
+    void emit(int[][] row) throws IllegalArgumentException {
+      if (this.next != null) {
+        this.next.push(row);
+      }
+    }
+  }
+
+  /**
+   * Class for a stage that transforms every row on its own.
+   */
+  private final class TransformationStage extends Stage {
+    private final ITransformation transformation;
+    private final int[][] results;
+
+    /**
+     * Constructor for initialising a TransformationStage.
+     *
+     * @param transformation the given matrix
+     */
+    TransformationStage(ITransformation transformation) {
+      this.transformation = transformation;
+      this.results = new int[3][width];
+    }
+
+    /**
+     * Transforms the row and passes the result on.
+     *
+     * @param row the red, green and blue values of the row
+     * @throws IllegalArgumentException if the row cannot be written
+     */
+    @Override
+    void push(int[][] row) throws IllegalArgumentException {
+      this.transformation.transformRow(row[0], row[1], row[2], this.results, width, maxValue);
+      this.emit(this.results);
+    }
+
+    /**
+     * Gets the number of channel values that the stage keeps.
+     *
+     * @return the number of values kept
+     */
+    @Override
+    long bufferedValues() {
+      return 3L * width;
+    }
+  }
+
+  /**
+   * Class for a stage that writes every row to a file and passes it on unchanged.
+   */
+  private static final class OutputStage extends Stage {
+    private final RowWriter writer;
+
+    /**
+     * Constructor for initialising an OutputStage.
+     *
+     * @param writer the writer of the rows
+     */
+    OutputStage(RowWriter writer) {
+      this.writer = writer;
+    }
+
+    /**
+     * Writes the row and passes it on.
+     *
+     * @param row the red, green and blue values of the row
+     * @throws IllegalArgumentException if the row cannot be written
+     */
+    @Override
+    void push(int[][] row) throws IllegalArgumentException {
+      this.writer.writeRow(row[0], row[1], row[2]);
+      this.emit(row);
+    }
+
+    /**
+     * Gets the number of channel values that the stage keeps.
+     *
+     * @return the number of values kept
+     */
+    @Override
+    long bufferedValues() {
+      return 0;
+    }
+  }
+
+  /**
+   * Class for a stage that filters the rows in bands. The rows of a band and the rows around it
+   * that the kernel reaches are kept in planes, and once the last of them has been received the
+   * band is filtered and passed on. The rows that the next band still needs are then moved to the
+   * start of the planes.
+   */
+  private final class FilterStage extends Stage {
+    private final IFilter filter;
+    private final int half;
+    private final int bandSize;
+    private final int[][] planes;
+    private final int[][] filtered;
+    private final int[][] row;
+    private int firstRow;
+    private int received;
+    private int start;
+
+    /**
+     * Constructor for initialising a FilterStage.
+     *
+     * @param filter the given filter
+     */
+    FilterStage(IFilter filter) {
+      this.filter = filter;
+      this.half = filter.getSize() / 2;
+      this.bandSize = Math.max(1, Math.min(height,
+              Math.max(FILTER_BAND_ROWS, filter.getSize())));
+      int bandHeight = this.bandSize + 2 * this.half;
+      this.planes = new int[3][width * bandHeight];
+      this.filtered = new int[3][width * bandHeight];
+      this.row = new int[3][width];
+    }
+
+    /**
+     * Keeps the row, and filters the band once every row it needs has been received.
+     *
+     * @param values the red, green and blue values of the row
+     * @throws IllegalArgumentException if the row cannot be written
+     */
+    @Override
+    void push(int[][] values) throws IllegalArgumentException {
+      int offset = (this.received - this.firstRow) * width;
+      for (int channel = 0; channel < 3; channel++) {
+        System.arraycopy(values[channel], 0, this.planes[channel], offset, width);
+      }
+      this.received++;
+
+      // Near the bottom of the image the last row can complete several bands at once.
+      int rows = Math.min(this.bandSize, height - this.start);
+      while (rows > 0 && this.received == Math.min(height, this.start + rows + this.half)) {
+        this.filterBand(rows);
+        rows = Math.min(this.bandSize, height - this.start);
+      }
+    }
+
+    /**
+     * Gets the number of channel values that the stage keeps.
+     *
+     * @return the number of values kept
+     */
+    @Override
+    long bufferedValues() {
+      return 2L * this.planes[0].length * 3 + 3L * width;
+    }
+
+    /**
+     * Filters the band that starts at the current row, passes its rows on and keeps the rows
+     * that the next band needs.
+     *
+     * @param rows the number of rows in the band
+     * @throws IllegalArgumentException if a row cannot be written
+     */
+    private void filterBand(int rows) throws IllegalArgumentException {
+      int bandRows = this.received - this.firstRow;
+      for (int channel = 0; channel < 3; channel++) {
+        this.filter.filterPlane(this.planes[channel], this.filtered[channel], width, bandRows,
+                maxValue);
+      }
+
+      for (int r = 0; r < rows; r++) {
+        int offset = (this.start + r - this.firstRow) * width;
+        for (int channel = 0; channel < 3; channel++) {
+          System.arraycopy(this.filtered[channel], offset, this.row[channel], 0, width);
+        }
+        this.emit(this.row);
+      }
+
+      this.start += rows;
+      int nextFirstRow = Math.max(0, this.start - this.half);
+      int kept = this.received - nextFirstRow;
+      for (int channel = 0; channel < 3; channel++) {
+        System.arraycopy(this.planes[channel], (nextFirstRow - this.firstRow) * width,
+                this.planes[channel], 0, kept * width);
+      }
+      this.firstRow = nextFirstRow;
+    }
+  }
+}
@@ -35,6 +35,18 @@ public interface GuiFrameView {
    */
   int inputBrightenIncrement();
 
+  /**
+   * Gets the radius of the box blur from the user.
+   * @return the radius to blur the image by, or 0 if the user cancelled
+   */
+  int inputBlurRadius();
+
+  /**
+   * Gets the standard deviation of the gaussian blur from the user.
+   * @return the sigma to blur the image by, or 0 if the user cancelled
+   */
+  double inputBlurSigma();
+
   /**
    * Displays the given message.
    *
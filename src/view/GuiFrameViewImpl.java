@@ -455,6 +455,47 @@ public class GuiFrameViewImpl implements GuiFrameView {
     return increment;
   }
 
+  /**
+   * Gets the radius of the box blur from the user.
+   * @return the radius to blur the image by, or 0 if the user cancelled
+   */
+  @Override
+  public int inputBlurRadius() {
+    return (int) this.inputPositiveNumber("Enter the blur radius:",
+            "Please enter a valid positive integer radius:", true);
+  }
+
+  /**
+   * Gets the standard deviation of the gaussian blur from the user.
+   * @return the sigma to blur the image by, or 0 if the user cancelled
+   */
+  @Override
+  public double inputBlurSigma() {
+    return this.inputPositiveNumber("Enter the blur sigma:",
+            "Please enter a valid positive sigma:", false);
+  }
+
+  // asks the user for a positive number until a valid one is entered or the dialog is cancelled
+  private double inputPositiveNumber(String message, String retryMessage, boolean wholeNumber) {
+    String result = JOptionPane.showInputDialog(this.mainPanel, message, "",
+            JOptionPane.PLAIN_MESSAGE);
+
+    while (result != null && !result.equals("")) {
+      try {
+        double value = wholeNumber ? Integer.parseInt(result) : Double.parseDouble(result);
+        if (value > 0 && !Double.isInfinite(value)) {
+          return value;
+        }
+      } catch (NumberFormatException e) {
+        // ask again below
+      }
+      result = JOptionPane.showInputDialog(this.mainPanel, retryMessage, "",
+              JOptionPane.PLAIN_MESSAGE);
+    }
+
+    return 0;
+  }
+
   /**
    * Displays the given message.
    *